@@ -0,0 +1,60 @@
+package com.sonexus.portal.api.cli;
+
+import com.sonexus.portal.api.dto.ProviderImportResult;
+import com.sonexus.portal.service.ProviderImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * One-shot provider import from the command line, e.g.
+ * java -jar hcp-portal.jar --spring.main.web-application-type=none --import-providers=/data/npidata.csv.gz
+ * Exits once the import completes.
+ */
+@Component
+@ConditionalOnProperty(name = "import-providers")
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderImportRunner implements ApplicationRunner {
+
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
+    private final ProviderImportService providerImportService;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path file = Path.of(args.getOptionValues("import-providers").get(0));
+        if (!Files.isReadable(file)) {
+            throw new IllegalArgumentException("Provider import file is not readable: " + file);
+        }
+
+        int exitCode = 0;
+        try (InputStream input = open(file)) {
+            ProviderImportResult result = providerImportService.importProviders(input, file.toString());
+            log.info("Imported providers from {}: {}", file, result);
+        } catch (Exception e) {
+            log.error("Provider import from {} failed", file, e);
+            exitCode = 1;
+        }
+
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+
+    private InputStream open(Path file) throws IOException {
+        InputStream input = Files.newInputStream(file);
+        return file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(input, GZIP_BUFFER_SIZE) : input;
+    }
+}
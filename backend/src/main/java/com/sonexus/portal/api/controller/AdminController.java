@@ -2,10 +2,13 @@ package com.sonexus.portal.api.controller;
 
 import com.sonexus.portal.api.dto.*;
 import com.sonexus.portal.service.AuditService;
+import com.sonexus.portal.service.DeadLetterService;
 import com.sonexus.portal.service.ProgramService;
 import com.sonexus.portal.service.ProviderAffiliationService;
+import com.sonexus.portal.service.ProviderImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,12 +16,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/v1/admin")
@@ -28,9 +36,13 @@ import java.util.List;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
     private final ProviderAffiliationService affiliationService;
     private final ProgramService programService;
     private final AuditService auditService;
+    private final ProviderImportService providerImportService;
+    private final DeadLetterService deadLetterService;
 
     @GetMapping("/providers/affiliations")
     @Operation(summary = "Get pending affiliations", description = "Get all pending provider affiliation requests")
@@ -50,6 +62,19 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/providers/import", consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "Bulk import providers",
+            description = "Stream an NPPES or provider-column CSV as the request body (optionally Content-Encoding: gzip); upserts on NPI")
+    public ResponseEntity<ProviderImportResult> importProviders(HttpServletRequest request) throws IOException {
+        log.info("Importing providers: contentLength={}", request.getContentLengthLong());
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            body = new GZIPInputStream(body, GZIP_BUFFER_SIZE);
+        }
+        ProviderImportResult result = providerImportService.importProviders(body, "upload");
+        return ResponseEntity.ok(result);
+    }
+
     @PostMapping("/programs/{id}/services")
     @Operation(summary = "Add service to program", description = "Add a new support service to a program")
     public ResponseEntity<SupportServiceResponse> addServiceToProgram(
@@ -75,4 +100,37 @@ public class AdminController {
                 eventType, userId, action, correlationId, startDate, endDate, pageable);
         return ResponseEntity.ok(auditLogs);
     }
+
+    @GetMapping(value = "/audit", params = "cursor")
+    @Operation(summary = "Get audit logs (cursor)",
+            description = "Keyset-paginated audit logs, newest first; pass an empty cursor for the first page")
+    public ResponseEntity<CursorPageResponse<AuditEventResponse>> getAuditLogsByCursor(
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String correlationId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("Getting audit logs by cursor: eventType={}, userId={}, action={}", eventType, userId, action);
+        CursorPageResponse<AuditEventResponse> auditLogs = auditService.getAuditEventsByCursor(
+                eventType, userId, action, correlationId, startDate, endDate, cursor, size);
+        return ResponseEntity.ok(auditLogs);
+    }
+
+    @GetMapping("/events/dead-letters")
+    @Operation(summary = "Get dead letters", description = "Dead-lettered domain events not replayed yet, newest first")
+    public ResponseEntity<List<DeadLetterEventResponse>> getDeadLetters(
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("Getting dead letters: limit={}", limit);
+        return ResponseEntity.ok(deadLetterService.getPendingDeadLetters(limit));
+    }
+
+    @PostMapping("/events/dead-letters/{id}/replay")
+    @Operation(summary = "Replay dead letter", description = "Hand a dead-lettered event back to the event bus")
+    public ResponseEntity<DeadLetterEventResponse> replayDeadLetter(@PathVariable Long id) {
+        log.info("Replaying dead letter: id={}", id);
+        return ResponseEntity.ok(deadLetterService.replay(id));
+    }
 }
@@ -3,6 +3,7 @@ package com.sonexus.portal.api.controller;
 import com.sonexus.portal.api.dto.*;
 import com.sonexus.portal.domain.model.User;
 import com.sonexus.portal.domain.ports.AuthProvider;
+import com.sonexus.portal.infrastructure.security.StreamTicketService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthProvider authProvider;
+    private final StreamTicketService streamTicketService;
 
     @PostMapping("/login")
     @Operation(summary = "Login", description = "Authenticate user and return JWT token")
@@ -91,4 +93,18 @@ public class AuthController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.status(401).build());
     }
+
+    @PostMapping("/stream-ticket")
+    @Operation(summary = "Stream ticket",
+            description = "Issue a short-lived, single-use ticket for opening an event stream with EventSource")
+    public ResponseEntity<StreamTicketResponse> issueStreamTicket() {
+        return authProvider.getCurrentUser()
+                .map(streamTicketService::issue)
+                .map(ticket -> StreamTicketResponse.builder()
+                        .ticket(ticket.ticket())
+                        .expiresAt(ticket.expiresAt())
+                        .build())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(401).build());
+    }
 }
@@ -1,15 +1,20 @@
 package com.sonexus.portal.api.controller;
 
+import com.sonexus.portal.api.dto.BatchInvestigationJobResponse;
+import com.sonexus.portal.api.dto.BatchInvestigationRequest;
 import com.sonexus.portal.api.dto.BenefitsInvestigationRequestDto;
 import com.sonexus.portal.api.dto.BenefitsInvestigationResponseDto;
+import com.sonexus.portal.service.BenefitsInvestigationBatchService;
 import com.sonexus.portal.service.BenefitsInvestigationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -20,6 +25,7 @@ import java.util.List;
 public class BenefitsInvestigationController {
 
     private final BenefitsInvestigationService benefitsInvestigationService;
+    private final BenefitsInvestigationBatchService benefitsInvestigationBatchService;
 
     /**
      * Run a new benefits investigation for a patient
@@ -85,4 +91,44 @@ public class BenefitsInvestigationController {
 
         return ResponseEntity.ok(investigation);
     }
+
+    /**
+     * Start a batch of benefits investigations; poll or stream the returned job for results
+     */
+    @PostMapping("/benefits-investigation/batches")
+    @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
+    public ResponseEntity<BatchInvestigationJobResponse> submitBatch(
+            @Valid @RequestBody BatchInvestigationRequest request) {
+
+        log.info("POST /api/v1/benefits-investigation/batches - Submitting {} investigations",
+                request.getItems().size());
+
+        BatchInvestigationJobResponse job = benefitsInvestigationBatchService.submit(request);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    /**
+     * Get the progress and results of a batch job
+     */
+    @GetMapping("/benefits-investigation/batches/{jobId}")
+    @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
+    public ResponseEntity<BatchInvestigationJobResponse> getBatch(@PathVariable String jobId) {
+
+        log.info("GET /api/v1/benefits-investigation/batches/{} - Fetching batch job", jobId);
+
+        return ResponseEntity.ok(benefitsInvestigationBatchService.getJob(jobId));
+    }
+
+    /**
+     * Stream progress events for a batch job until it finishes
+     */
+    @GetMapping(value = "/benefits-investigation/batches/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
+    public SseEmitter streamBatch(@PathVariable String jobId) {
+
+        log.info("GET /api/v1/benefits-investigation/batches/{}/events - Opening batch stream", jobId);
+
+        return benefitsInvestigationBatchService.streamJob(jobId);
+    }
 }
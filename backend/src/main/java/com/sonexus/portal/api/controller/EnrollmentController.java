@@ -1,9 +1,12 @@
 package com.sonexus.portal.api.controller;
 
+import com.sonexus.portal.api.dto.BulkEnrollmentStatusRequest;
+import com.sonexus.portal.api.dto.BulkEnrollmentStatusResponse;
 import com.sonexus.portal.api.dto.EnrollmentRequest;
 import com.sonexus.portal.api.dto.EnrollmentResponse;
 import com.sonexus.portal.infrastructure.persistence.entity.EnrollmentEntity.EnrollmentStatus;
 import com.sonexus.portal.service.EnrollmentService;
+import com.sonexus.portal.service.EnrollmentStatusBatchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -23,6 +26,7 @@ import java.util.List;
 public class EnrollmentController {
 
     private final EnrollmentService enrollmentService;
+    private final EnrollmentStatusBatchService enrollmentStatusBatchService;
 
     @PostMapping("/patients/{patientId}/enrollments")
     @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT')")
@@ -64,4 +68,15 @@ public class EnrollmentController {
         EnrollmentResponse enrollment = enrollmentService.updateEnrollmentStatus(id, status, reason);
         return ResponseEntity.ok(enrollment);
     }
+
+    @PostMapping("/enrollments/status-transitions")
+    @PreAuthorize("hasAnyRole('SUPPORT_AGENT', 'ADMIN')")
+    @Operation(summary = "Bulk update enrollment statuses",
+            description = "Apply many status transitions at once, including submissions; returns an outcome per transition")
+    public ResponseEntity<BulkEnrollmentStatusResponse> transitionEnrollmentStatuses(
+            @Valid @RequestBody BulkEnrollmentStatusRequest request) {
+        log.info("Bulk updating enrollment statuses: transitions={}", request.getTransitions().size());
+        BulkEnrollmentStatusResponse response = enrollmentStatusBatchService.transition(request);
+        return ResponseEntity.ok(response);
+    }
 }
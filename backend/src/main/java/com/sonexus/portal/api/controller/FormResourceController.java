@@ -1,7 +1,10 @@
 package com.sonexus.portal.api.controller;
 
+import com.sonexus.portal.api.dto.CursorPageResponse;
 import com.sonexus.portal.api.dto.FormResourceRequestDto;
 import com.sonexus.portal.api.dto.FormResourceResponseDto;
+import com.sonexus.portal.api.support.FileDownloadResponder;
+import com.sonexus.portal.domain.model.FileDownload;
 import com.sonexus.portal.service.FormResourceService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -9,16 +12,13 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
 import java.util.List;
 
 @Slf4j
@@ -28,6 +28,7 @@ import java.util.List;
 public class FormResourceController {
 
     private final FormResourceService formResourceService;
+    private final FileDownloadResponder fileDownloadResponder;
 
     /**
      * Upload a new form resource (ADMIN only)
@@ -67,6 +68,28 @@ public class FormResourceController {
         return ResponseEntity.ok(forms);
     }
 
+    /**
+     * Search and list form resources with keyset pagination; pass an empty cursor for the first page
+     */
+    @GetMapping(value = "/forms", params = "cursor")
+    @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
+    public ResponseEntity<CursorPageResponse<FormResourceResponseDto>> searchFormsByCursor(
+            @RequestParam(required = false) Long programId,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        log.info("GET /api/v1/forms - Searching forms by cursor with programId={}, category={}, searchTerm={}",
+                programId, category, searchTerm);
+
+        CursorPageResponse<FormResourceResponseDto> forms = formResourceService.searchFormsByCursor(
+                programId, category, searchTerm, cursor, size
+        );
+
+        return ResponseEntity.ok(forms);
+    }
+
     /**
      * Get a specific form by ID
      */
@@ -95,22 +118,15 @@ public class FormResourceController {
         log.info("GET /api/v1/forms/{}/view - Viewing form", id);
 
         try {
-            FormResourceResponseDto form = formResourceService.getFormById(id);
-            InputStream fileStream = formResourceService.downloadForm(id, patientId, request);
-
-            // Set response headers for inline viewing
-            response.setContentType(form.getMimeType());
-            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
-                    "inline; filename=\"" + form.getFileName() + "\"");
-            response.setContentLengthLong(form.getFileSize());
-
-            // Copy file stream to response
-            StreamUtils.copy(fileStream, response.getOutputStream());
-            response.flushBuffer();
+            FileDownload download = formResourceService.downloadForm(id);
+            fileDownloadResponder.write(download, true, request, response,
+                    () -> formResourceService.recordFormDownload(id, patientId, request));
 
         } catch (Exception e) {
             log.error("Error viewing form", e);
-            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            if (!response.isCommitted()) {
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
         }
     }
 
@@ -128,22 +144,15 @@ public class FormResourceController {
         log.info("GET /api/v1/forms/{}/download - Downloading form", id);
 
         try {
-            FormResourceResponseDto form = formResourceService.getFormById(id);
-            InputStream fileStream = formResourceService.downloadForm(id, patientId, request);
-
-            // Set response headers for download
-            response.setContentType(form.getMimeType());
-            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
-                    "attachment; filename=\"" + form.getFileName() + "\"");
-            response.setContentLengthLong(form.getFileSize());
-
-            // Copy file stream to response
-            StreamUtils.copy(fileStream, response.getOutputStream());
-            response.flushBuffer();
+            FileDownload download = formResourceService.downloadForm(id);
+            fileDownloadResponder.write(download, false, request, response,
+                    () -> formResourceService.recordFormDownload(id, patientId, request));
 
         } catch (Exception e) {
             log.error("Error downloading form", e);
-            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            if (!response.isCommitted()) {
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
         }
     }
 
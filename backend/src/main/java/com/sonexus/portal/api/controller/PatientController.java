@@ -1,5 +1,6 @@
 package com.sonexus.portal.api.controller;
 
+import com.sonexus.portal.api.dto.CursorPageResponse;
 import com.sonexus.portal.api.dto.PatientRequest;
 import com.sonexus.portal.api.dto.PatientResponse;
 import com.sonexus.portal.service.PatientService;
@@ -44,6 +45,32 @@ public class PatientController {
         return ResponseEntity.ok(patients);
     }
 
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
+    @Operation(summary = "Search patients (cursor)",
+            description = "Keyset-paginated patient listing, newest first; pass an empty cursor for the first page")
+    public ResponseEntity<CursorPageResponse<PatientResponse>> searchPatientsByCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Searching patients by cursor: search={}", search);
+        CursorPageResponse<PatientResponse> patients = patientService.searchPatientsByCursor(search, cursor, size);
+        return ResponseEntity.ok(patients);
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
+    @Operation(summary = "Ranked patient search",
+            description = "Prefix-ranked search by name or reference ID with cursor pagination")
+    public ResponseEntity<CursorPageResponse<PatientResponse>> searchPatientsRanked(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Ranked patient search: q={}", q);
+        CursorPageResponse<PatientResponse> patients = patientService.searchPatientsRanked(q, cursor, size);
+        return ResponseEntity.ok(patients);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
     @Operation(summary = "Get patient by ID", description = "Get patient details by ID")
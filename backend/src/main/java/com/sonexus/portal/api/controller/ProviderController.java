@@ -2,7 +2,10 @@ package com.sonexus.portal.api.controller;
 
 import com.sonexus.portal.api.dto.ProviderAffiliationRequest;
 import com.sonexus.portal.api.dto.ProviderAffiliationResponse;
+import com.sonexus.portal.api.dto.CursorPageResponse;
+import com.sonexus.portal.api.dto.ProviderDirectoryResponse;
 import com.sonexus.portal.api.dto.ProviderResponse;
+import com.sonexus.portal.api.dto.ProviderSuggestion;
 import com.sonexus.portal.service.ProviderAffiliationService;
 import com.sonexus.portal.service.ProviderService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -40,6 +43,43 @@ public class ProviderController {
         return ResponseEntity.ok(providers);
     }
 
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
+    @Operation(summary = "Search providers (cursor)",
+            description = "Keyset-paginated active providers by name; pass an empty cursor for the first page")
+    public ResponseEntity<CursorPageResponse<ProviderResponse>> searchProvidersByCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Searching providers by cursor: search={}", search);
+        CursorPageResponse<ProviderResponse> providers = providerService.searchProvidersByCursor(search, cursor, size);
+        return ResponseEntity.ok(providers);
+    }
+
+    @GetMapping("/directory")
+    @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
+    @Operation(summary = "Provider directory search",
+            description = "Search by 10-digit NPI or name, filter by specialty and state; returns facet counts and a cursor")
+    public ResponseEntity<ProviderDirectoryResponse> searchDirectory(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String specialty,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Provider directory search: q={}, specialty={}, state={}", q, specialty, state);
+        ProviderDirectoryResponse response = providerService.searchDirectory(q, specialty, state, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/typeahead")
+    @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
+    @Operation(summary = "Provider typeahead", description = "Suggest active providers whose name has a word starting with the prefix")
+    public ResponseEntity<List<ProviderSuggestion>> suggestProviders(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(providerService.suggestProviders(prefix, limit));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
     @Operation(summary = "Get provider by ID", description = "Get provider details by ID")
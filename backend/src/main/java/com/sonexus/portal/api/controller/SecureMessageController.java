@@ -1,9 +1,14 @@
 package com.sonexus.portal.api.controller;
 
 import com.sonexus.portal.api.dto.*;
+import com.sonexus.portal.api.support.FileDownloadResponder;
+import com.sonexus.portal.domain.model.FileDownload;
+import com.sonexus.portal.service.MessageStreamService;
 import com.sonexus.portal.service.SecureMessageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +21,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 
@@ -27,6 +33,8 @@ import java.io.IOException;
 public class SecureMessageController {
 
     private final SecureMessageService messageService;
+    private final MessageStreamService messageStreamService;
+    private final FileDownloadResponder fileDownloadResponder;
 
     @GetMapping("/threads")
     @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
@@ -38,6 +46,18 @@ public class SecureMessageController {
         return ResponseEntity.ok(threads);
     }
 
+    @GetMapping(value = "/threads", params = "cursor")
+    @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
+    @Operation(summary = "Get message threads (cursor)",
+            description = "Keyset-paginated threads by latest activity; pass an empty cursor for the first page")
+    public ResponseEntity<CursorPageResponse<MessageThreadResponse>> getThreadsByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Getting message threads by cursor");
+        CursorPageResponse<MessageThreadResponse> threads = messageService.getThreadsByCursor(cursor, size);
+        return ResponseEntity.ok(threads);
+    }
+
     @PostMapping("/threads")
     @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
     @Operation(summary = "Create thread", description = "Create a new message thread")
@@ -50,13 +70,28 @@ public class SecureMessageController {
 
     @GetMapping("/threads/{id}")
     @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
-    @Operation(summary = "Get thread by ID", description = "Get thread details with all messages")
-    public ResponseEntity<MessageThreadResponse> getThread(@PathVariable Long id) {
+    @Operation(summary = "Get thread by ID",
+            description = "Get thread details with the newest messages and mark the thread read")
+    public ResponseEntity<MessageThreadResponse> getThread(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "50") int size) {
         log.info("Getting thread: id={}", id);
-        MessageThreadResponse thread = messageService.getThreadById(id);
+        MessageThreadResponse thread = messageService.getThreadById(id, size);
         return ResponseEntity.ok(thread);
     }
 
+    @GetMapping("/threads/{id}/messages")
+    @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
+    @Operation(summary = "Get thread messages", description = "Page through a thread's message history, newest first")
+    public ResponseEntity<CursorPageResponse<MessageResponse>> getThreadMessages(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("Getting thread messages: id={}", id);
+        CursorPageResponse<MessageResponse> messages = messageService.getThreadMessages(id, cursor, size);
+        return ResponseEntity.ok(messages);
+    }
+
     @PostMapping("/threads/{id}/messages")
     @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
     @Operation(summary = "Send message", description = "Send a message in a thread")
@@ -68,6 +103,15 @@ public class SecureMessageController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
+    @Operation(summary = "Message stream",
+            description = "Server-Sent Events for the current user: 'message' on new messages, 'unread' on count changes")
+    public SseEmitter stream() {
+        log.info("Opening message stream");
+        return messageStreamService.subscribe();
+    }
+
     @PostMapping("/attachments")
     @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
     @Operation(summary = "Upload attachment", description = "Upload an attachment for a message")
@@ -80,14 +124,14 @@ public class SecureMessageController {
 
     @GetMapping("/attachments/{id}/download")
     @PreAuthorize("hasAnyRole('OFFICE_STAFF', 'SUPPORT_AGENT', 'ADMIN')")
-    @Operation(summary = "Download attachment", description = "Download an attachment")
-    public ResponseEntity<byte[]> downloadAttachment(@PathVariable Long id) {
+    @Operation(summary = "Download attachment", description = "Stream an attachment; supports Range and conditional requests")
+    public void downloadAttachment(
+            @PathVariable Long id,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         log.info("Downloading attachment: id={}", id);
-        byte[] fileContent = messageService.downloadAttachment(id);
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment")
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(fileContent);
+        FileDownload download = messageService.downloadAttachment(id);
+        fileDownloadResponder.write(download, false, request, response,
+                () -> messageService.recordAttachmentDownload(id));
     }
 }
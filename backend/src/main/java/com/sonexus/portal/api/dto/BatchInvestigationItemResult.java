@@ -0,0 +1,24 @@
+package com.sonexus.portal.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one batch item; investigationId is set on success, error on failure
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchInvestigationItemResult {
+    private Integer index;
+    private Long patientId;
+    private String investigationType;
+    private Long investigationId;
+    private String coverageStatus;
+    private String coverageType;
+    private Boolean priorAuthRequired;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.sonexus.portal.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchInvestigationJobResponse {
+    private String jobId;
+    private String status; // RUNNING, COMPLETED, INTERRUPTED
+    private Integer total;
+    private Integer succeeded;
+    private Integer failed;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private List<BatchInvestigationItemResult> results; // resolved items so far, in request order
+}
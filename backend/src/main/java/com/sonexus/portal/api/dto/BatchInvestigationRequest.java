@@ -0,0 +1,21 @@
+package com.sonexus.portal.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchInvestigationRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Valid
+    private List<BatchInvestigationItem> items;
+}
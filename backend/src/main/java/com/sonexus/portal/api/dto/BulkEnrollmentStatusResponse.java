@@ -0,0 +1,19 @@
+package com.sonexus.portal.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentStatusResponse {
+    private int requested;
+    private int applied;
+    private int rejected;
+    private List<EnrollmentStatusTransitionResult> results;
+}
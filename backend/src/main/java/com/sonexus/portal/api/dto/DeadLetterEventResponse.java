@@ -0,0 +1,24 @@
+package com.sonexus.portal.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterEventResponse {
+    private Long id;
+    private String eventId;
+    private String eventType;
+    private String aggregateId;
+    private String handler;
+    private String reason;
+    private Integer attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime replayedAt;
+}
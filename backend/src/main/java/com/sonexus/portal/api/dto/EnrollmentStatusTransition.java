@@ -0,0 +1,23 @@
+package com.sonexus.portal.api.dto;
+
+import com.sonexus.portal.infrastructure.persistence.entity.EnrollmentEntity.EnrollmentStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentStatusTransition {
+
+    @NotNull(message = "Enrollment ID is required")
+    private Long enrollmentId;
+
+    @NotNull(message = "Status is required")
+    private EnrollmentStatus status;
+
+    private String reason;
+}
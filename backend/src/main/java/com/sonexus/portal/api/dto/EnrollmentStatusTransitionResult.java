@@ -0,0 +1,22 @@
+package com.sonexus.portal.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one transition in a bulk request; error is set when it was not applied
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentStatusTransitionResult {
+    private Integer index;
+    private Long enrollmentId;
+    private String fromStatus;
+    private String toStatus;
+    private Boolean applied;
+    private String error;
+}
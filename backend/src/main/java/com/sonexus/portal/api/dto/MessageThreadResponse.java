@@ -25,5 +25,7 @@ public class MessageThreadResponse {
     private LocalDateTime createdAt;
     private LocalDateTime lastMessageAt;
     private Long unreadCount;
-    private List<MessageResponse> messages;
+    private List<MessageResponse> messages; // newest first
+    private String messagesNextCursor; // older history via /threads/{id}/messages, null when complete
+    private List<ReadReceiptResponse> readReceipts;
 }
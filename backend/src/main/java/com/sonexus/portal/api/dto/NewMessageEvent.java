@@ -0,0 +1,23 @@
+package com.sonexus.portal.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pushed on the message stream when a message arrives; content is fetched through the thread endpoints
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewMessageEvent {
+    private Long threadId;
+    private Long messageId;
+    private Long sentBy;
+    private String sentByName;
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,24 @@
+package com.sonexus.portal.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Provider directory page. Facet counts are computed only for the first page (no cursor).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderDirectoryResponse {
+    private List<ProviderResponse> items;
+    private String nextCursor; // null on the last page
+    private boolean hasMore;
+    private int size;
+    private List<FacetCount> specialtyFacets;
+    private List<FacetCount> stateFacets;
+}
@@ -0,0 +1,22 @@
+package com.sonexus.portal.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderImportResult {
+    private long recordsRead;
+    private long recordsRejected;
+    private long providersInserted;
+    private long providersUpdated;
+    private long providersUnchanged;
+    /** Rows superseded by a later row with the same NPI in the same chunk */
+    private long duplicatesSkipped;
+    private long elapsedMs;
+    private long recordsPerSecond;
+}
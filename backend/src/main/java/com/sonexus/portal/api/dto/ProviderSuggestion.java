@@ -0,0 +1,17 @@
+package com.sonexus.portal.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderSuggestion {
+    private Long id;
+    private String name;
+    private String specialty;
+    private String state;
+}
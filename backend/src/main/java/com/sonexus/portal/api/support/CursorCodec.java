@@ -0,0 +1,40 @@
+package com.sonexus.portal.api.support;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encodes keyset pagination positions as opaque, URL-safe cursor strings.
+ * A cursor is the sort key of the last row on a page; clients pass it back unchanged.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "\u001F";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object... keyParts) {
+        String joined = String.join(SEPARATOR, Arrays.stream(keyParts).map(String::valueOf).toList());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor into its key parts
+     * @throws IllegalArgumentException if the cursor is malformed or has the wrong number of parts
+     */
+    public static List<String> decode(String cursor, int expectedParts) {
+        try {
+            String joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            List<String> parts = List.of(joined.split(SEPARATOR, -1));
+            if (parts.size() != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.sonexus.portal.api.support;
+
+import com.sonexus.portal.api.dto.CursorPageResponse;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shared plumbing for keyset-paginated listings.
+ * Services fetch pageSize + 1 rows ordered by a unique sort key; the extra row only signals
+ * that another page exists, so no COUNT query is needed.
+ */
+public final class CursorPages {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Position before the first row of a newest-first listing, so the first page uses the same
+     * index-friendly predicate as every later page
+     */
+    public static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private CursorPages() {
+    }
+
+    public static int pageSize(int requested) {
+        return Math.min(Math.max(requested, 1), MAX_PAGE_SIZE);
+    }
+
+    public static boolean isFirstPage(String cursor) {
+        return cursor == null || cursor.isBlank();
+    }
+
+    /**
+     * Parse a timestamp key part
+     * @throws IllegalArgumentException if the value is not an ISO local date-time
+     */
+    public static LocalDateTime timestamp(String keyPart) {
+        try {
+            return LocalDateTime.parse(keyPart);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Build the response from up to pageSize + 1 fetched rows; the cursor is the key of the last row returned
+     */
+    public static <T, R> CursorPageResponse<R> toResponse(List<T> rows, int pageSize,
+                                                          Function<T, R> mapper,
+                                                          Function<T, Object[]> cursorKey) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasMore ? CursorCodec.encode(cursorKey.apply(page.get(page.size() - 1))) : null;
+
+        return CursorPageResponse.<R>builder()
+                .items(page.stream().map(mapper).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .size(page.size())
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.sonexus.portal.api.support;
+
+import com.sonexus.portal.domain.model.FileDownload;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Streams a FileDownload to the servlet response with a fixed-size copy buffer.
+ * Handles conditional requests (ETag / Last-Modified, 304) and single byte ranges (206 / 416).
+ * Multi-range requests are answered with the full content, which RFC 9110 permits.
+ * The onDownload callback runs once per download, before any content is written: for a full
+ * response or a range starting at byte 0. Revalidations (304), failed preconditions, HEAD and
+ * follow-up range chunks do not count as downloads.
+ */
+@Component
+@Slf4j
+public class FileDownloadResponder {
+
+    public void write(FileDownload download, boolean inline, HttpServletRequest request,
+                      HttpServletResponse response, Runnable onDownload) throws IOException {
+
+        long lastModified = download.getLastModified() != null ? download.getLastModified().toEpochMilli() : -1;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Files may contain PHI: never cache in shared caches, always revalidate
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        // Sets ETag / Last-Modified and answers 304 or 412 when the preconditions say so
+        if (new ServletWebRequest(request, response).checkNotModified(download.getEtag(), lastModified)) {
+            return;
+        }
+
+        long length = download.getContentLength();
+        long start = 0;
+        long end = length - 1;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), download)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(download.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.builder(inline ? "inline" : "attachment")
+                        .filename(download.getFileName(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString());
+        response.setContentLengthLong(count);
+
+        if (count <= 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (start == 0) {
+            onDownload.run();
+        }
+
+        try (InputStream in = download.getContent().open(start, count)) {
+            StreamUtils.copy(in, response.getOutputStream());
+        }
+        response.flushBuffer();
+    }
+
+    /**
+     * A Range is honoured only if If-Range is absent or still matches the current representation
+     */
+    private boolean ifRangeMatches(String ifRange, FileDownload download) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(download.getEtag());
+        }
+        if (download.getLastModified() == null) {
+            return false;
+        }
+        try {
+            long since = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().getEpochSecond();
+            return since == download.getLastModified().getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.sonexus.portal.domain.events;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class BenefitsInvestigationCompletedEvent extends DomainEvent {
+
+    public static final String TYPE = "BenefitsInvestigationCompleted";
+
+    private Long investigationId;
+    private Long patientId;
+    private Long programId;
+    private String investigationType;
+    private String coverageStatus;
+    private LocalDateTime expiresAt;
+    private Long createdBy;
+
+    public BenefitsInvestigationCompletedEvent(Long investigationId, Long patientId, Long programId,
+                                               String investigationType, String coverageStatus,
+                                               LocalDateTime expiresAt, Long createdBy) {
+        super(TYPE, investigationId);
+        this.investigationId = investigationId;
+        this.patientId = patientId;
+        this.programId = programId;
+        this.investigationType = investigationType;
+        this.coverageStatus = coverageStatus;
+        this.expiresAt = expiresAt;
+        this.createdBy = createdBy;
+    }
+}
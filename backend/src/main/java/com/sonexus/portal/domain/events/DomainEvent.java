@@ -1,5 +1,7 @@
 package com.sonexus.portal.domain.events;
 
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -7,15 +9,36 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Base class of events published through EventBusPort. Concrete events are listed in
+ * JsonSubTypes so they can round-trip through the outbox as JSON.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "eventType", visible = true)
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = EnrollmentStatusChangedEvent.class, name = EnrollmentStatusChangedEvent.TYPE),
+        @JsonSubTypes.Type(value = MessageSentEvent.class, name = MessageSentEvent.TYPE),
+        @JsonSubTypes.Type(value = BenefitsInvestigationCompletedEvent.class, name = BenefitsInvestigationCompletedEvent.TYPE),
+        @JsonSubTypes.Type(value = ProviderAffiliationVerifiedEvent.class, name = ProviderAffiliationVerifiedEvent.TYPE)
+})
 public abstract class DomainEvent {
     private String eventId = UUID.randomUUID().toString();
     private LocalDateTime occurredAt = LocalDateTime.now();
     private String eventType;
 
+    /**
+     * Id of the entity the event belongs to; events of one aggregate are handled in publish order
+     */
+    private String aggregateId;
+
     public DomainEvent(String eventType) {
         this.eventType = eventType;
     }
+
+    public DomainEvent(String eventType, Object aggregateId) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId != null ? aggregateId.toString() : null;
+    }
 }
@@ -0,0 +1,33 @@
+package com.sonexus.portal.domain.events;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class EnrollmentStatusChangedEvent extends DomainEvent {
+
+    public static final String TYPE = "EnrollmentStatusChanged";
+
+    private Long enrollmentId;
+    private Long patientId;
+    private Long programId;
+    private String fromStatus;
+    private String toStatus;
+    private String reason;
+    private Long changedBy;
+
+    public EnrollmentStatusChangedEvent(Long enrollmentId, Long patientId, Long programId,
+                                        String fromStatus, String toStatus, String reason, Long changedBy) {
+        super(TYPE, enrollmentId);
+        this.enrollmentId = enrollmentId;
+        this.patientId = patientId;
+        this.programId = programId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.reason = reason;
+        this.changedBy = changedBy;
+    }
+}
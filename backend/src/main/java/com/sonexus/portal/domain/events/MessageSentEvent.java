@@ -0,0 +1,34 @@
+package com.sonexus.portal.domain.events;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class MessageSentEvent extends DomainEvent {
+
+    public static final String TYPE = "MessageSent";
+
+    private Long threadId;
+    private Long messageId;
+    private Long sentBy;
+    private String sentByName;
+    private LocalDateTime sentAt;
+    private List<Long> recipientIds;
+
+    public MessageSentEvent(Long threadId, Long messageId, Long sentBy, String sentByName,
+                            LocalDateTime sentAt, List<Long> recipientIds) {
+        super(TYPE, threadId);
+        this.threadId = threadId;
+        this.messageId = messageId;
+        this.sentBy = sentBy;
+        this.sentByName = sentByName;
+        this.sentAt = sentAt;
+        this.recipientIds = recipientIds;
+    }
+}
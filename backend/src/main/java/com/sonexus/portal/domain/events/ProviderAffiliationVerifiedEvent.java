@@ -0,0 +1,31 @@
+package com.sonexus.portal.domain.events;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class ProviderAffiliationVerifiedEvent extends DomainEvent {
+
+    public static final String TYPE = "ProviderAffiliationVerified";
+
+    private Long affiliationId;
+    private Long userId;
+    private Long providerId;
+    private String providerName;
+    private boolean approved;
+    private Long verifiedBy;
+
+    public ProviderAffiliationVerifiedEvent(Long affiliationId, Long userId, Long providerId, String providerName,
+                                            boolean approved, Long verifiedBy) {
+        super(TYPE, affiliationId);
+        this.affiliationId = affiliationId;
+        this.userId = userId;
+        this.providerId = providerId;
+        this.providerName = providerName;
+        this.approved = approved;
+        this.verifiedBy = verifiedBy;
+    }
+}
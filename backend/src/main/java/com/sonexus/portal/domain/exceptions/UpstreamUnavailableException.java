@@ -0,0 +1,15 @@
+package com.sonexus.portal.domain.exceptions;
+
+/**
+ * An external service could not answer in time or is refusing calls; the request may be retried later.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+
+    public UpstreamUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
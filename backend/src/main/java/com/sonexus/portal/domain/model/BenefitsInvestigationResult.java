@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Data
@@ -19,4 +20,5 @@ public class BenefitsInvestigationResult {
     private Boolean specialtyPharmacyRequired;
     private String notes;
     private Map<String, Object> additionalData; // Flexible for provider-specific data
+    private LocalDateTime validUntil; // null lets the caller apply its default validity
 }
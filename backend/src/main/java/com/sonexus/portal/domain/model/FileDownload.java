@@ -0,0 +1,34 @@
+package com.sonexus.portal.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.InputStream;
+import java.time.Instant;
+
+/**
+ * Metadata for a stored file about to be streamed to a client. Content is opened lazily,
+ * and only for the byte range actually requested.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileDownload {
+    private String fileName;
+    private String contentType;
+    private long contentLength;
+    private String etag; // quoted strong validator, e.g. "form-12-3-1718000000000"
+    private Instant lastModified;
+    private ContentOpener content;
+
+    @FunctionalInterface
+    public interface ContentOpener {
+        /**
+         * Open the file content starting at offset for length bytes
+         */
+        InputStream open(long offset, long length);
+    }
+}
@@ -5,7 +5,8 @@ import com.sonexus.portal.domain.model.BenefitsInvestigationResult;
 
 /**
  * Port for benefits investigation operations.
- * Implementations: RuleBasedBenefitsAdapter (local/MVP), HttpBenefitsApiAdapter (cloud/prod)
+ * Implementations: RuleBasedBenefitsAdapter (local/MVP), HttpBenefitsApiAdapter (cloud/prod),
+ * both behind CachingBenefitsInvestigationAdapter
  */
 public interface BenefitsInvestigationPort {
 
@@ -2,6 +2,8 @@ package com.sonexus.portal.domain.ports;
 
 import com.sonexus.portal.domain.events.DomainEvent;
 
+import java.util.List;
+
 /**
  * Port for publishing domain events.
  * Implementations: InMemoryEventBusAdapter (local), KafkaEventBusAdapter (cloud/prod)
@@ -13,11 +15,26 @@ public interface EventBusPort {
      */
     void publish(DomainEvent event);
 
+    /**
+     * Publish several domain events in order; adapters may write them in one round trip
+     */
+    default void publishAll(List<? extends DomainEvent> events) {
+        events.forEach(this::publish);
+    }
+
     /**
      * Subscribe to domain events (for internal event handlers)
      */
     void subscribe(String eventType, EventHandler handler);
 
+    /**
+     * Subscribe a handler that must run on every node, for node-local state such as open streams.
+     * Single-node adapters deliver it like any other subscription.
+     */
+    default void subscribeOnEveryNode(String eventType, EventHandler handler) {
+        subscribe(eventType, handler);
+    }
+
     @FunctionalInterface
     interface EventHandler {
         void handle(DomainEvent event);
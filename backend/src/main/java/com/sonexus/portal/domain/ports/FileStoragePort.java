@@ -25,6 +25,15 @@ public interface FileStoragePort {
      */
     InputStream retrieveFile(String filePath);
 
+    /**
+     * Retrieve a byte range of a file as input stream
+     * @param filePath storage path returned from storeFile
+     * @param offset first byte to return
+     * @param length number of bytes to return
+     * @return input stream of the requested range
+     */
+    InputStream retrieveFile(String filePath, long offset, long length);
+
     /**
      * Delete file
      * @param filePath storage path
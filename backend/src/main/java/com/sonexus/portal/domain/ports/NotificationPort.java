@@ -2,7 +2,7 @@ package com.sonexus.portal.domain.ports;
 
 /**
  * Port for sending notifications.
- * Implementations: NoOpNotificationAdapter (local), EmailNotificationAdapter (prod)
+ * Implementations: AsyncNotificationAdapter (queued, coalescing) over a NotificationTransport
  */
 public interface NotificationPort {
 
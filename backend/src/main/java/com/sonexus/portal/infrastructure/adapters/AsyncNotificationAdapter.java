@@ -0,0 +1,290 @@
+package com.sonexus.portal.infrastructure.adapters;
+
+import com.sonexus.portal.domain.ports.NotificationPort;
+import com.sonexus.portal.infrastructure.notification.NotificationTransport;
+import com.sonexus.portal.infrastructure.notification.OutboundEmail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queued NotificationPort. Callers only enqueue; a background thread renders and sends.
+ * Plain emails go out on the next flush. Status notifications are coalesced per recipient:
+ * the first one opens a digest that collects everything for that address during
+ * coalesce-window-ms and is then sent as a single email. Sends go to the transport in batches,
+ * and a failed batch is retried with exponential backoff until max-attempts.
+ */
+@Component
+@Slf4j
+public class AsyncNotificationAdapter implements NotificationPort, SmartLifecycle {
+
+    private static final int MAX_DIGEST_ITEMS = 50;
+    private static final String DIGEST_TYPE = "DIGEST";
+
+    private final NotificationTransport transport;
+    private final BlockingQueue<OutboundEmail> outbound;
+    private final Map<String, Digest> digests = new ConcurrentHashMap<>();
+    private final List<Delivery> retries = new ArrayList<>(); // touched only by the sender thread
+
+    private final long coalesceWindowNanos;
+    private final long flushIntervalMs;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Counter sentCounter;
+    private final Counter coalescedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+    private Thread senderThread;
+
+    public AsyncNotificationAdapter(
+            NotificationTransport transport,
+            MeterRegistry meterRegistry,
+            @Value("${app.notifications.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.notifications.coalesce-window-ms:60000}") long coalesceWindowMs,
+            @Value("${app.notifications.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${app.notifications.batch-size:50}") int batchSize,
+            @Value("${app.notifications.max-attempts:5}") int maxAttempts,
+            @Value("${app.notifications.initial-backoff-ms:2000}") long initialBackoffMs,
+            @Value("${app.notifications.max-backoff-ms:300000}") long maxBackoffMs) {
+        this.transport = transport;
+        this.outbound = new ArrayBlockingQueue<>(queueCapacity);
+        this.coalesceWindowNanos = TimeUnit.MILLISECONDS.toNanos(coalesceWindowMs);
+        this.flushIntervalMs = flushIntervalMs;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        Gauge.builder("notifications.queue.size", outbound, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("notifications.digests.open", digests, Map::size)
+                .description("Recipients with a digest collecting notifications")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("notifications.sent").register(meterRegistry);
+        this.coalescedCounter = Counter.builder("notifications.coalesced")
+                .description("Notifications merged into an already open digest")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("notifications.retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("notifications.failed")
+                .description("Emails given up on after max-attempts")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("notifications.dropped")
+                .description("Emails rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void sendEmail(String to, String subject, String body) {
+        enqueue(OutboundEmail.of("EMAIL", to, subject, body, false));
+    }
+
+    @Override
+    public void sendHtmlEmail(String to, String subject, String htmlBody) {
+        enqueue(OutboundEmail.of("HTML_EMAIL", to, subject, htmlBody, true));
+    }
+
+    @Override
+    public void notifyEnrollmentStatusChange(String userEmail, String patientName, String newStatus) {
+        addToDigest(userEmail, "ENROLLMENT_STATUS_CHANGE",
+                "Enrollment update for " + patientName,
+                "Enrollment for " + patientName + " is now " + newStatus + ".");
+    }
+
+    @Override
+    public void notifyProviderAffiliationApproved(String userEmail, String providerName) {
+        addToDigest(userEmail, "PROVIDER_AFFILIATION_APPROVED",
+                "Provider affiliation approved",
+                "Your affiliation with " + providerName + " has been approved.");
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        senderThread = new Thread(this::runSender, "notification-sender");
+        senderThread.setDaemon(true);
+        senderThread.start();
+        log.info("Notification sender started: transport={}, coalesceWindowMs={}",
+                transport.getClass().getSimpleName(), TimeUnit.NANOSECONDS.toMillis(coalesceWindowNanos));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        senderThread.interrupt();
+        try {
+            senderThread.join(flushIntervalMs * 10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int unsent = outbound.size() + digests.size() + retries.size();
+        if (unsent > 0) {
+            log.warn("Notification sender stopped with {} unsent emails", unsent);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the event bus, whose handlers feed it
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 2;
+    }
+
+    private void enqueue(OutboundEmail email) {
+        if (!outbound.offer(email)) {
+            droppedCounter.increment();
+            log.warn("Notification queue full, dropping email: id={}, type={}, to={}",
+                    email.id(), email.type(), email.to());
+        }
+    }
+
+    private void addToDigest(String to, String type, String subject, String line) {
+        if (to == null || to.isBlank()) {
+            return;
+        }
+        digests.compute(to, (recipient, digest) -> {
+            if (digest == null) {
+                digest = new Digest(System.nanoTime());
+            } else {
+                coalescedCounter.increment();
+            }
+            digest.add(type, subject, line);
+            return digest;
+        });
+    }
+
+    private void runSender() {
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMs);
+            } catch (InterruptedException e) {
+                // Interrupted by stop(); fall through to the final flush
+            }
+            try {
+                flush(!running);
+            } catch (Exception e) {
+                log.error("Notification flush failed", e);
+            }
+        }
+    }
+
+    /**
+     * Send everything that is due; on shutdown, digests are closed early and retries get one last try
+     */
+    private void flush(boolean closing) {
+        long now = System.nanoTime();
+        List<Delivery> due = new ArrayList<>();
+
+        for (Iterator<Delivery> it = retries.iterator(); it.hasNext(); ) {
+            Delivery delivery = it.next();
+            if (closing || delivery.notBeforeNanos() <= now) {
+                due.add(delivery);
+                it.remove();
+            }
+        }
+
+        List<OutboundEmail> emails = new ArrayList<>();
+        outbound.drainTo(emails);
+        for (String recipient : digests.keySet()) {
+            Digest digest = digests.get(recipient);
+            if (digest != null && (closing || now - digest.openedNanos >= coalesceWindowNanos)) {
+                // compute() on this key after the removal starts a new digest
+                Digest closed = digests.remove(recipient);
+                if (closed != null) {
+                    emails.add(closed.render(recipient));
+                }
+            }
+        }
+        emails.forEach(email -> due.add(new Delivery(email, 0, now)));
+
+        for (int i = 0; i < due.size(); i += batchSize) {
+            send(due.subList(i, Math.min(i + batchSize, due.size())));
+        }
+    }
+
+    private void send(List<Delivery> batch) {
+        try {
+            transport.send(batch.stream().map(Delivery::email).toList());
+            sentCounter.increment(batch.size());
+        } catch (Exception e) {
+            log.warn("Failed to send {} notifications: {}", batch.size(), e.toString());
+            for (Delivery delivery : batch) {
+                int attempts = delivery.attempts() + 1;
+                if (attempts >= maxAttempts) {
+                    failedCounter.increment();
+                    log.error("Giving up on email after {} attempts: id={}, type={}, to={}",
+                            attempts, delivery.email().id(), delivery.email().type(), delivery.email().to());
+                } else {
+                    retriedCounter.increment();
+                    long backoffMs = Math.min(initialBackoffMs << (attempts - 1), maxBackoffMs);
+                    retries.add(new Delivery(delivery.email(), attempts,
+                            System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs)));
+                }
+            }
+        }
+    }
+
+    private record Delivery(OutboundEmail email, int attempts, long notBeforeNanos) {
+    }
+
+    /**
+     * Notifications collected for one recipient; mutated only inside ConcurrentHashMap.compute
+     */
+    private static final class Digest {
+        private final long openedNanos;
+        private final List<String> types = new ArrayList<>();
+        private final List<String> subjects = new ArrayList<>();
+        private final List<String> lines = new ArrayList<>();
+        private int total;
+
+        private Digest(long openedNanos) {
+            this.openedNanos = openedNanos;
+        }
+
+        private void add(String type, String subject, String line) {
+            total++;
+            if (lines.size() < MAX_DIGEST_ITEMS) {
+                types.add(type);
+                subjects.add(subject);
+                lines.add(line);
+            }
+        }
+
+        private OutboundEmail render(String to) {
+            if (total == 1) {
+                return OutboundEmail.of(types.get(0), to, subjects.get(0), lines.get(0), false);
+            }
+
+            StringBuilder body = new StringBuilder("You have ").append(total).append(" updates:\n\n");
+            lines.forEach(line -> body.append("- ").append(line).append('\n'));
+            if (total > lines.size()) {
+                body.append("- and ").append(total - lines.size()).append(" more\n");
+            }
+            return OutboundEmail.of(DIGEST_TYPE, to, "Sonexus Portal: " + total + " updates", body.toString(), false);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.sonexus.portal.infrastructure.adapters;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sonexus.portal.domain.model.BenefitsInvestigationRequest;
+import com.sonexus.portal.domain.model.BenefitsInvestigationResult;
+import com.sonexus.portal.domain.ports.BenefitsInvestigationPort;
+import com.sonexus.portal.infrastructure.benefits.BenefitsRulesReloadedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Result cache in front of the real benefits adapter (the bean qualified as UPSTREAM).
+ * Results are deterministic for the same payer, plan, member, medication and type, so a cached
+ * result is reused until its validUntil, which also becomes the investigation's expiresAt;
+ * max-ttl-hours caps how long the cache trusts an upstream answer. Concurrent identical lookups
+ * share one upstream call. The cache is cleared when the benefits rules are reloaded.
+ */
+@Component
+@Primary
+@Slf4j
+public class CachingBenefitsInvestigationAdapter implements BenefitsInvestigationPort {
+
+    /** Qualifier for the adapter that actually computes results */
+    public static final String UPSTREAM = "benefitsUpstream";
+
+    private final BenefitsInvestigationPort upstream;
+    private final AsyncCache<CacheKey, BenefitsInvestigationResult> cache;
+    private final Duration validity;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+
+    public CachingBenefitsInvestigationAdapter(
+            @Qualifier(UPSTREAM) BenefitsInvestigationPort upstream,
+            MeterRegistry meterRegistry,
+            @Value("${app.benefits.cache.validity-days:30}") long validityDays,
+            @Value("${app.benefits.cache.max-ttl-hours:24}") long maxTtlHours,
+            @Value("${app.benefits.cache.max-size:10000}") long maxSize) {
+        this.upstream = upstream;
+        this.validity = Duration.ofDays(validityDays);
+        long maxTtlNanos = Duration.ofHours(maxTtlHours).toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<CacheKey, BenefitsInvestigationResult>() {
+                    @Override
+                    public long expireAfterCreate(CacheKey key, BenefitsInvestigationResult result, long currentTime) {
+                        long untilValid = Duration.between(LocalDateTime.now(), result.getValidUntil()).toNanos();
+                        return Math.max(0, Math.min(untilValid, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(CacheKey key, BenefitsInvestigationResult result,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, result, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(CacheKey key, BenefitsInvestigationResult result,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .buildAsync();
+
+        Gauge.builder("benefits.cache.size", cache, c -> c.synchronous().estimatedSize())
+                .register(meterRegistry);
+        this.hitCounter = requests(meterRegistry, "hit");
+        this.missCounter = requests(meterRegistry, "miss");
+        this.coalescedCounter = requests(meterRegistry, "coalesced");
+    }
+
+    @Override
+    public BenefitsInvestigationResult investigateMedicalCoverage(BenefitsInvestigationRequest request) {
+        return lookup(CacheKey.of("MEDICAL", request), upstream::investigateMedicalCoverage, request);
+    }
+
+    @Override
+    public BenefitsInvestigationResult investigatePharmacyCoverage(BenefitsInvestigationRequest request) {
+        return lookup(CacheKey.of("PHARMACY", request), upstream::investigatePharmacyCoverage, request);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return upstream.isAvailable();
+    }
+
+    @EventListener
+    public void onRulesReloaded(BenefitsRulesReloadedEvent event) {
+        cache.synchronous().invalidateAll();
+        log.info("Benefits result cache cleared after rules reload from {}", event.location());
+    }
+
+    private BenefitsInvestigationResult lookup(CacheKey key,
+                                               Function<BenefitsInvestigationRequest, BenefitsInvestigationResult> call,
+                                               BenefitsInvestigationRequest request) {
+        CompletableFuture<BenefitsInvestigationResult> loading = new CompletableFuture<>();
+        CompletableFuture<BenefitsInvestigationResult> existing = cache.asMap().putIfAbsent(key, loading);
+
+        if (existing == null) {
+            // This caller owns the upstream call; it runs on the caller's thread
+            missCounter.increment();
+            try {
+                BenefitsInvestigationResult result = call.apply(request);
+                if (result.getValidUntil() == null) {
+                    result.setValidUntil(LocalDateTime.now().plus(validity));
+                }
+                loading.complete(result);
+                return copy(result);
+            } catch (RuntimeException | Error e) {
+                // Failed futures are removed from the cache, so the next caller retries
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        if (existing.isDone()) {
+            hitCounter.increment();
+        } else {
+            coalescedCounter.increment();
+        }
+        try {
+            return copy(existing.join());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Callers get their own instance so the cached result and its payload map are never shared
+     */
+    private BenefitsInvestigationResult copy(BenefitsInvestigationResult result) {
+        return BenefitsInvestigationResult.builder()
+                .coverageStatus(result.getCoverageStatus())
+                .coverageType(result.getCoverageType())
+                .priorAuthRequired(result.getPriorAuthRequired())
+                .deductibleApplies(result.getDeductibleApplies())
+                .specialtyPharmacyRequired(result.getSpecialtyPharmacyRequired())
+                .notes(result.getNotes())
+                .additionalData(result.getAdditionalData() != null ? new HashMap<>(result.getAdditionalData()) : null)
+                .validUntil(result.getValidUntil())
+                .build();
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("benefits.cache.requests")
+                .description("Benefits lookups by outcome; coalesced lookups waited on an in-flight upstream call")
+                .tag("result", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Every request field the upstream sees except the patient and program ids, which do not
+     * change the answer
+     */
+    private record CacheKey(String investigationType, String payerName, String payerPlanId, String memberId,
+                            String medicationName, String patientState, LocalDate patientDob) {
+
+        static CacheKey of(String investigationType, BenefitsInvestigationRequest request) {
+            return new CacheKey(
+                    investigationType,
+                    normalize(request.getPayerName()),
+                    normalize(request.getPayerPlanId()),
+                    normalize(request.getMemberId()),
+                    normalize(request.getMedicationName()),
+                    normalize(request.getPatientState()),
+                    request.getPatientDob());
+        }
+
+        private static String normalize(String value) {
+            return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.sonexus.portal.infrastructure.adapters;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sonexus.portal.domain.exceptions.UpstreamUnavailableException;
+import com.sonexus.portal.domain.model.BenefitsInvestigationRequest;
+import com.sonexus.portal.domain.model.BenefitsInvestigationResult;
+import com.sonexus.portal.domain.ports.BenefitsInvestigationPort;
+import com.sonexus.portal.infrastructure.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benefits investigation against an external payer API over java.net.http.
+ * Requests are sent asynchronously on a shared, pooled HttpClient; the calling thread only waits
+ * up to request-timeout-ms for the answer. At most max-concurrent-calls requests are in flight and
+ * a caller waits at most bulkhead-wait-ms for a slot, so a slow payer API ties up a bounded number
+ * of servlet threads for a bounded time. Timeouts, 5xx and 429 responses count as failures for
+ * the circuit breaker, which also drives isAvailable(). With hedge-delay-ms set, a second
+ * identical request is sent when the first has not answered by then, and the first successful
+ * response wins.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.benefits.http.enabled", havingValue = "true")
+@Qualifier(CachingBenefitsInvestigationAdapter.UPSTREAM)
+public class HttpBenefitsApiAdapter implements BenefitsInvestigationPort {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final String apiKey;
+    private final Duration requestTimeout;
+    private final long bulkheadWaitMs;
+    private final long hedgeDelayMs;
+
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter hedgedCounter;
+    private final Counter bulkheadRejectedCounter;
+    private final Counter circuitRejectedCounter;
+
+    public HttpBenefitsApiAdapter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.benefits.http.base-url}") String baseUrl,
+            @Value("${app.benefits.http.api-key:}") String apiKey,
+            @Value("${app.benefits.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${app.benefits.http.request-timeout-ms:5000}") long requestTimeoutMs,
+            @Value("${app.benefits.http.max-concurrent-calls:20}") int maxConcurrentCalls,
+            @Value("${app.benefits.http.bulkhead-wait-ms:100}") long bulkheadWaitMs,
+            @Value("${app.benefits.http.hedge-delay-ms:0}") long hedgeDelayMs,
+            @Value("${app.benefits.http.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${app.benefits.http.circuit.open-duration-ms:30000}") long openDurationMs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.baseUri = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.apiKey = apiKey;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.bulkheadWaitMs = bulkheadWaitMs;
+        this.hedgeDelayMs = hedgeDelayMs < requestTimeoutMs ? hedgeDelayMs : 0;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+
+        // One client for the application so connections are pooled and reused
+        HttpClient.Builder clientBuilder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs));
+        if (virtualThreads) {
+            clientBuilder.executor(new VirtualThreadTaskExecutor("benefits-http-"));
+        }
+        this.httpClient = clientBuilder.build();
+
+        Gauge.builder("benefits.http.in_flight", bulkhead, b -> maxConcurrentCalls - b.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("benefits.http.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+                .description("0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+        this.hedgedCounter = Counter.builder("benefits.http.hedged")
+                .description("Second requests sent because the first was slower than hedge-delay-ms")
+                .register(meterRegistry);
+        this.bulkheadRejectedCounter = rejected(meterRegistry, "bulkhead");
+        this.circuitRejectedCounter = rejected(meterRegistry, "circuit_open");
+
+        log.info("HTTP benefits adapter enabled: baseUrl={}, maxConcurrentCalls={}, requestTimeoutMs={}, hedgeDelayMs={}",
+                this.baseUri, maxConcurrentCalls, requestTimeoutMs, this.hedgeDelayMs);
+    }
+
+    @Override
+    public BenefitsInvestigationResult investigateMedicalCoverage(BenefitsInvestigationRequest request) {
+        return investigate("medical", request);
+    }
+
+    @Override
+    public BenefitsInvestigationResult investigatePharmacyCoverage(BenefitsInvestigationRequest request) {
+        return investigate("pharmacy", request);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return circuitBreaker.isCallPermitted();
+    }
+
+    private BenefitsInvestigationResult investigate(String coverage, BenefitsInvestigationRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve("coverage/" + coverage))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(request)));
+        if (!apiKey.isBlank()) {
+            builder.header("Authorization", "Bearer " + apiKey);
+        }
+        HttpRequest httpRequest = builder.build();
+
+        if (!acquireSlot()) {
+            bulkheadRejectedCounter.increment();
+            throw new UpstreamUnavailableException("Benefits service is busy, try again shortly");
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            circuitRejectedCounter.increment();
+            throw new UpstreamUnavailableException("Benefits service is unavailable, try again later");
+        }
+
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            HttpResponse<String> response;
+            BenefitsInvestigationResult result;
+            try {
+                response = exchange(httpRequest, start);
+                result = response.statusCode() < 400 ? toResult(response.body()) : null;
+            } catch (TimeoutException e) {
+                outcome = "timeout";
+                throw new UpstreamUnavailableException(
+                        "Benefits service did not answer within " + requestTimeout.toMillis() + " ms");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UpstreamUnavailableException("Interrupted while waiting for the benefits service", e);
+            } catch (ExecutionException e) {
+                outcome = e.getCause() instanceof ServerErrorException ? "server_error" : "error";
+                throw new UpstreamUnavailableException("Benefits service call failed: " + e.getCause().getMessage(),
+                        e.getCause());
+            } catch (JsonProcessingException e) {
+                outcome = "bad_response";
+                throw new UpstreamUnavailableException("Benefits service returned an unreadable response", e);
+            } catch (RuntimeException e) {
+                throw new UpstreamUnavailableException("Benefits service call failed: " + e.getMessage(), e);
+            }
+
+            // The service answered, so the circuit stays closed even if it rejected the request
+            circuitBreaker.onSuccess();
+            if (result == null) {
+                outcome = "client_error";
+                throw new IllegalArgumentException("Benefits service rejected the request: HTTP " + response.statusCode());
+            }
+            outcome = "success";
+            return result;
+        } catch (UpstreamUnavailableException e) {
+            circuitBreaker.onFailure();
+            throw e;
+        } finally {
+            Timer.builder("benefits.http.requests")
+                    .tag("coverage", coverage)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Send the request, hedging it if it is slow, and wait until the deadline for the first
+     * successful response. The bulkhead slot taken by the caller is released when the primary
+     * request completes, not when the caller gives up, so abandoned requests still count.
+     */
+    private HttpResponse<String> exchange(HttpRequest httpRequest, long startNanos)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = startNanos + requestTimeout.toNanos();
+        CompletableFuture<HttpResponse<String>> primary = send(httpRequest);
+
+        if (hedgeDelayMs > 0) {
+            try {
+                return primary.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException slow) {
+                // Hedge only with a free slot; never wait for one
+                if (bulkhead.tryAcquire()) {
+                    hedgedCounter.increment();
+                    CompletableFuture<HttpResponse<String>> hedge = send(httpRequest);
+                    CompletableFuture<HttpResponse<String>> first = firstSuccessful(primary, hedge);
+                    try {
+                        return first.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    } finally {
+                        primary.cancel(true);
+                        hedge.cancel(true);
+                    }
+                }
+            }
+        }
+
+        try {
+            return primary.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } finally {
+            primary.cancel(true);
+        }
+    }
+
+    /**
+     * Asynchronous send that owns one bulkhead slot and fails on 5xx and 429 responses
+     */
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest httpRequest) {
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            response = httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+        response.whenComplete((r, t) -> bulkhead.release());
+        return response.thenApply(r -> {
+            if (r.statusCode() >= 500 || r.statusCode() == 429) {
+                throw new ServerErrorException(r.statusCode());
+            }
+            return r;
+        });
+    }
+
+    private boolean acquireSlot() {
+        try {
+            return bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> a, CompletableFuture<T> b) {
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> candidate : List.of(a, b)) {
+            candidate.whenComplete((value, error) -> {
+                if (error == null) {
+                    first.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    first.completeExceptionally(error instanceof CompletionException
+                            && error.getCause() != null ? error.getCause() : error);
+                }
+            });
+        }
+        return first;
+    }
+
+    private String toJson(BenefitsInvestigationRequest request) {
+        try {
+            return objectMapper.writeValueAsString(new ApiRequest(
+                    request.getInvestigationType(),
+                    request.getPayerName(),
+                    request.getPayerPlanId(),
+                    request.getMemberId(),
+                    request.getPatientState(),
+                    request.getPatientDob(),
+                    request.getMedicationName()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Benefits request is not serializable", e);
+        }
+    }
+
+    private BenefitsInvestigationResult toResult(String body) throws JsonProcessingException {
+        ApiResponse response = objectMapper.readValue(body, ApiResponse.class);
+        return BenefitsInvestigationResult.builder()
+                .coverageStatus(response.coverageStatus())
+                .coverageType(response.coverageType())
+                .priorAuthRequired(response.priorAuthRequired())
+                .deductibleApplies(response.deductibleApplies())
+                .specialtyPharmacyRequired(response.specialtyPharmacyRequired())
+                .notes(response.notes())
+                .additionalData(response.details())
+                .validUntil(response.validUntil())
+                .build();
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("benefits.http.rejected")
+                .description("Calls refused without contacting the benefits service")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /** Patient and program ids stay in the portal; the payer API only needs coverage inputs */
+    private record ApiRequest(String investigationType, String payerName, String payerPlanId, String memberId,
+                              String patientState, LocalDate patientDob, String medicationName) {
+    }
+
+    private record ApiResponse(String coverageStatus, String coverageType, Boolean priorAuthRequired,
+                               Boolean deductibleApplies, Boolean specialtyPharmacyRequired, String notes,
+                               Map<String, Object> details, LocalDateTime validUntil) {
+    }
+
+    private static final class ServerErrorException extends RuntimeException {
+        private ServerErrorException(int status) {
+            super("HTTP " + status);
+        }
+    }
+}
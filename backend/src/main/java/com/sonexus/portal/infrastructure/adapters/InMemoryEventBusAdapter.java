@@ -0,0 +1,387 @@
+package com.sonexus.portal.infrastructure.adapters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sonexus.portal.domain.events.DomainEvent;
+import com.sonexus.portal.domain.ports.EventBusPort;
+import com.sonexus.portal.infrastructure.persistence.repository.DeadLetterEventRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.DeadLetterEventRepository.NewDeadLetter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process event bus. Events are hashed by aggregate id onto a fixed set of partitions, each
+ * drained by one worker thread, so events of one aggregate are handled in publish order while
+ * different aggregates proceed in parallel.
+ * Partition queues are bounded: a publisher waits up to publish-timeout-ms for space and the event
+ * is dead-lettered if none frees up. A failing handler is retried with a doubling backoff; one
+ * that still fails after max-attempts dead-letters the event for that handler only. Dead letters,
+ * and events still queued when the bus stops, are saved to dead_letter_events and can be replayed
+ * to the handler they were recorded for. Handlers are named after the subscribing class, so the
+ * name survives restarts even for lambdas.
+ * Events published inside a transaction are queued after it commits, so handlers never observe
+ * rolled-back changes. Application code publishes through OutboxEventBusAdapter; the outbox relay
+ * feeds this bus with offer(), which reports back when the handlers are done and leaves events it
+ * could not queue, or that were still queued at shutdown, to the outbox instead of dead-lettering them.
+ */
+@Component
+@Slf4j
+public class InMemoryEventBusAdapter implements EventBusPort, SmartLifecycle {
+
+    /** Handler name recorded for events that never reached a handler; replay goes to all of them */
+    public static final String ALL_HANDLERS = "-";
+
+    private final Map<String, List<Subscription>> handlers = new ConcurrentHashMap<>();
+    private final List<BlockingQueue<Envelope>> partitions;
+    private final List<Thread> workers = new ArrayList<>();
+    private final long publishTimeoutMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long shutdownTimeoutMs;
+
+    private final DeadLetterEventRepository deadLetterEventRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> handleTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> queueTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> deadLetterCounters = new ConcurrentHashMap<>();
+    private final Counter publishedCounter;
+
+    private volatile boolean running;
+
+    public InMemoryEventBusAdapter(
+            DeadLetterEventRepository deadLetterEventRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.events.partitions:8}") int partitionCount,
+            @Value("${app.events.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.events.publish-timeout-ms:200}") long publishTimeoutMs,
+            @Value("${app.events.max-attempts:3}") int maxAttempts,
+            @Value("${app.events.retry-backoff-ms:100}") long retryBackoffMs,
+            @Value("${app.events.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.deadLetterEventRepository = deadLetterEventRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.publishTimeoutMs = publishTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+
+        this.partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+
+        Gauge.builder("events.queue.size", partitions, queues -> queues.stream().mapToInt(BlockingQueue::size).sum())
+                .description("Events waiting in all partitions")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("events.published").register(meterRegistry);
+    }
+
+    @Override
+    public void publish(DomainEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event, null);
+                }
+            });
+        } else {
+            enqueue(event, null);
+        }
+    }
+
+    @Override
+    public void subscribe(String eventType, EventHandler handler) {
+        List<Subscription> subscriptions = handlers.computeIfAbsent(eventType, type -> new CopyOnWriteArrayList<>());
+        synchronized (subscriptions) {
+            String name = handlerName(handler.getClass().getName());
+            long sameName = subscriptions.stream()
+                    .filter(s -> s.name().equals(name) || s.name().startsWith(name + "#"))
+                    .count();
+            subscriptions.add(new Subscription(sameName == 0 ? name : name + "#" + (sameName + 1), handler));
+        }
+    }
+
+    /**
+     * Hand a dead-lettered event back to the handler it was recorded for, or to every handler of
+     * its type when it never reached one; queued after the current transaction commits
+     * @throws IllegalArgumentException when no such handler is subscribed
+     */
+    public void replay(DomainEvent event, String handler) {
+        String name = ALL_HANDLERS.equals(handler) ? null : handlerName(handler);
+        if (name != null && handlers.getOrDefault(event.getEventType(), List.of()).stream()
+                .noneMatch(subscription -> subscription.name().equals(name))) {
+            throw new IllegalArgumentException("No handler " + name + " is subscribed to " + event.getEventType());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event, name);
+                }
+            });
+        } else {
+            enqueue(event, name);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < partitions.size(); i++) {
+            BlockingQueue<Envelope> queue = partitions.get(i);
+            Thread worker = new Thread(() -> runWorker(queue), "event-bus-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Event bus started: partitions={}", partitions.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+
+        // Workers that outlived the join may still take events; drainTo hands each one out once
+        List<Envelope> unhandled = new ArrayList<>();
+        partitions.forEach(queue -> queue.drainTo(unhandled));
+        if (!unhandled.isEmpty()) {
+            log.warn("Event bus stopped with {} unhandled events", unhandled.size());
+            unhandled.stream()
+                    .filter(envelope -> envelope.delivery() != null)
+                    .forEach(envelope -> envelope.delivery().abandoned());
+            saveDeadLetters(unhandled.stream()
+                    .filter(envelope -> envelope.delivery() == null)
+                    .map(envelope -> toDeadLetter(envelope.event(),
+                            envelope.handler() != null ? envelope.handler() : ALL_HANDLERS, "unhandled at shutdown", 0))
+                    .toList());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the outbox relay that feeds it
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1;
+    }
+
+    /**
+     * Queue an event for a caller that keeps it durable: delivery.handled() runs after every handler
+     * finished or dead-lettered it, and delivery.abandoned() when the bus stopped before handling it.
+     * @return false when the partition stayed full for publish-timeout-ms; nothing is dead-lettered
+     */
+    public boolean offer(DomainEvent event, Delivery delivery) throws InterruptedException {
+        Envelope envelope = new Envelope(event, null, System.nanoTime(), delivery);
+        if (!partitionFor(event).offer(envelope, publishTimeoutMs, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        publishedCounter.increment();
+        return true;
+    }
+
+    /**
+     * @param handler the only handler to run, or null for all of them
+     */
+    private void enqueue(DomainEvent event, String handler) {
+        publishedCounter.increment();
+        Envelope envelope = new Envelope(event, handler, System.nanoTime(), null);
+        String target = handler != null ? handler : ALL_HANDLERS;
+        try {
+            if (!partitionFor(event).offer(envelope, publishTimeoutMs, TimeUnit.MILLISECONDS)) {
+                deadLetter(event, target, "partition queue full", 0);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deadLetter(event, target, "interrupted while waiting for queue space", 0);
+        }
+    }
+
+    private BlockingQueue<Envelope> partitionFor(DomainEvent event) {
+        Object key = event.getAggregateId() != null ? event.getAggregateId() : event.getEventId();
+        return partitions.get(Math.floorMod(key.hashCode(), partitions.size()));
+    }
+
+    private void runWorker(BlockingQueue<Envelope> queue) {
+        while (running || !queue.isEmpty()) {
+            Envelope envelope;
+            try {
+                envelope = running ? queue.take() : queue.poll();
+            } catch (InterruptedException e) {
+                // Interrupted by stop(); keep draining until the queue is empty or the join times out
+                continue;
+            }
+            if (envelope == null) {
+                continue;
+            }
+            try {
+                dispatch(envelope);
+            } catch (Throwable t) {
+                // Never let one event end the partition's only worker
+                log.error("Event dispatch failed: type={}, id={}, aggregateId={}", envelope.event().getEventType(),
+                        envelope.event().getEventId(), envelope.event().getAggregateId(), t);
+            }
+        }
+    }
+
+    private void dispatch(Envelope envelope) {
+        DomainEvent event = envelope.event();
+        String eventType = event.getEventType();
+        queueTimer(eventType).record(System.nanoTime() - envelope.enqueuedNanos(), TimeUnit.NANOSECONDS);
+
+        for (Subscription subscription : handlers.getOrDefault(eventType, List.of())) {
+            if (envelope.handler() != null && !envelope.handler().equals(subscription.name())) {
+                continue;
+            }
+            long start = System.nanoTime();
+            Exception failure = null;
+            int attempt = 0;
+            while (attempt < maxAttempts) {
+                if (attempt > 0 && !backOff(attempt)) {
+                    break;
+                }
+                attempt++;
+                try {
+                    subscription.handler().handle(event);
+                    failure = null;
+                    break;
+                } catch (Exception e) {
+                    failure = e;
+                }
+            }
+            handleTimer(eventType).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            if (failure != null) {
+                deadLetter(event, subscription.name(), failure.toString(), attempt);
+            }
+        }
+        if (envelope.delivery() != null) {
+            envelope.delivery().handled();
+        }
+    }
+
+    /**
+     * Wait retry-backoff-ms before the second attempt, doubling for each later one
+     * @return false when interrupted by stop(); the handler is then not retried
+     */
+    private boolean backOff(int attemptsSoFar) {
+        try {
+            Thread.sleep(retryBackoffMs << Math.min(attemptsSoFar - 1, 10));
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private void deadLetter(DomainEvent event, String handler, String reason, int attempts) {
+        deadLetterCounters.computeIfAbsent(event.getEventType(), type -> Counter.builder("events.dead_letters")
+                        .description("Events that could not be queued or handled")
+                        .tag("type", type)
+                        .register(meterRegistry))
+                .increment();
+        log.error("Dead-lettered event: type={}, id={}, aggregateId={}, handler={}, attempts={}, reason={}",
+                event.getEventType(), event.getEventId(), event.getAggregateId(), handler, attempts, reason);
+        saveDeadLetters(List.of(toDeadLetter(event, handler, reason, attempts)));
+    }
+
+    private NewDeadLetter toDeadLetter(DomainEvent event, String handler, String reason, int attempts) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (Exception e) {
+            // Kept for inspection; replay reports it as unreadable
+            log.error("Dead letter payload is not serializable: type={}, id={}", event.getEventType(), event.getEventId(), e);
+            payload = objectMapper.createObjectNode()
+                    .put("unserializable", event.getEventType())
+                    .put("event", String.valueOf(event))
+                    .toString();
+        }
+        return new NewDeadLetter(event.getEventId(), event.getEventType(), event.getAggregateId(), payload,
+                handler, reason, attempts);
+    }
+
+    private void saveDeadLetters(List<NewDeadLetter> deadLetters) {
+        try {
+            deadLetterEventRepository.insertAll(deadLetters);
+        } catch (Exception e) {
+            // The application log is the last resort
+            deadLetters.forEach(deadLetter -> log.error("Failed to save dead letter: type={}, id={}, payload={}",
+                    deadLetter.eventType(), deadLetter.eventId(), deadLetter.payload()));
+            log.error("Saving {} dead letters failed", deadLetters.size(), e);
+        }
+    }
+
+    private Timer handleTimer(String eventType) {
+        return handleTimers.computeIfAbsent(eventType, type -> Timer.builder("events.handle")
+                .description("Time spent in handlers per event, including retries")
+                .tag("type", type)
+                .register(meterRegistry));
+    }
+
+    private Timer queueTimer(String eventType) {
+        return queueTimers.computeIfAbsent(eventType, type -> Timer.builder("events.queue.wait")
+                .description("Time from publish to dispatch")
+                .tag("type", type)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Callbacks for an event queued with offer(); they run on a bus thread and must not block
+     */
+    public interface Delivery {
+        void handled();
+
+        void abandoned();
+    }
+
+    /**
+     * Subscriber class name without the lambda suffix the JVM generates per run
+     */
+    private static String handlerName(String className) {
+        int lambda = className.indexOf("$$Lambda");
+        return lambda >= 0 ? className.substring(0, lambda) : className;
+    }
+
+    private record Subscription(String name, EventHandler handler) {
+    }
+
+    /**
+     * @param handler the only subscription to run, or null for all of them
+     */
+    private record Envelope(DomainEvent event, String handler, long enqueuedNanos, Delivery delivery) {
+    }
+}
@@ -2,10 +2,11 @@ package com.sonexus.portal.infrastructure.adapters;
 
 import com.sonexus.portal.domain.model.User;
 import com.sonexus.portal.domain.ports.AuthProvider;
+import com.sonexus.portal.infrastructure.cache.ReferenceDataCache;
 import com.sonexus.portal.infrastructure.persistence.entity.RoleEntity;
 import com.sonexus.portal.infrastructure.persistence.entity.UserEntity;
-import com.sonexus.portal.infrastructure.persistence.repository.RoleRepository;
 import com.sonexus.portal.infrastructure.persistence.repository.UserRepository;
+import com.sonexus.portal.infrastructure.security.PrincipalCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
@@ -28,20 +29,23 @@ import java.util.stream.Collectors;
 public class JwtAuthAdapter implements AuthProvider {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
     private final SecretKey secretKey;
     private final long jwtExpiration;
 
     public JwtAuthAdapter(
             UserRepository userRepository,
-            RoleRepository roleRepository,
+            ReferenceDataCache referenceDataCache,
             PasswordEncoder passwordEncoder,
+            PrincipalCache principalCache,
             @Value("${app.security.jwt.secret}") String jwtSecret,
             @Value("${app.security.jwt.expiration}") long jwtExpiration) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.referenceDataCache = referenceDataCache;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
         this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
         this.jwtExpiration = jwtExpiration;
     }
@@ -68,14 +72,7 @@ public class JwtAuthAdapter implements AuthProvider {
                     .getPayload();
 
             Long userId = claims.get("userId", Long.class);
-            UserEntity userEntity = userRepository.findById(userId)
-                    .orElse(null);
-
-            if (userEntity == null) {
-                return Optional.empty();
-            }
-
-            return Optional.of(mapToUser(userEntity));
+            return principalCache.get(userId, id -> userRepository.findById(id).map(this::mapToUser));
         } catch (Exception e) {
             log.error("Token validation failed", e);
             return Optional.empty();
@@ -88,7 +85,9 @@ public class JwtAuthAdapter implements AuthProvider {
             throw new RuntimeException("Email already exists");
         }
 
-        RoleEntity officeStaffRole = roleRepository.findByName("OFFICE_STAFF")
+        // Detached role carrying the cached id; the association only needs the id
+        RoleEntity officeStaffRole = referenceDataCache.getRoleId("OFFICE_STAFF")
+                .map(id -> RoleEntity.builder().id(id).name("OFFICE_STAFF").build())
                 .orElseThrow(() -> new RuntimeException("Role not found"));
 
         UserEntity userEntity = UserEntity.builder()
@@ -110,6 +109,11 @@ public class JwtAuthAdapter implements AuthProvider {
             return Optional.empty();
         }
 
+        // Principal resolved by JwtAuthenticationFilter; no lookup needed
+        if (authentication.getPrincipal() instanceof User user) {
+            return Optional.of(user);
+        }
+
         String email = authentication.getName();
         return userRepository.findByEmail(email)
                 .map(this::mapToUser);
@@ -94,6 +94,23 @@ public class MinioFileStorageAdapter implements FileStoragePort {
         }
     }
 
+    @Override
+    public InputStream retrieveFile(String filePath, long offset, long length) {
+        try {
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(filePath)
+                            .offset(offset)
+                            .length(length)
+                            .build()
+            );
+        } catch (Exception e) {
+            log.error("Error retrieving file range: {} [{}+{}]", filePath, offset, length, e);
+            throw new RuntimeException("Failed to retrieve file: " + filePath, e);
+        }
+    }
+
     @Override
     public void deleteFile(String filePath) {
         try {
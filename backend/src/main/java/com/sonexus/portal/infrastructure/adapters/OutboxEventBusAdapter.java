@@ -0,0 +1,96 @@
+package com.sonexus.portal.infrastructure.adapters;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sonexus.portal.domain.events.DomainEvent;
+import com.sonexus.portal.domain.ports.EventBusPort;
+import com.sonexus.portal.infrastructure.outbox.OutboxFanOut;
+import com.sonexus.portal.infrastructure.outbox.OutboxRelay;
+import com.sonexus.portal.infrastructure.persistence.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Transactional outbox in front of the in-memory bus. Publishing inserts an outbox_events row in
+ * the caller's transaction, so the event exists exactly when the change does; OutboxRelay hands
+ * committed rows to the in-memory bus. Subscriptions go straight to the in-memory bus, where each
+ * event is handled on the one node that relays it; every-node subscriptions go to OutboxFanOut.
+ */
+@Component
+@Primary
+@RequiredArgsConstructor
+public class OutboxEventBusAdapter implements EventBusPort {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final InMemoryEventBusAdapter inMemoryEventBus;
+    private final OutboxRelay outboxRelay;
+    private final OutboxFanOut outboxFanOut;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void publish(DomainEvent event) {
+        outboxEventRepository.insert(
+                event.getEventId(),
+                event.getEventType(),
+                event.getAggregateId(),
+                toJson(event),
+                event.getOccurredAt());
+        wakeRelay();
+    }
+
+    /**
+     * Insert all events with one JDBC batch and wake the relay once
+     */
+    @Override
+    public void publishAll(List<? extends DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        outboxEventRepository.insertAll(events.stream()
+                .map(event -> new OutboxEventRepository.PendingEvent(
+                        event.getEventId(),
+                        event.getEventType(),
+                        event.getAggregateId(),
+                        toJson(event),
+                        event.getOccurredAt()))
+                .toList());
+        wakeRelay();
+    }
+
+    @Override
+    public void subscribe(String eventType, EventHandler handler) {
+        inMemoryEventBus.subscribe(eventType, handler);
+    }
+
+    @Override
+    public void subscribeOnEveryNode(String eventType, EventHandler handler) {
+        outboxFanOut.subscribe(eventType, handler);
+    }
+
+    private void wakeRelay() {
+        // Relay right away instead of waiting for the next poll
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxRelay.wakeUp();
+                }
+            });
+        } else {
+            outboxRelay.wakeUp();
+        }
+    }
+
+    private String toJson(DomainEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event is not serializable: " + event.getEventType(), e);
+        }
+    }
+}
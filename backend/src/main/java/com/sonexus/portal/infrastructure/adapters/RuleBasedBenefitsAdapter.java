@@ -3,7 +3,12 @@ package com.sonexus.portal.infrastructure.adapters;
 import com.sonexus.portal.domain.model.BenefitsInvestigationRequest;
 import com.sonexus.portal.domain.model.BenefitsInvestigationResult;
 import com.sonexus.portal.domain.ports.BenefitsInvestigationPort;
+import com.sonexus.portal.infrastructure.benefits.BenefitsRulesEngine;
+import com.sonexus.portal.infrastructure.benefits.CompiledBenefitsRules;
+import com.sonexus.portal.infrastructure.benefits.CompiledBenefitsRules.Evaluation;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
@@ -12,21 +17,32 @@ import java.util.Map;
 
 /**
  * Rule-based benefits investigation adapter for MVP/local development.
- * Uses deterministic rules instead of external API calls.
- * In production, this will be replaced with HttpBenefitsApiAdapter.
+ * Uses deterministic rules from benefits-rules.yml instead of external API calls.
+ * Replaced by HttpBenefitsApiAdapter when app.benefits.http.enabled is true.
+ * Callers reach it through CachingBenefitsInvestigationAdapter.
  */
 @Slf4j
 @Service
 @Profile({"default", "local", "test"})
+@ConditionalOnProperty(name = "app.benefits.http.enabled", havingValue = "false", matchIfMissing = true)
+@Qualifier(CachingBenefitsInvestigationAdapter.UPSTREAM)
 public class RuleBasedBenefitsAdapter implements BenefitsInvestigationPort {
 
+    private final BenefitsRulesEngine rulesEngine;
+
+    public RuleBasedBenefitsAdapter(BenefitsRulesEngine rulesEngine) {
+        this.rulesEngine = rulesEngine;
+    }
+
     @Override
     public BenefitsInvestigationResult investigateMedicalCoverage(BenefitsInvestigationRequest request) {
         log.info("Investigating medical coverage for patient {} with payer {}",
                 request.getPatientId(), request.getPayerName());
 
-        String coverageType = determineCoverageType(request.getPayerName());
-        boolean priorAuthRequired = determineIfPriorAuthRequired(request.getPayerName(), request.getPayerPlanId());
+        CompiledBenefitsRules rules = rulesEngine.current();
+        Evaluation evaluation = rules.evaluate(request.getPayerName(), request.getPayerPlanId());
+        String coverageType = evaluation.coverageType();
+        boolean priorAuthRequired = evaluation.medicalPriorAuthRequired();
 
         Map<String, Object> additionalData = new HashMap<>();
         additionalData.put("investigationType", "MEDICAL");
@@ -34,11 +50,11 @@ public class RuleBasedBenefitsAdapter implements BenefitsInvestigationPort {
         additionalData.put("memberId", request.getMemberId());
 
         return BenefitsInvestigationResult.builder()
-                .coverageStatus("ACTIVE")
+                .coverageStatus(rules.defaults().coverageStatus())
                 .coverageType(coverageType)
                 .priorAuthRequired(priorAuthRequired)
-                .deductibleApplies(true)
-                .specialtyPharmacyRequired(false)
+                .deductibleApplies(rules.defaults().deductibleApplies())
+                .specialtyPharmacyRequired(rules.defaults().specialtyPharmacyRequired())
                 .notes(generateNotes(coverageType, priorAuthRequired, "MEDICAL"))
                 .additionalData(additionalData)
                 .build();
@@ -49,9 +65,11 @@ public class RuleBasedBenefitsAdapter implements BenefitsInvestigationPort {
         log.info("Investigating pharmacy coverage for patient {} with payer {}",
                 request.getPatientId(), request.getPayerName());
 
-        String coverageType = determineCoverageType(request.getPayerName());
-        boolean specialtyPharmacyRequired = determineIfSpecialtyPharmacyRequired(request.getPayerName());
-        boolean priorAuthRequired = determineIfPriorAuthRequired(request.getPayerName(), request.getPayerPlanId());
+        CompiledBenefitsRules rules = rulesEngine.current();
+        Evaluation evaluation = rules.evaluate(request.getPayerName(), request.getPayerPlanId());
+        String coverageType = evaluation.coverageType();
+        boolean specialtyPharmacyRequired = evaluation.specialtyPharmacyRequired();
+        boolean priorAuthRequired = evaluation.pharmacyPriorAuthRequired();
 
         Map<String, Object> additionalData = new HashMap<>();
         additionalData.put("investigationType", "PHARMACY");
@@ -60,10 +78,10 @@ public class RuleBasedBenefitsAdapter implements BenefitsInvestigationPort {
         additionalData.put("medicationName", request.getMedicationName());
 
         return BenefitsInvestigationResult.builder()
-                .coverageStatus("ACTIVE")
+                .coverageStatus(rules.defaults().coverageStatus())
                 .coverageType(coverageType)
                 .priorAuthRequired(priorAuthRequired)
-                .deductibleApplies(true)
+                .deductibleApplies(rules.defaults().deductibleApplies())
                 .specialtyPharmacyRequired(specialtyPharmacyRequired)
                 .notes(generateNotes(coverageType, priorAuthRequired, "PHARMACY"))
                 .additionalData(additionalData)
@@ -75,68 +93,6 @@ public class RuleBasedBenefitsAdapter implements BenefitsInvestigationPort {
         return true; // Rule-based adapter is always available
     }
 
-    /**
-     * Determine coverage type based on payer name keywords
-     */
-    private String determineCoverageType(String payerName) {
-        if (payerName == null || payerName.isBlank()) {
-            return "UNKNOWN";
-        }
-
-        String lowerPayerName = payerName.toLowerCase();
-
-        // Medicare
-        if (lowerPayerName.contains("medicare") || lowerPayerName.contains("cms")
-            || lowerPayerName.contains("part d") || lowerPayerName.contains("part b")) {
-            return "MEDICARE";
-        }
-
-        // Medicaid
-        if (lowerPayerName.contains("medicaid")) {
-            return "MEDICAID";
-        }
-
-        // Commercial insurers
-        if (lowerPayerName.contains("blue") || lowerPayerName.contains("aetna")
-            || lowerPayerName.contains("cigna") || lowerPayerName.contains("uhc")
-            || lowerPayerName.contains("united healthcare") || lowerPayerName.contains("anthem")
-            || lowerPayerName.contains("humana")) {
-            return "COMMERCIAL";
-        }
-
-        return "UNKNOWN";
-    }
-
-    /**
-     * Determine if prior authorization is required
-     */
-    private boolean determineIfPriorAuthRequired(String payerName, String payerPlanId) {
-        if (payerPlanId != null && payerPlanId.toUpperCase().startsWith("PA-")) {
-            return true;
-        }
-
-        if (payerName != null && payerName.toLowerCase().contains("hmo")) {
-            return true;
-        }
-
-        return false;
-    }
-
-    /**
-     * Determine if specialty pharmacy is required
-     */
-    private boolean determineIfSpecialtyPharmacyRequired(String payerName) {
-        if (payerName == null) {
-            return false;
-        }
-
-        String lowerPayerName = payerName.toLowerCase();
-
-        return lowerPayerName.contains("optum") || lowerPayerName.contains("caremark")
-                || lowerPayerName.contains("express scripts") || lowerPayerName.contains("accredo")
-                || lowerPayerName.contains("cvs specialty") || lowerPayerName.contains("walgreens specialty");
-    }
-
     /**
      * Generate human-readable notes based on investigation results
      */
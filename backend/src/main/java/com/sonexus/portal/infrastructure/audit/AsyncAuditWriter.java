@@ -0,0 +1,321 @@
+package com.sonexus.portal.infrastructure.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sonexus.portal.infrastructure.audit.AuditJournal.Entry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes audit events to audit_events in JDBC batches from a single background thread.
+ * submit() first appends the record to the AuditJournal on disk, so an acknowledged event
+ * survives a crash, then hands it to a bounded in-memory queue. Records that cannot go through
+ * the queue (queue full, insert failure, submitted after stop) stay in the journal and are
+ * recovered from it after the next successful batch, when the writer is idle, and at startup.
+ * When the database rejects a batch because of its data, the records are retried one by one and
+ * the ones it still rejects are moved to the journal's rejected file instead of being retried.
+ */
+@Component
+@Slf4j
+public class AsyncAuditWriter implements SmartLifecycle {
+
+    /**
+     * Stop after the web server (graceful shutdown runs at DEFAULT_PHASE - 1024, the server
+     * itself at DEFAULT_PHASE - 2048), so requests finishing during shutdown are still written
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final String INSERT_SQL = "INSERT INTO audit_events " +
+            "(event_type, user_id, resource_type, resource_id, action, correlation_id, ip_address, metadata, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditJournal journal;
+    private final BlockingQueue<Entry> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long shutdownTimeoutMs;
+    private final long recoveryRetryMs;
+
+    private final Counter enqueuedCounter;
+    private final Counter writtenCounter;
+    private final Counter deferredCounter;
+    private final Counter failedBatchCounter;
+    private final Counter rejectedCounter;
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private long nextRecoveryAt;
+
+    public AsyncAuditWriter(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.audit.batch-size:200}") int batchSize,
+            @Value("${app.audit.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${app.audit.shutdown-timeout-ms:10000}") long shutdownTimeoutMs,
+            @Value("${app.audit.recovery-retry-ms:5000}") long recoveryRetryMs,
+            @Value("${app.audit.journal.directory:./data/audit-journal}") String journalDirectory,
+            @Value("${app.audit.journal.segment-bytes:16777216}") long segmentBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.journal = new AuditJournal(Path.of(journalDirectory), objectMapper, segmentBytes);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.recoveryRetryMs = recoveryRetryMs;
+
+        Gauge.builder("audit.queue.size", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("audit.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Free slots in the audit queue")
+                .register(meterRegistry);
+        this.enqueuedCounter = Counter.builder("audit.events.enqueued").register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.events.written").register(meterRegistry);
+        this.deferredCounter = Counter.builder("audit.events.deferred")
+                .description("Audit events left in the journal for recovery instead of going through the queue")
+                .register(meterRegistry);
+        this.failedBatchCounter = Counter.builder("audit.batches.failed").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("audit.events.rejected")
+                .description("Audit events the database refused, kept in the journal's rejected file")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("audit.batch.write")
+                .description("Time to insert one batch of audit events")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Journal the record, then queue it for writing. Never waits for queue space: if the queue
+     * is full or the writer has stopped, the journaled record is recovered later.
+     */
+    public void submit(AuditRecord record) {
+        enqueuedCounter.increment();
+        Entry entry;
+        try {
+            entry = journal.append(record);
+        } catch (UncheckedIOException e) {
+            log.error("Failed to journal audit event type={} resource={}:{}, queueing it without a journal entry",
+                    record.eventType(), record.resourceType(), record.resourceId(), e);
+            entry = new Entry(null, -1, record);
+        }
+
+        if (!running || !queue.offer(entry)) {
+            log.warn("Audit queue {}, deferring event type={} resource={}:{}",
+                    running ? "full" : "stopped", record.eventType(), record.resourceType(), record.resourceId());
+            deferredCounter.increment();
+            journal.deferred(List.of(entry));
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Audit writer started: capacity={}, batchSize={}", queue.remainingCapacity(), batchSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything not flushed in time is still in the journal and is replayed at the next start
+        List<Entry> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        journal.deferred(remaining);
+        log.info("Audit writer stopped, {} events left in the journal", remaining.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runWriter() {
+        recover();
+
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = running ? queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS) : queue.poll();
+                if (first == null) {
+                    if (running && System.currentTimeMillis() >= nextRecoveryAt && journal.hasRecoverable()) {
+                        recover();
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                if (writeBatch(batch) && System.currentTimeMillis() >= nextRecoveryAt && journal.hasRecoverable()) {
+                    recover();
+                }
+            } catch (InterruptedException e) {
+                // Interrupted by stop(); keep draining until the queue is empty
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * @return false when the database could not be reached; the batch is then deferred
+     */
+    private boolean writeBatch(List<Entry> batch) {
+        List<AuditRecord> records = batch.stream().map(Entry::record).toList();
+        try {
+            batchTimer.record(() -> insert(records));
+        } catch (Exception e) {
+            failedBatchCounter.increment();
+            if (!isRejection(e)) {
+                deferredCounter.increment(batch.size());
+                log.error("Failed to write {} audit events, leaving them in the journal", batch.size(), e);
+                journal.deferred(batch);
+                return false;
+            }
+            log.warn("Audit batch of {} events rejected, writing them one by one", batch.size(), e);
+            return writeEach(batch);
+        }
+        writtenCounter.increment(batch.size());
+        journal.written(batch);
+        return true;
+    }
+
+    /**
+     * Insert the entries one at a time, moving the ones the database rejects to the rejected
+     * file. Stops at the first failure that is not a rejection and defers the rest.
+     */
+    private boolean writeEach(List<Entry> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Entry entry = batch.get(i);
+            try {
+                insert(List.of(entry.record()));
+                writtenCounter.increment();
+            } catch (Exception e) {
+                if (!isRejection(e)) {
+                    List<Entry> rest = batch.subList(i, batch.size());
+                    deferredCounter.increment(rest.size());
+                    log.error("Failed to write {} audit events, leaving them in the journal", rest.size(), e);
+                    journal.deferred(rest);
+                    return false;
+                }
+                reject(entry.record(), e);
+            }
+            journal.written(List.of(entry));
+        }
+        return true;
+    }
+
+    private void recover() {
+        try {
+            int recovered = journal.recover(batchSize, this::insertOrReject);
+            if (recovered > 0) {
+                writtenCounter.increment(recovered);
+                log.info("Recovered {} audit events from the journal", recovered);
+            }
+        } catch (Exception e) {
+            nextRecoveryAt = System.currentTimeMillis() + recoveryRetryMs;
+            log.error("Failed to recover audit events from the journal, retrying in {} ms", recoveryRetryMs, e);
+        }
+    }
+
+    /**
+     * Recovery inserter: like writeEach, but a failure that is not a rejection propagates so the
+     * segment is kept for the next attempt
+     */
+    private void insertOrReject(List<AuditRecord> records) {
+        try {
+            insert(records);
+            return;
+        } catch (RuntimeException e) {
+            if (!isRejection(e)) {
+                throw e;
+            }
+        }
+        for (AuditRecord record : records) {
+            try {
+                insert(List.of(record));
+            } catch (RuntimeException e) {
+                if (!isRejection(e)) {
+                    throw e;
+                }
+                reject(record, e);
+            }
+        }
+    }
+
+    private void reject(AuditRecord record, Exception cause) {
+        rejectedCounter.increment();
+        log.error("Audit event rejected by the database, moving it to the rejected file: type={} resource={}:{}",
+                record.eventType(), record.resourceType(), record.resourceId(), cause);
+        journal.reject(List.of(record), NestedExceptionUtils.getMostSpecificCause(cause).getMessage());
+    }
+
+    /**
+     * The database refused the data itself (constraint, type or length), so retrying cannot help
+     */
+    private static boolean isRejection(Exception e) {
+        return e instanceof DataIntegrityViolationException || e instanceof IllegalArgumentException;
+    }
+
+    private void insert(List<AuditRecord> records) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, records.size(), (ps, record) -> {
+            ps.setString(1, record.eventType());
+            ps.setObject(2, record.userId(), Types.BIGINT);
+            ps.setString(3, record.resourceType());
+            ps.setObject(4, record.resourceId(), Types.BIGINT);
+            ps.setString(5, record.action());
+            ps.setString(6, record.correlationId());
+            ps.setString(7, record.ipAddress());
+            ps.setString(8, toJson(record));
+            ps.setTimestamp(9, Timestamp.valueOf(record.createdAt()));
+        });
+    }
+
+    private String toJson(AuditRecord record) {
+        if (record.metadata() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(record.metadata());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Audit metadata is not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.sonexus.portal.infrastructure.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead journal of audit records. Every record is appended as a JSON line and forced to
+ * disk before submit() returns, so an acknowledged audit event survives a crash. Appends are
+ * group-committed: callers that arrive while a force is running share the next one.
+ * The journal is split into segments. A record is marked written once its batch commits; the
+ * active segment is truncated whenever everything in it is written, and a sealed segment is
+ * deleted. Records that did not reach the database through the queue (queue full, failed insert,
+ * submitted after stop) are deferred: their segment is sealed and recover() later inserts the
+ * lines not yet written. Segments found at startup are replayed in full, so delivery after a
+ * crash is at-least-once. Records the database rejects are moved to rejected.jsonl, so one bad
+ * record cannot hold up recovery of everything journaled after it.
+ */
+@Slf4j
+class AuditJournal {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.jsonl");
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final long maxSegmentBytes;
+    private final Path rejectedPath;
+
+    /** Held while forcing; never taken while holding the journal's monitor */
+    private final Object syncLock = new Object();
+    /** Records appended so far (guarded by this) and records known to be on disk (guarded by syncLock) */
+    private long appendedCount;
+    private long syncedCount;
+
+    /** Sealed segments, oldest first; deleted once every line is written */
+    private final List<Segment> sealed = new LinkedList<>();
+    private Segment active;
+    private long nextSegmentId;
+
+    AuditJournal(Path directory, ObjectMapper objectMapper, long maxSegmentBytes) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.rejectedPath = directory.resolve("rejected.jsonl");
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.map(Segment::leftover)
+                        .filter(segment -> segment != null)
+                        .sorted(Comparator.comparingLong(segment -> segment.id))
+                        .forEach(sealed::add);
+            }
+            nextSegmentId = sealed.isEmpty() ? 1 : sealed.get(sealed.size() - 1).id + 1;
+            active = openSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open audit journal in " + directory, e);
+        }
+        if (!sealed.isEmpty()) {
+            log.info("Audit journal has {} segments left from the previous run", sealed.size());
+        }
+    }
+
+    /**
+     * Append the record and return once it is forced to disk
+     */
+    Entry append(AuditRecord record) {
+        Entry entry;
+        long position;
+        synchronized (this) {
+            try {
+                if (active.size >= maxSegmentBytes) {
+                    rotate();
+                }
+                byte[] json = objectMapper.writeValueAsBytes(record);
+                ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+                while (line.hasRemaining()) {
+                    active.channel.write(line);
+                }
+                active.size += json.length + 1;
+                active.inFlight++;
+                entry = new Entry(active, active.lines++, record);
+                position = ++appendedCount;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append audit record to " + active.path, e);
+            }
+        }
+        sync(position);
+        return entry;
+    }
+
+    /**
+     * Force the active segment unless a force that started after the record was appended has
+     * already run. Rotation forces a segment before sealing it, so only the active one needs it.
+     */
+    private void sync(long position) {
+        synchronized (syncLock) {
+            if (syncedCount >= position) {
+                return;
+            }
+            long target;
+            Segment segment;
+            FileChannel channel;
+            synchronized (this) {
+                target = appendedCount;
+                segment = active;
+                channel = active.channel;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // Sealed by rotate(), which forced it first
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to force audit journal " + segment.path, e);
+            }
+            syncedCount = target;
+        }
+    }
+
+    /**
+     * The entries' records are committed to the database
+     */
+    synchronized void written(Collection<Entry> entries) {
+        for (Entry entry : entries) {
+            Segment segment = entry.segment();
+            if (segment != null) {
+                segment.written.set(entry.line());
+                segment.inFlight--;
+            }
+        }
+        cleanUp();
+    }
+
+    /**
+     * The entries' records did not reach the database; recover() will insert them from disk
+     */
+    synchronized void deferred(Collection<Entry> entries) {
+        boolean activeDeferred = false;
+        for (Entry entry : entries) {
+            Segment segment = entry.segment();
+            if (segment == null) {
+                // Never reached the journal; the application log is the last resort
+                log.error("Dropping audit record that is neither journaled nor written: {}", entry.record());
+                continue;
+            }
+            segment.inFlight--;
+            segment.deferred = true;
+            activeDeferred |= segment == active;
+        }
+        // Seal the segment so recovery works on an immutable file
+        if (activeDeferred) {
+            try {
+                rotate();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to rotate audit journal " + active.path, e);
+            }
+        }
+    }
+
+    synchronized boolean hasRecoverable() {
+        return nextRecoverable() != null;
+    }
+
+    /**
+     * Insert the unwritten lines of every sealed segment that has nothing left in flight, oldest
+     * first, reading each file in batches. A failing insert propagates and leaves the segment for
+     * the next call.
+     * @return records inserted
+     */
+    int recover(int batchSize, Consumer<List<AuditRecord>> inserter) {
+        int recovered = 0;
+        Segment segment;
+        while ((segment = recoverableSegment()) != null) {
+            List<AuditRecord> batch = new ArrayList<>(batchSize);
+            List<Integer> lines = new ArrayList<>(batchSize);
+            try (BufferedReader reader = Files.newBufferedReader(segment.path, StandardCharsets.UTF_8)) {
+                String line;
+                for (int index = 0; (line = reader.readLine()) != null; index++) {
+                    if (line.isBlank() || segment.isWritten(index)) {
+                        continue;
+                    }
+                    try {
+                        batch.add(objectMapper.readValue(line, AuditRecord.class));
+                        lines.add(index);
+                    } catch (IOException e) {
+                        // A torn final line from a crash mid-append is the only expected cause
+                        log.warn("Skipping unreadable audit journal line in {}: {}", segment.path, line);
+                    }
+                    if (batch.size() == batchSize) {
+                        recovered += insert(segment, batch, lines, inserter);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read audit journal " + segment.path, e);
+            }
+            if (!batch.isEmpty()) {
+                recovered += insert(segment, batch, lines, inserter);
+            }
+            remove(segment);
+        }
+        return recovered;
+    }
+
+    /**
+     * Insert one recovered batch and mark its lines written, so a later failure in the same
+     * segment does not insert them again
+     */
+    private int insert(Segment segment, List<AuditRecord> batch, List<Integer> lines,
+                       Consumer<List<AuditRecord>> inserter) {
+        inserter.accept(batch);
+        int inserted = batch.size();
+        synchronized (this) {
+            lines.forEach(segment.written::set);
+        }
+        batch.clear();
+        lines.clear();
+        return inserted;
+    }
+
+    private synchronized Segment recoverableSegment() {
+        return nextRecoverable();
+    }
+
+    private Segment nextRecoverable() {
+        for (Segment segment : sealed) {
+            if (segment.inFlight == 0 && (segment.deferred || segment.leftover)) {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void remove(Segment segment) {
+        sealed.remove(segment);
+        delete(segment);
+    }
+
+    private void cleanUp() {
+        Iterator<Segment> iterator = sealed.iterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next();
+            if (segment.inFlight == 0 && !segment.deferred && !segment.leftover) {
+                iterator.remove();
+                delete(segment);
+            }
+        }
+        if (active.inFlight == 0 && active.size > 0) {
+            try {
+                active.channel.truncate(0);
+                active.size = 0;
+                active.lines = 0;
+                active.written.clear();
+            } catch (IOException e) {
+                log.warn("Failed to truncate audit journal {}", active.path, e);
+            }
+        }
+    }
+
+    /**
+     * Move records the database rejected to rejected.jsonl with the reason, forced to disk, so
+     * they are kept for inspection without being retried
+     */
+    synchronized void reject(Collection<AuditRecord> records, String reason) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(rejectedPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (AuditRecord record : records) {
+                byte[] json = objectMapper.writeValueAsBytes(Map.of(
+                        "rejectedAt", LocalDateTime.now().toString(),
+                        "reason", reason,
+                        "record", record));
+                ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+                while (line.hasRemaining()) {
+                    channel.write(line);
+                }
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write rejected audit records to " + rejectedPath, e);
+        }
+    }
+
+    private void rotate() throws IOException {
+        active.channel.force(false);
+        active.channel.close();
+        active.channel = null;
+        sealed.add(active);
+        active = openSegment();
+    }
+
+    private Segment openSegment() throws IOException {
+        long id = nextSegmentId++;
+        Path path = directory.resolve("segment-" + id + ".jsonl");
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        Segment segment = new Segment(id, path, false);
+        segment.channel = channel;
+        segment.size = channel.size();
+        return segment;
+    }
+
+    private void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("Failed to delete audit journal segment {}", segment.path, e);
+        }
+    }
+
+    /**
+     * A journaled record and its position, handed back to written() or deferred(); segment is
+     * null when the append failed
+     */
+    record Entry(Segment segment, int line, AuditRecord record) {
+    }
+
+    static final class Segment {
+        private final long id;
+        private final Path path;
+        /** Left over from a previous run: every line is replayed */
+        private final boolean leftover;
+        private final BitSet written = new BitSet();
+        private FileChannel channel;
+        private long size;
+        private int lines;
+        private int inFlight;
+        private boolean deferred;
+
+        private Segment(long id, Path path, boolean leftover) {
+            this.id = id;
+            this.path = path;
+            this.leftover = leftover;
+        }
+
+        private static Segment leftover(Path path) {
+            Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+            return matcher.matches() ? new Segment(Long.parseLong(matcher.group(1)), path, true) : null;
+        }
+
+        private boolean isWritten(int line) {
+            return written.get(line);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.sonexus.portal.infrastructure.audit;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Immutable audit event captured on the caller thread and written asynchronously.
+ */
+public record AuditRecord(
+        String eventType,
+        Long userId,
+        String resourceType,
+        Long resourceId,
+        String action,
+        String correlationId,
+        String ipAddress,
+        Map<String, Object> metadata,
+        LocalDateTime createdAt) {
+}
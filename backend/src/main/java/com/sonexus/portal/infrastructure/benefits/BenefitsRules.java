@@ -0,0 +1,37 @@
+package com.sonexus.portal.infrastructure.benefits;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * benefits-rules.yml as written; compiled into CompiledBenefitsRules before use
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+record BenefitsRules(
+        List<CoverageTypeRule> coverageTypeRules,
+        PharmacyRules pharmacyRules,
+        List<PlanRule> medicalPriorAuthRules,
+        Defaults defaults) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record CoverageTypeRule(List<String> payerKeywords, String coverageType) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record PharmacyRules(List<KeywordRule> specialtyPharmacyRequired, List<KeywordRule> priorAuthKeywords) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record KeywordRule(List<String> keywords, boolean required) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record PlanRule(List<String> planKeywords, List<String> planPrefixes, boolean required) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Defaults(String coverageStatus, String coverageType, Boolean priorAuthRequired,
+                    Boolean deductibleApplies, Boolean specialtyPharmacyRequired) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.sonexus.portal.infrastructure.benefits;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Holds the compiled benefits rules from app.benefits.rules.location and swaps in a recompiled
+ * set when the file changes. A file that fails to load or compile is logged and the previous
+ * rules stay in effect. A successful reload publishes BenefitsRulesReloadedEvent.
+ */
+@Component
+@Slf4j
+public class BenefitsRulesEngine {
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String location;
+    private final Counter reloadFailures;
+
+    private volatile CompiledBenefitsRules rules;
+    private volatile long loadedLastModified = -1;
+
+    public BenefitsRulesEngine(
+            ResourceLoader resourceLoader,
+            ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${app.benefits.rules.location:classpath:benefits-rules.yml}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.location = location;
+        this.reloadFailures = Counter.builder("benefits.rules.reload.failures").register(meterRegistry);
+    }
+
+    /**
+     * Fails startup when the rules cannot be loaded, rather than running without them
+     */
+    @PostConstruct
+    void load() {
+        Resource resource = resourceLoader.getResource(location);
+        try {
+            install(resource, lastModified(resource));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load benefits rules from " + location, e);
+        }
+    }
+
+    public CompiledBenefitsRules current() {
+        return rules;
+    }
+
+    @Scheduled(fixedDelayString = "${app.benefits.rules.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        Resource resource = resourceLoader.getResource(location);
+        long lastModified = lastModified(resource);
+        if (lastModified <= 0 || lastModified == loadedLastModified) {
+            return;
+        }
+
+        try {
+            install(resource, lastModified);
+        } catch (Exception e) {
+            reloadFailures.increment();
+            // Do not retry the same broken file every interval
+            loadedLastModified = lastModified;
+            log.error("Benefits rules reload from {} failed, keeping the previous rules", location, e);
+            return;
+        }
+        eventPublisher.publishEvent(new BenefitsRulesReloadedEvent(location));
+    }
+
+    private void install(Resource resource, long lastModified) throws IOException {
+        Map<String, Object> yaml;
+        try (InputStream in = resource.getInputStream()) {
+            yaml = new Yaml().load(in);
+        }
+        CompiledBenefitsRules compiled = CompiledBenefitsRules.compile(objectMapper.convertValue(yaml, BenefitsRules.class));
+
+        rules = compiled;
+        loadedLastModified = lastModified;
+        log.info("Benefits rules loaded from {}: coverageRules={}, automatonStates={}",
+                location, compiled.coverageRuleCount(), compiled.keywordStates());
+    }
+
+    private long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            // Resources inside a jar have no usable timestamp; they cannot change anyway
+            return 0;
+        }
+    }
+}
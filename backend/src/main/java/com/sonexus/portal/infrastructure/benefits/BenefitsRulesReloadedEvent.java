@@ -0,0 +1,7 @@
+package com.sonexus.portal.infrastructure.benefits;
+
+/**
+ * Published after changed benefits rules have been compiled and installed
+ */
+public record BenefitsRulesReloadedEvent(String location) {
+}
@@ -0,0 +1,154 @@
+package com.sonexus.portal.infrastructure.benefits;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, ready-to-evaluate form of BenefitsRules. All payer keywords share one automaton:
+ * coverage rule i is tag i (lower tags win, matching the file order), followed by one tag each
+ * for specialty pharmacy, medical prior auth and pharmacy prior auth.
+ */
+public final class CompiledBenefitsRules {
+
+    private final KeywordAutomaton automaton;
+    private final String[] coverageTypes;
+    private final long coverageMask;
+    private final long specialtyTag;
+    private final long medicalPriorAuthTag;
+    private final long pharmacyPriorAuthTag;
+    private final List<String> medicalPlanPrefixes;
+    private final Defaults defaults;
+
+    private CompiledBenefitsRules(KeywordAutomaton automaton, String[] coverageTypes,
+                                  List<String> medicalPlanPrefixes, Defaults defaults) {
+        this.automaton = automaton;
+        this.coverageTypes = coverageTypes;
+        this.coverageMask = coverageTypes.length == 0 ? 0 : -1L >>> (Long.SIZE - coverageTypes.length);
+        this.specialtyTag = 1L << coverageTypes.length;
+        this.medicalPriorAuthTag = 1L << (coverageTypes.length + 1);
+        this.pharmacyPriorAuthTag = 1L << (coverageTypes.length + 2);
+        this.medicalPlanPrefixes = medicalPlanPrefixes;
+        this.defaults = defaults;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the rules have too many coverage rules for one automaton
+     */
+    static CompiledBenefitsRules compile(BenefitsRules rules) {
+        List<BenefitsRules.CoverageTypeRule> coverageRules = orEmpty(rules.coverageTypeRules());
+        if (coverageRules.size() + 3 > KeywordAutomaton.MAX_TAGS) {
+            throw new IllegalArgumentException("At most " + (KeywordAutomaton.MAX_TAGS - 3) + " coverage type rules are supported");
+        }
+
+        Map<String, Long> keywords = new LinkedHashMap<>();
+        String[] coverageTypes = new String[coverageRules.size()];
+        for (int i = 0; i < coverageRules.size(); i++) {
+            coverageTypes[i] = coverageRules.get(i).coverageType();
+            addKeywords(keywords, coverageRules.get(i).payerKeywords(), 1L << i);
+        }
+
+        int flagsBase = coverageRules.size();
+        BenefitsRules.PharmacyRules pharmacy = rules.pharmacyRules();
+        if (pharmacy != null) {
+            for (BenefitsRules.KeywordRule rule : orEmpty(pharmacy.specialtyPharmacyRequired())) {
+                if (rule.required()) {
+                    addKeywords(keywords, rule.keywords(), 1L << flagsBase);
+                }
+            }
+            for (BenefitsRules.KeywordRule rule : orEmpty(pharmacy.priorAuthKeywords())) {
+                if (rule.required()) {
+                    addKeywords(keywords, rule.keywords(), 1L << (flagsBase + 2));
+                }
+            }
+        }
+
+        List<String> planPrefixes = new ArrayList<>();
+        for (BenefitsRules.PlanRule rule : orEmpty(rules.medicalPriorAuthRules())) {
+            if (rule.required()) {
+                addKeywords(keywords, rule.planKeywords(), 1L << (flagsBase + 1));
+                orEmpty(rule.planPrefixes()).forEach(prefix -> planPrefixes.add(prefix.toUpperCase(Locale.ROOT)));
+            }
+        }
+
+        BenefitsRules.Defaults d = rules.defaults();
+        Defaults defaults = d == null ? Defaults.FALLBACK : new Defaults(
+                d.coverageStatus() != null ? d.coverageStatus() : Defaults.FALLBACK.coverageStatus(),
+                d.coverageType() != null ? d.coverageType() : Defaults.FALLBACK.coverageType(),
+                Boolean.TRUE.equals(d.priorAuthRequired()),
+                d.deductibleApplies() == null || d.deductibleApplies(),
+                Boolean.TRUE.equals(d.specialtyPharmacyRequired()));
+
+        return new CompiledBenefitsRules(new KeywordAutomaton(keywords), coverageTypes, List.copyOf(planPrefixes), defaults);
+    }
+
+    /**
+     * Evaluate a payer in one pass over its name. Keywords, including the prior-auth ones, match
+     * the payer name only; the plan id is only checked against the medical plan prefixes, from its
+     * first character, as the hardcoded rules did.
+     */
+    public Evaluation evaluate(String payerName, String payerPlanId) {
+        long nameHits = automaton.scan(payerName);
+
+        String coverageType = defaults.coverageType();
+        long coverageHits = nameHits & coverageMask;
+        if (coverageHits != 0) {
+            coverageType = coverageTypes[Long.numberOfTrailingZeros(coverageHits)];
+        }
+
+        boolean medicalPriorAuth = defaults.priorAuthRequired()
+                || (nameHits & medicalPriorAuthTag) != 0
+                || hasPlanPrefix(payerPlanId);
+        // Pharmacy prior auth has always included the medical plan rules
+        boolean pharmacyPriorAuth = medicalPriorAuth || (nameHits & pharmacyPriorAuthTag) != 0;
+        boolean specialtyRequired = defaults.specialtyPharmacyRequired() || (nameHits & specialtyTag) != 0;
+
+        return new Evaluation(coverageType, medicalPriorAuth, pharmacyPriorAuth, specialtyRequired);
+    }
+
+    public Defaults defaults() {
+        return defaults;
+    }
+
+    int keywordStates() {
+        return automaton.stateCount();
+    }
+
+    int coverageRuleCount() {
+        return coverageTypes.length;
+    }
+
+    private boolean hasPlanPrefix(String payerPlanId) {
+        if (payerPlanId == null) {
+            return false;
+        }
+        for (String prefix : medicalPlanPrefixes) {
+            if (payerPlanId.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addKeywords(Map<String, Long> keywords, List<String> values, long tag) {
+        for (String value : orEmpty(values)) {
+            keywords.merge(value, tag, (a, b) -> a | b);
+        }
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    public record Evaluation(String coverageType, boolean medicalPriorAuthRequired,
+                             boolean pharmacyPriorAuthRequired, boolean specialtyPharmacyRequired) {
+    }
+
+    public record Defaults(String coverageStatus, String coverageType, boolean priorAuthRequired,
+                           boolean deductibleApplies, boolean specialtyPharmacyRequired) {
+
+        static final Defaults FALLBACK = new Defaults("ACTIVE", "UNKNOWN", false, true, false);
+    }
+}
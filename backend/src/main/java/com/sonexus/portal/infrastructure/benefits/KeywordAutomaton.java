@@ -0,0 +1,132 @@
+package com.sonexus.portal.infrastructure.benefits;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Case-insensitive Aho-Corasick matcher over a fixed keyword set. Each keyword carries a tag
+ * (0-63); scan returns the tags of every keyword found anywhere in the text as a bit mask, in one
+ * pass and without allocating. Transitions are precomputed into a full table, so each input char
+ * costs one array lookup.
+ */
+final class KeywordAutomaton {
+
+    static final int MAX_TAGS = Long.SIZE;
+
+    private static final int OTHER = 0;
+
+    private final int[] asciiSymbols = new int[128];
+    private final Map<Character, Integer> otherSymbols = new HashMap<>();
+    private final int[][] transitions;
+    private final long[] outputs;
+
+    /**
+     * @param keywords keyword to tag; blank keywords are ignored
+     */
+    KeywordAutomaton(Map<String, Long> keywords) {
+        // Symbol 0 stands for every char that appears in no keyword
+        int alphabetSize = 1;
+        for (String keyword : keywords.keySet()) {
+            for (char c : keyword.toLowerCase(Locale.ROOT).toCharArray()) {
+                if (symbol(c) == OTHER) {
+                    if (c < asciiSymbols.length) {
+                        asciiSymbols[c] = alphabetSize++;
+                    } else {
+                        otherSymbols.put(c, alphabetSize++);
+                    }
+                }
+            }
+        }
+
+        // Trie
+        List<int[]> children = new ArrayList<>();
+        List<Long> stateOutputs = new ArrayList<>();
+        children.add(new int[alphabetSize]);
+        stateOutputs.add(0L);
+        for (Map.Entry<String, Long> keyword : keywords.entrySet()) {
+            String lower = keyword.getKey().toLowerCase(Locale.ROOT);
+            if (lower.isBlank()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < lower.length(); i++) {
+                int symbol = symbol(lower.charAt(i));
+                if (children.get(state)[symbol] == 0) {
+                    children.get(state)[symbol] = children.size();
+                    children.add(new int[alphabetSize]);
+                    stateOutputs.add(0L);
+                }
+                state = children.get(state)[symbol];
+            }
+            stateOutputs.set(state, stateOutputs.get(state) | keyword.getValue());
+        }
+
+        // Failure links folded into a complete transition table, breadth first
+        int stateCount = children.size();
+        transitions = new int[stateCount][];
+        outputs = new long[stateCount];
+        int[] fail = new int[stateCount];
+        for (int s = 0; s < stateCount; s++) {
+            outputs[s] = stateOutputs.get(s);
+        }
+
+        Queue<Integer> queue = new ArrayDeque<>();
+        transitions[0] = children.get(0).clone();
+        for (int symbol = 1; symbol < alphabetSize; symbol++) {
+            int child = transitions[0][symbol];
+            if (child != 0) {
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        transitions[0][OTHER] = 0;
+
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            outputs[state] |= outputs[fail[state]];
+            transitions[state] = new int[alphabetSize];
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int child = children.get(state)[symbol];
+                if (child != 0) {
+                    fail[child] = transitions[fail[state]][symbol];
+                    transitions[state][symbol] = child;
+                    queue.add(child);
+                } else {
+                    transitions[state][symbol] = transitions[fail[state]][symbol];
+                }
+            }
+        }
+    }
+
+    /**
+     * Tags of all keywords occurring in text, or 0 for null text
+     */
+    long scan(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        long hits = 0;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state][symbol(Character.toLowerCase(text.charAt(i)))];
+            hits |= outputs[state];
+        }
+        return hits;
+    }
+
+    int stateCount() {
+        return transitions.length;
+    }
+
+    private int symbol(char c) {
+        if (c < asciiSymbols.length) {
+            return asciiSymbols[c];
+        }
+        return otherSymbols.getOrDefault(c, OTHER);
+    }
+}
@@ -0,0 +1,181 @@
+package com.sonexus.portal.infrastructure.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps in-process caches coherent across portal nodes with Postgres LISTEN/NOTIFY.
+ * broadcast() sends a NOTIFY in the caller's transaction, so other nodes hear about a change only
+ * once it is committed. Each node listens on its own unpooled connection and hands received keys
+ * to the evictor registered for the region; its own notifications are ignored because the caller
+ * already evicted locally. After a (re)connect every region is cleared, since notifications sent
+ * while the listener was away are lost.
+ */
+@Component
+@Slf4j
+public class ClusterCacheInvalidator implements SmartLifecycle {
+
+    /** Key meaning "everything in the region" */
+    public static final String ALL = "*";
+
+    private static final String CHANNEL = "portal_cache_invalidation";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource listenerDataSource;
+    private final boolean enabled;
+    private final long pollIntervalMs;
+    private final long reconnectDelayMs;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, Consumer<String>> evictors = new ConcurrentHashMap<>();
+    private final Counter sentCounter;
+    private final Counter receivedCounter;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public ClusterCacheInvalidator(
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.cluster-invalidation.enabled:true}") boolean enabled,
+            @Value("${app.cache.cluster-invalidation.poll-interval-ms:500}") long pollIntervalMs,
+            @Value("${app.cache.cluster-invalidation.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Outside the Hikari pool: the listener holds its connection for the life of the node
+        this.listenerDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+        this.enabled = enabled;
+        this.pollIntervalMs = pollIntervalMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.sentCounter = Counter.builder("cache.invalidations.sent").register(meterRegistry);
+        this.receivedCounter = Counter.builder("cache.invalidations.received")
+                .description("Invalidations received from other nodes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register the local evictor for a region; it receives a key or ALL
+     */
+    public void register(String region, Consumer<String> evictor) {
+        evictors.put(region, evictor);
+    }
+
+    /**
+     * Tell the other nodes to evict key from region; delivered when the current transaction commits
+     */
+    public void broadcast(String region, String key) {
+        if (!enabled) {
+            return;
+        }
+        String payload = nodeId + "|" + region + "|" + key;
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+        sentCounter.increment();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!enabled) {
+            return;
+        }
+        listenerThread = new Thread(this::runListener, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            try {
+                listenerThread.join(pollIntervalMs * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runListener() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = listenerDataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for cache invalidations: channel={}, nodeId={}", CHANNEL, nodeId);
+                if (reconnecting) {
+                    evictEverything();
+                }
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollIntervalMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection, reconnecting in {} ms: {}",
+                            reconnectDelayMs, e.getMessage());
+                    reconnecting = true;
+                    sleepQuietly(reconnectDelayMs);
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        Consumer<String> evictor = evictors.get(parts[1]);
+        if (evictor != null) {
+            receivedCounter.increment();
+            log.debug("Evicting {} from {} on notice from node {}", parts[2], parts[1], parts[0]);
+            evictor.accept(parts[2]);
+        }
+    }
+
+    private void evictEverything() {
+        log.info("Clearing {} cache regions after reconnect", evictors.size());
+        evictors.values().forEach(evictor -> evictor.accept(ALL));
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // Interrupted by stop()
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.sonexus.portal.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.sonexus.portal.infrastructure.persistence.projection.FacetCountRow;
+import com.sonexus.portal.infrastructure.persistence.repository.ProviderDirectoryRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.ProviderDirectoryRepository.Criteria;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Directory facet counts. Without a name or other filter a facet counts every active provider,
+ * two GROUP BYs over the whole table, so those counts are cached and refreshed in the background
+ * after ttl-seconds; filtered counts go straight to the database. Providers change in bulk through
+ * imports, so counts may trail an import by up to ttl-seconds.
+ */
+@Component
+public class ProviderFacetCache {
+
+    private static final String REGION = "provider_facets";
+    private static final Criteria UNFILTERED = new Criteria(null, null, null);
+
+    private final ProviderDirectoryRepository providerDirectoryRepository;
+    private final LoadingCache<Key, List<FacetCountRow>> unfilteredCounts;
+
+    private enum Facet { SPECIALTY, STATE }
+
+    private record Key(Facet facet, int maxValues) {
+    }
+
+    public ProviderFacetCache(
+            ProviderDirectoryRepository providerDirectoryRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.providers.facets.cache-ttl-seconds:300}") long ttlSeconds) {
+        this.providerDirectoryRepository = providerDirectoryRepository;
+        this.unfilteredCounts = Caffeine.newBuilder()
+                .refreshAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(key -> key.facet() == Facet.SPECIALTY
+                        ? providerDirectoryRepository.countBySpecialty(UNFILTERED, key.maxValues())
+                        : providerDirectoryRepository.countByState(UNFILTERED, key.maxValues()));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, unfilteredCounts, REGION);
+    }
+
+    /**
+     * Same as ProviderDirectoryRepository.countBySpecialty, which ignores the specialty filter
+     */
+    public List<FacetCountRow> countBySpecialty(Criteria criteria, int maxValues) {
+        if (criteria.name() == null && criteria.state() == null) {
+            return unfilteredCounts.get(new Key(Facet.SPECIALTY, maxValues));
+        }
+        return providerDirectoryRepository.countBySpecialty(criteria, maxValues);
+    }
+
+    /**
+     * Same as ProviderDirectoryRepository.countByState, which ignores the state filter
+     */
+    public List<FacetCountRow> countByState(Criteria criteria, int maxValues) {
+        if (criteria.name() == null && criteria.specialty() == null) {
+            return unfilteredCounts.get(new Key(Facet.STATE, maxValues));
+        }
+        return providerDirectoryRepository.countByState(criteria, maxValues);
+    }
+}
@@ -0,0 +1,129 @@
+package com.sonexus.portal.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.sonexus.portal.infrastructure.persistence.entity.RoleEntity;
+import com.sonexus.portal.infrastructure.persistence.projection.ProgramRef;
+import com.sonexus.portal.infrastructure.persistence.projection.SupportServiceRef;
+import com.sonexus.portal.infrastructure.persistence.repository.ProgramRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.RoleRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.SupportServiceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of programs, their active support services and role ids, which change only
+ * through admin actions. Writers call the evict methods inside their transaction: the local entry
+ * is dropped after commit and ClusterCacheInvalidator tells the other nodes. Programs and roles
+ * have no write path in the application; after changing them in SQL, notify every node with
+ * {@code SELECT pg_notify('portal_cache_invalidation', 'ops|programs|*')} (or {@code roles}),
+ * otherwise ttl-seconds applies.
+ */
+@Component
+@Slf4j
+public class ReferenceDataCache {
+
+    private static final String PROGRAMS = "programs";
+    private static final String PROGRAM_SERVICES = "program_services";
+    private static final String ROLES = "roles";
+    private static final String SINGLE_KEY = "all";
+
+    private final ClusterCacheInvalidator invalidator;
+
+    private final LoadingCache<String, Map<Long, ProgramRef>> programs;
+    private final LoadingCache<Long, List<SupportServiceRef>> programServices;
+    private final LoadingCache<String, Map<String, Long>> roleIds;
+
+    public ReferenceDataCache(
+            ProgramRepository programRepository,
+            SupportServiceRepository supportServiceRepository,
+            RoleRepository roleRepository,
+            ClusterCacheInvalidator invalidator,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.reference-data.ttl-seconds:3600}") long ttlSeconds,
+            @Value("${app.cache.reference-data.max-programs:1000}") long maxPrograms) {
+        this.invalidator = invalidator;
+
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.programs = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(key -> programRepository.findAllRefs().stream()
+                        .collect(Collectors.toMap(ProgramRef::id, Function.identity(),
+                                (a, b) -> a, LinkedHashMap::new)));
+        this.programServices = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxPrograms)
+                .recordStats()
+                .build(supportServiceRepository::findActiveRefsByProgramId);
+        this.roleIds = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(key -> roleRepository.findAll().stream()
+                        .collect(Collectors.toMap(RoleEntity::getName, RoleEntity::getId)));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, programs, PROGRAMS);
+        CaffeineCacheMetrics.monitor(meterRegistry, programServices, PROGRAM_SERVICES);
+        CaffeineCacheMetrics.monitor(meterRegistry, roleIds, ROLES);
+
+        invalidator.register(PROGRAMS, key -> programs.invalidateAll());
+        invalidator.register(PROGRAM_SERVICES, key -> {
+            if (ClusterCacheInvalidator.ALL.equals(key)) {
+                programServices.invalidateAll();
+            } else {
+                programServices.invalidate(Long.valueOf(key));
+            }
+        });
+        invalidator.register(ROLES, key -> roleIds.invalidateAll());
+    }
+
+    public List<ProgramRef> getActivePrograms() {
+        return programs.get(SINGLE_KEY).values().stream()
+                .filter(program -> Boolean.TRUE.equals(program.active()))
+                .toList();
+    }
+
+    public Optional<ProgramRef> getProgram(Long programId) {
+        return Optional.ofNullable(programs.get(SINGLE_KEY).get(programId));
+    }
+
+    public List<SupportServiceRef> getActiveServices(Long programId) {
+        return programServices.get(programId);
+    }
+
+    public Optional<Long> getRoleId(String roleName) {
+        return Optional.ofNullable(roleIds.get(SINGLE_KEY).get(roleName));
+    }
+
+    public void evictProgramServices(Long programId) {
+        evict(PROGRAM_SERVICES, programId.toString(), () -> programServices.invalidate(programId));
+    }
+
+    private void evict(String region, String key, Runnable localEviction) {
+        invalidator.broadcast(region, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    localEviction.run();
+                }
+            });
+        } else {
+            localEviction.run();
+        }
+        log.debug("Evicted {} from {}", key, region);
+    }
+}
@@ -0,0 +1,49 @@
+package com.sonexus.portal.infrastructure.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Mail drop for tests and staging: appends each email as one JSON line to a file
+ */
+@Component
+@ConditionalOnProperty(name = "app.notifications.transport", havingValue = "file")
+@Slf4j
+public class FileNotificationTransport implements NotificationTransport {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileNotificationTransport(
+            ObjectMapper objectMapper,
+            @Value("${app.notifications.file.path:./data/outbound-mail.jsonl}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public synchronized void send(List<OutboundEmail> batch) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboundEmail email : batch) {
+                writer.write(objectMapper.writeValueAsString(email));
+                writer.newLine();
+            }
+        }
+        log.debug("Wrote {} emails to {}", batch.size(), path);
+    }
+}
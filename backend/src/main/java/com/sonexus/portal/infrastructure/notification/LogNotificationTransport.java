@@ -0,0 +1,23 @@
+package com.sonexus.portal.infrastructure.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * SMTP stub for local development: logs that an email would have gone out, without its content
+ */
+@Component
+@ConditionalOnProperty(name = "app.notifications.transport", havingValue = "log", matchIfMissing = true)
+@Slf4j
+public class LogNotificationTransport implements NotificationTransport {
+
+    @Override
+    public void send(List<OutboundEmail> batch) {
+        for (OutboundEmail email : batch) {
+            log.info("Email (not sent): id={}, type={}, to={}", email.id(), email.type(), email.to());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.sonexus.portal.infrastructure.notification;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Delivers rendered emails. Selected with app.notifications.transport.
+ */
+public interface NotificationTransport {
+
+    /**
+     * Send a batch; throwing means none of the batch is considered delivered and all of it is retried
+     */
+    void send(List<OutboundEmail> batch) throws IOException;
+}
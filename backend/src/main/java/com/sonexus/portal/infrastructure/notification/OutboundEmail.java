@@ -0,0 +1,14 @@
+package com.sonexus.portal.infrastructure.notification;
+
+import java.util.UUID;
+
+/**
+ * One rendered email ready for a transport. Subject and body may name patients, so logs identify
+ * an email by id, type and recipient only.
+ */
+public record OutboundEmail(String id, String type, String to, String subject, String body, boolean html) {
+
+    public static OutboundEmail of(String type, String to, String subject, String body, boolean html) {
+        return new OutboundEmail(UUID.randomUUID().toString(), type, to, subject, body, html);
+    }
+}
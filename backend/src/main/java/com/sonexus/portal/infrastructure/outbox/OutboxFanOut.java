@@ -0,0 +1,229 @@
+package com.sonexus.portal.infrastructure.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sonexus.portal.domain.events.DomainEvent;
+import com.sonexus.portal.domain.ports.EventBusPort.EventHandler;
+import com.sonexus.portal.infrastructure.persistence.projection.OutboxEventRow;
+import com.sonexus.portal.infrastructure.persistence.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers outbox events to handlers on every portal node, for handlers that act on node-local
+ * state such as open SSE streams. The relay that claims a row announces its id with a Postgres
+ * NOTIFY; every node, the claiming one included, reads the row and runs its handlers on the
+ * listener thread, so those handlers must be quick and must not block. Delivery is best effort:
+ * announcements sent while a node's listener is reconnecting are lost to that node. A row that is
+ * announced again, after it was released or its lease expired, is skipped by nodes that still
+ * remember delivering it (the last dedupe-size ids).
+ * With fan-out disabled (single node), the claiming relay runs the handlers directly.
+ */
+@Component
+@Slf4j
+public class OutboxFanOut implements SmartLifecycle {
+
+    private static final String CHANNEL = "portal_event_fan_out";
+    /** Keeps a NOTIFY payload well under the 8000-byte limit */
+    private static final int MAX_IDS_PER_NOTIFY = 300;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource listenerDataSource;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long pollIntervalMs;
+    private final long reconnectDelayMs;
+
+    private final Map<String, List<EventHandler>> handlers = new ConcurrentHashMap<>();
+    /** Outbox ids already handed to this node's handlers */
+    private final Cache<Long, Boolean> deliveredIds;
+    private final Counter deliveredCounter;
+    private final Counter duplicateCounter;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public OutboxFanOut(
+            OutboxEventRepository outboxEventRepository,
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.events.outbox.fan-out.enabled:true}") boolean enabled,
+            @Value("${app.events.outbox.fan-out.poll-interval-ms:500}") long pollIntervalMs,
+            @Value("${app.events.outbox.fan-out.reconnect-delay-ms:5000}") long reconnectDelayMs,
+            @Value("${app.events.outbox.fan-out.dedupe-size:100000}") long dedupeSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // Outside the Hikari pool: the listener holds its connection for the life of the node
+        this.listenerDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.pollIntervalMs = pollIntervalMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.deliveredIds = Caffeine.newBuilder().maximumSize(dedupeSize).build();
+        this.deliveredCounter = Counter.builder("outbox.fan_out.delivered")
+                .description("Events handed to this node's fan-out handlers")
+                .register(meterRegistry);
+        this.duplicateCounter = Counter.builder("outbox.fan_out.duplicates")
+                .description("Announced events skipped because this node had already delivered them")
+                .register(meterRegistry);
+    }
+
+    public void subscribe(String eventType, EventHandler handler) {
+        handlers.computeIfAbsent(eventType, type -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /**
+     * Announce the claimed rows that have fan-out handlers to every node
+     */
+    void announce(List<OutboxEventRow> rows) {
+        List<OutboxEventRow> fanOutRows = rows.stream()
+                .filter(row -> handlers.containsKey(row.eventType()))
+                .toList();
+        if (fanOutRows.isEmpty()) {
+            return;
+        }
+        if (!enabled) {
+            fanOutRows.forEach(this::deliver);
+            return;
+        }
+        for (int from = 0; from < fanOutRows.size(); from += MAX_IDS_PER_NOTIFY) {
+            String ids = fanOutRows.subList(from, Math.min(from + MAX_IDS_PER_NOTIFY, fanOutRows.size())).stream()
+                    .map(row -> row.id().toString())
+                    .collect(Collectors.joining(","));
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, ids);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!enabled) {
+            return;
+        }
+        listenerThread = new Thread(this::runListener, "outbox-fan-out-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            try {
+                listenerThread.join(pollIntervalMs * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runListener() {
+        while (running) {
+            try (Connection connection = listenerDataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for fan-out events: channel={}", CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollIntervalMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Fan-out listener lost its connection, reconnecting in {} ms: {}",
+                            reconnectDelayMs, e.getMessage());
+                    sleepQuietly(reconnectDelayMs);
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            Arrays.stream(payload.split(",")).map(Long::valueOf).forEach(ids::add);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed fan-out notification: {}", payload);
+            return;
+        }
+        try {
+            outboxEventRepository.findByIds(ids).forEach(this::deliver);
+        } catch (Exception e) {
+            log.warn("Failed to load fan-out events {}: {}", payload, e.getMessage());
+        }
+    }
+
+    private void deliver(OutboxEventRow row) {
+        List<EventHandler> eventHandlers = handlers.get(row.eventType());
+        if (eventHandlers == null) {
+            return;
+        }
+        if (deliveredIds.asMap().putIfAbsent(row.id(), Boolean.TRUE) != null) {
+            duplicateCounter.increment();
+            return;
+        }
+        DomainEvent event;
+        try {
+            event = objectMapper.readValue(row.payload(), DomainEvent.class);
+        } catch (Exception e) {
+            log.warn("Skipping unreadable fan-out event: id={}, type={}", row.id(), row.eventType());
+            return;
+        }
+        for (EventHandler handler : eventHandlers) {
+            try {
+                handler.handle(event);
+                deliveredCounter.increment();
+            } catch (Exception e) {
+                // Node-local effects only; the next event brings the node up to date
+                log.warn("Fan-out handler failed: type={}, id={}", row.eventType(), event.getEventId(), e);
+            }
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // Interrupted by stop()
+        }
+    }
+}
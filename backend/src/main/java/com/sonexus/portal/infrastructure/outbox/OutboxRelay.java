@@ -0,0 +1,288 @@
+package com.sonexus.portal.infrastructure.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sonexus.portal.domain.events.DomainEvent;
+import com.sonexus.portal.infrastructure.adapters.InMemoryEventBusAdapter;
+import com.sonexus.portal.infrastructure.adapters.InMemoryEventBusAdapter.Delivery;
+import com.sonexus.portal.infrastructure.persistence.projection.OutboxEventRow;
+import com.sonexus.portal.infrastructure.persistence.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves committed outbox_events rows onto the in-memory event bus. A single thread leases
+ * batches with FOR UPDATE SKIP LOCKED, so every portal node can relay in parallel without
+ * handing out a row twice. Rows of one aggregate stay with one node until they are published, so
+ * nodes never handle an aggregate's events out of order. It runs on every poll interval and
+ * immediately after a publishing transaction commits on this node.
+ * A row is marked published only after the bus has run its handlers (a handler that keeps failing
+ * dead-letters the event). Rows the bus could not queue, or still held when it stopped, are
+ * released; rows of a node that died are claimed again once lease-seconds have passed. Delivery is
+ * at-least-once. Rows with fan-out handlers are also announced to every node (see OutboxFanOut).
+ */
+@Component
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final InMemoryEventBusAdapter inMemoryEventBus;
+    private final OutboxFanOut fanOut;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final long pollIntervalMs;
+    private final Duration retention;
+    private final int cleanupBatchSize;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    /** Rows whose events the bus has handled, marked published in batches by the relay thread */
+    private final Queue<Long> handled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter relayedCounter;
+    private final Counter unreadableCounter;
+    private final Counter releasedCounter;
+    private final Timer lagTimer;
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+    private Thread relayThread;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            InMemoryEventBusAdapter inMemoryEventBus,
+            OutboxFanOut fanOut,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.events.outbox.batch-size:200}") int batchSize,
+            @Value("${app.events.outbox.lease-seconds:300}") long leaseSeconds,
+            @Value("${app.events.outbox.poll-interval-ms:1000}") long pollIntervalMs,
+            @Value("${app.events.outbox.retention-hours:72}") long retentionHours,
+            @Value("${app.events.outbox.cleanup-batch-size:5000}") int cleanupBatchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.inMemoryEventBus = inMemoryEventBus;
+        this.fanOut = fanOut;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.pollIntervalMs = pollIntervalMs;
+        this.retention = Duration.ofHours(retentionHours);
+        this.cleanupBatchSize = cleanupBatchSize;
+
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Outbox rows not yet handled, as of the last backlog check")
+                .register(meterRegistry);
+        this.relayedCounter = Counter.builder("outbox.events.relayed").register(meterRegistry);
+        this.unreadableCounter = Counter.builder("outbox.events.unreadable")
+                .description("Outbox rows whose payload could not be deserialized")
+                .register(meterRegistry);
+        this.releasedCounter = Counter.builder("outbox.events.released")
+                .description("Claimed rows handed back because the event bus could not take them")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("outbox.relay.lag")
+                .description("Time from outbox insert to hand-off to the event bus")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to claim and hand off one batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ask the relay to poll now; cheap and safe to call from any thread
+     */
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        relayThread = new Thread(this::runRelay, "outbox-relay");
+        relayThread.setDaemon(true);
+        relayThread.start();
+        log.info("Outbox relay started: nodeId={}, batchSize={}, pollIntervalMs={}, leaseSeconds={}",
+                nodeId, batchSize, pollIntervalMs, leaseSeconds);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        relayThread.interrupt();
+        try {
+            relayThread.join(pollIntervalMs * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The bus stops after the relay; events it finishes from here on are marked directly
+        flushHandled();
+        log.info("Outbox relay stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.outbox.backlog-check-interval-ms:30000}")
+    public void checkBacklog() {
+        pending.set(outboxEventRepository.countPending());
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.outbox.cleanup-interval-ms:600000}")
+    public void cleanup() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int deleted;
+        int total = 0;
+        do {
+            deleted = outboxEventRepository.deletePublishedBefore(cutoff, cleanupBatchSize);
+            total += deleted;
+        } while (deleted == cleanupBatchSize);
+
+        if (total > 0) {
+            log.info("Outbox cleanup removed {} relayed events older than {}", total, cutoff);
+        }
+    }
+
+    private void runRelay() {
+        while (running) {
+            try {
+                wakeUps.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+
+                int relayed;
+                do {
+                    flushHandled();
+                    relayed = relayBatch();
+                } while (running && relayed == batchSize);
+            } catch (InterruptedException e) {
+                // Interrupted by stop()
+            } catch (Exception e) {
+                log.error("Outbox relay failed, retrying after the poll interval", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private int relayBatch() {
+        long start = System.nanoTime();
+        List<OutboxEventRow> rows = outboxEventRepository.claimBatch(batchSize, nodeId, leaseSeconds);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        fanOut.announce(rows);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < rows.size(); i++) {
+            OutboxEventRow row = rows.get(i);
+            Duration lag = Duration.between(row.createdAt(), now);
+            lagTimer.record(lag.isNegative() ? Duration.ZERO : lag);
+
+            DomainEvent event;
+            try {
+                event = objectMapper.readValue(row.payload(), DomainEvent.class);
+            } catch (Exception e) {
+                unreadableCounter.increment();
+                log.error("Skipping unreadable outbox event: id={}, type={}, payload={}",
+                        row.id(), row.eventType(), row.payload(), e);
+                handled.add(row.id());
+                continue;
+            }
+            boolean queued;
+            boolean interrupted = false;
+            try {
+                queued = inMemoryEventBus.offer(event, delivery(row.id()));
+            } catch (InterruptedException e) {
+                // Stopping; the flag is restored once the rows are released
+                interrupted = true;
+                queued = false;
+            }
+            if (!queued) {
+                // Hand back this row and the rest so later events of an aggregate never overtake it
+                List<Long> rest = rows.subList(i, rows.size()).stream().map(OutboxEventRow::id).toList();
+                outboxEventRepository.release(rest, nodeId);
+                releasedCounter.increment(rest.size());
+                log.warn("Event bus did not take the event, released {} outbox rows until the next poll", rest.size());
+                relayedCounter.increment(i);
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                return 0;
+            }
+        }
+
+        relayedCounter.increment(rows.size());
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return rows.size();
+    }
+
+    private Delivery delivery(Long rowId) {
+        return new Delivery() {
+            @Override
+            public void handled() {
+                handled.add(rowId);
+                if (!running) {
+                    flushHandled();
+                }
+            }
+
+            @Override
+            public void abandoned() {
+                outboxEventRepository.release(List.of(rowId), nodeId);
+            }
+        };
+    }
+
+    /**
+     * Mark the rows handled so far published. A failure leaves them claimed, and they are relayed
+     * again once the lease expires.
+     */
+    private synchronized void flushHandled() {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = handled.poll()) != null) {
+            ids.add(id);
+            if (ids.size() == batchSize) {
+                markPublished(ids);
+                ids.clear();
+            }
+        }
+        markPublished(ids);
+    }
+
+    private void markPublished(List<Long> ids) {
+        try {
+            outboxEventRepository.markPublished(ids);
+        } catch (Exception e) {
+            log.error("Failed to mark {} outbox rows published; they will be relayed again after the lease",
+                    ids.size(), e);
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
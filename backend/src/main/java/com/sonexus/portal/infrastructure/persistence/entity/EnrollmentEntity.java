@@ -10,6 +10,10 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 
 @Entity
 @Table(name = "enrollments")
@@ -28,7 +32,8 @@ public class EnrollmentEntity {
     @JoinColumn(name = "patient_id", nullable = false)
     private PatientEntity patient;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Program details come from ReferenceDataCache; only the id is read from the entity
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "program_id", nullable = false)
     private ProgramEntity program;
 
@@ -72,6 +77,26 @@ public class EnrollmentEntity {
         UNDER_REVIEW,
         APPROVED,
         DENIED,
-        WITHDRAWN
+        WITHDRAWN;
+
+        /** For each status, the statuses an enrollment may move to it from */
+        private static final Map<EnrollmentStatus, Set<EnrollmentStatus>> ALLOWED_SOURCES = new EnumMap<>(Map.of(
+                DRAFT, EnumSet.noneOf(EnrollmentStatus.class),
+                SUBMITTED, EnumSet.of(DRAFT),
+                UNDER_REVIEW, EnumSet.of(SUBMITTED),
+                APPROVED, EnumSet.of(SUBMITTED, UNDER_REVIEW),
+                DENIED, EnumSet.of(SUBMITTED, UNDER_REVIEW),
+                WITHDRAWN, EnumSet.of(DRAFT, SUBMITTED, UNDER_REVIEW)));
+
+        /**
+         * Statuses an enrollment may move to this one from; the single and bulk status changes both enforce it
+         */
+        public Set<EnrollmentStatus> allowedSources() {
+            return EnumSet.copyOf(ALLOWED_SOURCES.get(this));
+        }
+
+        public boolean canChangeTo(EnrollmentStatus target) {
+            return ALLOWED_SOURCES.get(target).contains(this);
+        }
     }
 }
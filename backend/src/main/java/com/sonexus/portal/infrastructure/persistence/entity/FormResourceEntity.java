@@ -78,6 +78,10 @@ public class FormResourceEntity {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Statistics - only changed through FormResourceRepository.incrementDownloadCount
+    @Column(name = "download_count", nullable = false, updatable = false)
+    private Long downloadCount;
+
     @PrePersist
     protected void onCreate() {
         uploadedAt = LocalDateTime.now();
@@ -88,6 +92,9 @@ public class FormResourceEntity {
         if (complianceApproved == null) {
             complianceApproved = false;
         }
+        if (downloadCount == null) {
+            downloadCount = 0L;
+        }
     }
 
     @PreUpdate
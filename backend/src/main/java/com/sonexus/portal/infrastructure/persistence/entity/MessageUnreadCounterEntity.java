@@ -0,0 +1,48 @@
+package com.sonexus.portal.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only mapping of message_unread_counters so inbox queries can join it.
+ * Counters are written set-based by MessageUnreadCounterRepository.
+ */
+@Entity
+@Table(name = "message_unread_counters")
+@IdClass(MessageUnreadCounterEntity.Key.class)
+@Immutable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageUnreadCounterEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "thread_id")
+    private Long threadId;
+
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long threadId;
+    }
+}
@@ -1,5 +1,6 @@
 package com.sonexus.portal.infrastructure.persistence.entity;
 
+import com.sonexus.portal.infrastructure.security.PrincipalCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,6 +13,7 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(PrincipalCacheEvictionListener.class)
 public class RoleEntity {
 
     @Id
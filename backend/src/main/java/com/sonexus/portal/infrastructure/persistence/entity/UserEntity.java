@@ -1,5 +1,6 @@
 package com.sonexus.portal.infrastructure.persistence.entity;
 
+import com.sonexus.portal.infrastructure.security.PrincipalCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,7 +19,7 @@ import java.util.Set;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, PrincipalCacheEvictionListener.class})
 public class UserEntity {
 
     @Id
@@ -0,0 +1,11 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored benefits investigation batch job; results is the JSON array of item results, set when
+ * the job finishes
+ */
+public record BatchJobRow(String id, Long userId, String status, int total, int succeeded, int failed,
+                          String results, LocalDateTime createdAt, LocalDateTime finishedAt) {
+}
@@ -0,0 +1,11 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A dead-lettered event; payload is the event serialized as JSON
+ */
+public record DeadLetterEventRow(Long id, String eventId, String eventType, String aggregateId, String payload,
+                                 String handler, String reason, int attempts, LocalDateTime createdAt,
+                                 LocalDateTime replayedAt) {
+}
@@ -0,0 +1,11 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+/**
+ * Who to notify about an enrollment and the patient name to show them
+ */
+public interface EnrollmentNotificationView {
+    Long getCreatedById();
+    String getCreatedByEmail();
+    String getPatientFirstName();
+    String getPatientLastName();
+}
@@ -0,0 +1,7 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+/**
+ * An enrollment whose status was changed by a set-based update, with the status it had before
+ */
+public record EnrollmentTransitionRow(Long enrollmentId, Long patientId, Long programId, String fromStatus) {
+}
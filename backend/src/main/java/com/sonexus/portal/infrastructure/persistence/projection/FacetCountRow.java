@@ -0,0 +1,7 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+/**
+ * Number of matching rows for one facet value
+ */
+public record FacetCountRow(String value, long count) {
+}
@@ -0,0 +1,26 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Form listing row with program name and uploader email resolved by join in the same query
+ */
+public interface FormResourceSummaryView {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    Long getProgramId();
+    String getProgramName();
+    String getCategory();
+    String getFileName();
+    Long getFileSize();
+    String getMimeType();
+    Integer getVersion();
+    Long getParentId();
+    Boolean getComplianceApproved();
+    Long getUploadedById();
+    String getUploadedByEmail();
+    LocalDateTime getUploadedAt();
+    LocalDateTime getUpdatedAt();
+    Long getDownloadCount();
+}
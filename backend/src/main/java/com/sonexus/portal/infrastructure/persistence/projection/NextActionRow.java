@@ -0,0 +1,15 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized next action as read for a dashboard
+ */
+public record NextActionRow(
+        Long id,
+        String actionType,
+        Long resourceId,
+        Long patientId,
+        String patientName,
+        LocalDateTime referenceAt) {
+}
@@ -0,0 +1,9 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A claimed outbox row; payload is the event serialized as JSON
+ */
+public record OutboxEventRow(Long id, String eventType, String payload, LocalDateTime createdAt) {
+}
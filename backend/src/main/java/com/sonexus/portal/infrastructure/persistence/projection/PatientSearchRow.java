@@ -0,0 +1,31 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ranked patient search hit. Tier orders match quality (lower is better) and, with the
+ * lower-cased name keys and id, forms the keyset pagination key.
+ */
+public record PatientSearchRow(
+        int tier,
+        String lastNameKey,
+        String firstNameKey,
+        Long id,
+        String referenceId,
+        String firstName,
+        String lastName,
+        LocalDate dateOfBirth,
+        String gender,
+        String phone,
+        String email,
+        String addressLine1,
+        String addressLine2,
+        String city,
+        String state,
+        String zipCode,
+        Long createdById,
+        String createdByEmail,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
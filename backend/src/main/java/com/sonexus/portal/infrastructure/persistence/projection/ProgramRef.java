@@ -0,0 +1,7 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+/**
+ * Immutable program row held in the reference-data cache
+ */
+public record ProgramRef(Long id, String name, String description, Boolean active) {
+}
@@ -0,0 +1,23 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+/**
+ * Provider directory hit. Tier (0 name prefix, 1 name substring) with the lower-cased
+ * name key and id forms the keyset pagination key.
+ */
+public record ProviderDirectoryRow(
+        int tier,
+        String nameKey,
+        Long id,
+        String npi,
+        String name,
+        String specialty,
+        String addressLine1,
+        String addressLine2,
+        String city,
+        String state,
+        String zipCode,
+        String phone,
+        String fax,
+        String email,
+        boolean active) {
+}
@@ -0,0 +1,19 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+/**
+ * One provider record from a bulk import file, in the providers table column order
+ */
+public record ProviderImportRow(
+        String npi,
+        String name,
+        String specialty,
+        String addressLine1,
+        String addressLine2,
+        String city,
+        String state,
+        String zipCode,
+        String phone,
+        String fax,
+        String email,
+        boolean active) {
+}
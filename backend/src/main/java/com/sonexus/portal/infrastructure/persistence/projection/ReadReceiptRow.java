@@ -0,0 +1,9 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Newest message a user has read in a thread
+ */
+public record ReadReceiptRow(Long userId, Long lastReadMessageId, LocalDateTime readAt) {
+}
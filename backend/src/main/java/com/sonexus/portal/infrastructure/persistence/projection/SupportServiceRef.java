@@ -0,0 +1,8 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+/**
+ * Immutable support-service row held in the reference-data cache
+ */
+public record SupportServiceRef(Long id, Long programId, String name, String description, String serviceType,
+                                Boolean active) {
+}
@@ -0,0 +1,22 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox row for one thread: thread header, resolved names and the viewer's unread count, without messages
+ */
+public interface ThreadSummaryView {
+    Long getId();
+    String getSubject();
+    Long getProgramId();
+    String getProgramName();
+    Long getPatientId();
+    String getPatientFirstName();
+    String getPatientLastName();
+    Long getCreatedById();
+    String getCreatedByFirstName();
+    String getCreatedByLastName();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getLastMessageAt();
+    Integer getUnreadCount(); // null when nothing is unread
+}
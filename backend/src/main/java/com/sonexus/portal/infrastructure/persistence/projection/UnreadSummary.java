@@ -0,0 +1,9 @@
+package com.sonexus.portal.infrastructure.persistence.projection;
+
+/**
+ * A user's unread totals across all threads
+ */
+public record UnreadSummary(long unreadMessages, long threadsWithUnread) {
+
+    public static final UnreadSummary NONE = new UnreadSummary(0, 0);
+}
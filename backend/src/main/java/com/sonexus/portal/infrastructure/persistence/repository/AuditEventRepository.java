@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface AuditEventRepository extends JpaRepository<AuditEventEntity, Long> {
@@ -30,4 +31,27 @@ public interface AuditEventRepository extends JpaRepository<AuditEventEntity, Lo
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate,
             Pageable pageable);
+
+    /**
+     * Keyset page of audit events, newest first, after the given (createdAt, id) position
+     */
+    @Query("SELECT a FROM AuditEventEntity a LEFT JOIN FETCH a.user WHERE " +
+           "(:eventType IS NULL OR a.eventType = :eventType) AND " +
+           "(:userId IS NULL OR a.user.id = :userId) AND " +
+           "(:action IS NULL OR a.action = :action) AND " +
+           "(:correlationId IS NULL OR a.correlationId = :correlationId) AND " +
+           "(:startDate IS NULL OR a.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR a.createdAt <= :endDate) AND " +
+           "a.createdAt <= :afterCreatedAt AND (a.createdAt < :afterCreatedAt OR a.id < :afterId) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AuditEventEntity> findAuditEventsAfter(
+            @Param("eventType") String eventType,
+            @Param("userId") Long userId,
+            @Param("action") String action,
+            @Param("correlationId") String correlationId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
 }
@@ -0,0 +1,97 @@
+package com.sonexus.portal.infrastructure.persistence.repository;
+
+import com.sonexus.portal.infrastructure.persistence.projection.BatchJobRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * JDBC access to benefits_investigation_batch_jobs. The node running a job is the only writer
+ * until it finishes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BenefitsInvestigationBatchJobRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insert(String id, Long userId, int total, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO benefits_investigation_batch_jobs " +
+                        "(id, user_id, status, total, created_at, updated_at) " +
+                        "VALUES (:id, :userId, 'RUNNING', :total, :createdAt, :createdAt)",
+                new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("userId", userId)
+                        .addValue("total", total)
+                        .addValue("createdAt", Timestamp.valueOf(createdAt)));
+    }
+
+    public void updateProgress(String id, int succeeded, int failed) {
+        jdbcTemplate.update("UPDATE benefits_investigation_batch_jobs " +
+                        "SET succeeded = :succeeded, failed = :failed, updated_at = CURRENT_TIMESTAMP " +
+                        "WHERE id = :id AND status = 'RUNNING'",
+                new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("succeeded", succeeded)
+                        .addValue("failed", failed));
+    }
+
+    /**
+     * @param results item results as a JSON array
+     */
+    public void finish(String id, int succeeded, int failed, String results, LocalDateTime finishedAt) {
+        jdbcTemplate.update("UPDATE benefits_investigation_batch_jobs " +
+                        "SET status = 'COMPLETED', succeeded = :succeeded, failed = :failed, " +
+                        "results = CAST(:results AS jsonb), finished_at = :finishedAt, updated_at = :finishedAt " +
+                        "WHERE id = :id",
+                new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("succeeded", succeeded)
+                        .addValue("failed", failed)
+                        .addValue("results", results)
+                        .addValue("finishedAt", Timestamp.valueOf(finishedAt)));
+    }
+
+    public Optional<BatchJobRow> findById(String id) {
+        return jdbcTemplate.query("SELECT id, user_id, status, total, succeeded, failed, results::text AS results, " +
+                                "created_at, finished_at FROM benefits_investigation_batch_jobs WHERE id = :id",
+                        new MapSqlParameterSource("id", id),
+                        (rs, rowNum) -> new BatchJobRow(
+                                rs.getString("id"),
+                                rs.getLong("user_id"),
+                                rs.getString("status"),
+                                rs.getInt("total"),
+                                rs.getInt("succeeded"),
+                                rs.getInt("failed"),
+                                rs.getString("results"),
+                                rs.getObject("created_at", LocalDateTime.class),
+                                rs.getObject("finished_at", LocalDateTime.class)))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Mark RUNNING jobs not updated since staleBefore as INTERRUPTED; their node stopped
+     * @return jobs marked
+     */
+    public int markInterrupted(LocalDateTime staleBefore) {
+        return jdbcTemplate.update("UPDATE benefits_investigation_batch_jobs " +
+                        "SET status = 'INTERRUPTED', finished_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP " +
+                        "WHERE status = 'RUNNING' AND updated_at < :staleBefore",
+                new MapSqlParameterSource("staleBefore", Timestamp.valueOf(staleBefore)));
+    }
+
+    /**
+     * @return jobs deleted
+     */
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM benefits_investigation_batch_jobs " +
+                        "WHERE status <> 'RUNNING' AND updated_at < :cutoff",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)));
+    }
+}
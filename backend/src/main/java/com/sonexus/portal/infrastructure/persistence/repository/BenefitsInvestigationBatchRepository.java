@@ -0,0 +1,98 @@
+package com.sonexus.portal.infrastructure.persistence.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sonexus.portal.infrastructure.persistence.entity.BenefitsInvestigationEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch insert of benefits investigations, for batch jobs that produce many rows at once
+ */
+@Repository
+@RequiredArgsConstructor
+public class BenefitsInvestigationBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO benefits_investigations " +
+            "(patient_id, program_id, investigation_type, payer_name, payer_plan_id, member_id, patient_state, " +
+            "medication_name, coverage_status, coverage_type, prior_auth_required, deductible_applies, " +
+            "specialty_pharmacy_required, notes, result_payload, expires_at, created_by, created_at) " +
+            "VALUES (:patientId, :programId, :investigationType, :payerName, :payerPlanId, :memberId, :patientState, " +
+            ":medicationName, :coverageStatus, :coverageType, :priorAuthRequired, :deductibleApplies, " +
+            ":specialtyPharmacyRequired, :notes, CAST(:resultPayload AS jsonb), :expiresAt, :createdBy, :createdAt)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Insert all rows in one JDBC batch. Fills in id, createdAt and the default expiresAt on each
+     * entity, as persisting it through JPA would.
+     */
+    public void insertAll(List<BenefitsInvestigationEntity> investigations) {
+        if (investigations.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = new SqlParameterSource[investigations.size()];
+        for (int i = 0; i < investigations.size(); i++) {
+            BenefitsInvestigationEntity investigation = investigations.get(i);
+            investigation.setCreatedAt(now);
+            if (investigation.getExpiresAt() == null) {
+                investigation.setExpiresAt(now.plusDays(30));
+            }
+            batch[i] = toParameters(investigation);
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, keyHolder, new String[]{"id"});
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < investigations.size(); i++) {
+            investigations.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+
+    private SqlParameterSource toParameters(BenefitsInvestigationEntity investigation) {
+        return new MapSqlParameterSource()
+                .addValue("patientId", investigation.getPatientId())
+                .addValue("programId", investigation.getProgramId())
+                .addValue("investigationType", investigation.getInvestigationType().name())
+                .addValue("payerName", investigation.getPayerName())
+                .addValue("payerPlanId", investigation.getPayerPlanId())
+                .addValue("memberId", investigation.getMemberId())
+                .addValue("patientState", investigation.getPatientState())
+                .addValue("medicationName", investigation.getMedicationName())
+                .addValue("coverageStatus", investigation.getCoverageStatus())
+                .addValue("coverageType", investigation.getCoverageType())
+                .addValue("priorAuthRequired", investigation.getPriorAuthRequired())
+                .addValue("deductibleApplies", investigation.getDeductibleApplies())
+                .addValue("specialtyPharmacyRequired", investigation.getSpecialtyPharmacyRequired())
+                .addValue("notes", investigation.getNotes())
+                .addValue("resultPayload", toJson(investigation))
+                .addValue("expiresAt", Timestamp.valueOf(investigation.getExpiresAt()))
+                .addValue("createdBy", investigation.getCreatedById())
+                .addValue("createdAt", Timestamp.valueOf(investigation.getCreatedAt()));
+    }
+
+    private String toJson(BenefitsInvestigationEntity investigation) {
+        if (investigation.getResultPayload() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(investigation.getResultPayload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Result payload is not serializable", e);
+        }
+    }
+}
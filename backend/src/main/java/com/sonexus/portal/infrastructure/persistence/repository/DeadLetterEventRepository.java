@@ -0,0 +1,92 @@
+package com.sonexus.portal.infrastructure.persistence.repository;
+
+import com.sonexus.portal.infrastructure.persistence.projection.DeadLetterEventRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to dead_letter_events
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeadLetterEventRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO dead_letter_events " +
+            "(event_id, event_type, aggregate_id, payload, handler, reason, attempts) " +
+            "VALUES (:eventId, :eventType, :aggregateId, CAST(:payload AS jsonb), :handler, :reason, :attempts)";
+
+    private static final String SELECT_SQL = "SELECT id, event_id, event_type, aggregate_id, payload::text AS payload, " +
+            "handler, reason, attempts, created_at, replayed_at FROM dead_letter_events ";
+
+    private static final RowMapper<DeadLetterEventRow> ROW_MAPPER = (rs, rowNum) -> new DeadLetterEventRow(
+            rs.getLong("id"),
+            rs.getString("event_id"),
+            rs.getString("event_type"),
+            rs.getString("aggregate_id"),
+            rs.getString("payload"),
+            rs.getString("handler"),
+            rs.getString("reason"),
+            rs.getInt("attempts"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("replayed_at", LocalDateTime.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert all dead letters in one JDBC batch
+     */
+    public void insertAll(List<NewDeadLetter> deadLetters) {
+        if (deadLetters.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, deadLetters.stream()
+                .map(deadLetter -> new MapSqlParameterSource()
+                        .addValue("eventId", deadLetter.eventId())
+                        .addValue("eventType", deadLetter.eventType())
+                        .addValue("aggregateId", deadLetter.aggregateId())
+                        .addValue("payload", deadLetter.payload())
+                        .addValue("handler", deadLetter.handler())
+                        .addValue("reason", deadLetter.reason())
+                        .addValue("attempts", deadLetter.attempts()))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Dead letters not replayed yet, newest first
+     */
+    public List<DeadLetterEventRow> findPending(int limit) {
+        return jdbcTemplate.query(SELECT_SQL + "WHERE replayed_at IS NULL ORDER BY id DESC LIMIT :limit",
+                new MapSqlParameterSource("limit", limit), ROW_MAPPER);
+    }
+
+    public Optional<DeadLetterEventRow> findById(Long id) {
+        return jdbcTemplate.query(SELECT_SQL + "WHERE id = :id", new MapSqlParameterSource("id", id), ROW_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Mark the dead letter replayed unless another request got there first
+     * @return whether this call marked it
+     */
+    public boolean markReplayed(Long id) {
+        return jdbcTemplate.update(
+                "UPDATE dead_letter_events SET replayed_at = CURRENT_TIMESTAMP WHERE id = :id AND replayed_at IS NULL",
+                new MapSqlParameterSource("id", id)) == 1;
+    }
+
+    /**
+     * A dead letter to insert; handler is "-" when the event never reached a handler
+     */
+    public record NewDeadLetter(String eventId, String eventType, String aggregateId, String payload,
+                                String handler, String reason, int attempts) {
+    }
+}
@@ -2,14 +2,23 @@ package com.sonexus.portal.infrastructure.persistence.repository;
 
 import com.sonexus.portal.infrastructure.persistence.entity.EnrollmentEntity;
 import com.sonexus.portal.infrastructure.persistence.entity.EnrollmentEntity.EnrollmentStatus;
+import com.sonexus.portal.infrastructure.persistence.projection.EnrollmentNotificationView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<EnrollmentEntity, Long> {
     List<EnrollmentEntity> findByPatientId(Long patientId);
     List<EnrollmentEntity> findByStatus(EnrollmentStatus status);
     List<EnrollmentEntity> findByPatientIdAndStatus(Long patientId, EnrollmentStatus status);
+
+    @Query("SELECT u.id AS createdById, u.email AS createdByEmail, " +
+           "p.firstName AS patientFirstName, p.lastName AS patientLastName " +
+           "FROM EnrollmentEntity e JOIN e.createdBy u JOIN e.patient p WHERE e.id = :id")
+    Optional<EnrollmentNotificationView> findNotificationView(@Param("id") Long id);
 }
@@ -0,0 +1,121 @@
+package com.sonexus.portal.infrastructure.persistence.repository;
+
+import com.sonexus.portal.infrastructure.persistence.entity.EnrollmentEntity.EnrollmentStatus;
+import com.sonexus.portal.infrastructure.persistence.entity.EnrollmentStatusHistoryEntity;
+import com.sonexus.portal.infrastructure.persistence.projection.EnrollmentTransitionRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based enrollment status changes and JDBC batch insert of their history, for bulk transitions
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnrollmentStatusBatchRepository {
+
+    private static final String INSERT_HISTORY_SQL = "INSERT INTO enrollment_status_history " +
+            "(enrollment_id, from_status, to_status, reason, changed_by, changed_at) " +
+            "VALUES (:enrollmentId, :fromStatus, :toStatus, :reason, :changedBy, :changedAt)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Lock every enrollment in ids, in id order. A bulk change takes all its locks here before any
+     * update, so concurrent bulk changes wait for each other instead of deadlocking.
+     */
+    public void lockAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.queryForList("SELECT id FROM enrollments WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+                new MapSqlParameterSource("ids", ids), Long.class);
+    }
+
+    /**
+     * Move every enrollment in ids whose current status is one of fromStatuses to toStatus in one
+     * statement. The status is checked on the locked row, so a transition is never applied to a
+     * status that has just changed. Callers changing several groups in one transaction lock all
+     * rows with lockAll first; locking per group would take locks out of id order. Moving to
+     * SUBMITTED also stamps submitted_at.
+     * @return the enrollments that were changed; the others are untouched
+     */
+    public List<EnrollmentTransitionRow> transitionAll(Collection<Long> ids, EnrollmentStatus toStatus,
+                                                       Collection<EnrollmentStatus> fromStatuses,
+                                                       LocalDateTime now) {
+        if (ids.isEmpty() || fromStatuses.isEmpty()) {
+            return List.of();
+        }
+
+        String sql = "UPDATE enrollments e SET status = :toStatus, updated_at = :now, " +
+                "submitted_at = COALESCE(:submittedAt, e.submitted_at) " +
+                "FROM (" +
+                "  SELECT id, status FROM enrollments WHERE id IN (:ids) ORDER BY id FOR UPDATE" +
+                ") old " +
+                "WHERE e.id = old.id AND old.status IN (:fromStatuses) " +
+                "RETURNING e.id, e.patient_id, e.program_id, old.status AS from_status";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("toStatus", toStatus.name())
+                .addValue("fromStatuses", fromStatuses.stream().map(Enum::name).toList())
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("submittedAt",
+                        toStatus == EnrollmentStatus.SUBMITTED ? Timestamp.valueOf(now) : null, Types.TIMESTAMP);
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new EnrollmentTransitionRow(
+                rs.getLong("id"),
+                rs.getLong("patient_id"),
+                rs.getLong("program_id"),
+                rs.getString("from_status")));
+    }
+
+    /**
+     * Current status of each enrollment that exists; missing ids are absent from the map
+     */
+    public Map<Long, String> findStatuses(Collection<Long> ids) {
+        Map<Long, String> statuses = new HashMap<>();
+        if (ids.isEmpty()) {
+            return statuses;
+        }
+
+        jdbcTemplate.query("SELECT id, status FROM enrollments WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                rs -> {
+                    statuses.put(rs.getLong("id"), rs.getString("status"));
+                });
+        return statuses;
+    }
+
+    /**
+     * Insert all history rows in one JDBC batch. Only the ids of the enrollment and changedBy
+     * references are read, so getReferenceById proxies are enough.
+     */
+    public void insertHistory(List<EnrollmentStatusHistoryEntity> history) {
+        if (history.isEmpty()) {
+            return;
+        }
+
+        SqlParameterSource[] batch = history.stream()
+                .map(row -> new MapSqlParameterSource()
+                        .addValue("enrollmentId", row.getEnrollment().getId())
+                        .addValue("fromStatus", row.getFromStatus(), Types.VARCHAR)
+                        .addValue("toStatus", row.getToStatus())
+                        .addValue("reason", row.getReason(), Types.VARCHAR)
+                        .addValue("changedBy", row.getChangedBy().getId())
+                        .addValue("changedAt", Timestamp.valueOf(row.getChangedAt())))
+                .toArray(SqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, batch);
+    }
+}
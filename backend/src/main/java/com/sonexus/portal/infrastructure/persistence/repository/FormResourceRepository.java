@@ -1,34 +1,81 @@
 package com.sonexus.portal.infrastructure.persistence.repository;
 
 import com.sonexus.portal.infrastructure.persistence.entity.FormResourceEntity;
+import com.sonexus.portal.infrastructure.persistence.projection.FormResourceSummaryView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface FormResourceRepository extends JpaRepository<FormResourceEntity, Long> {
 
     /**
-     * Find all forms with pagination and optional filters
+     * Find all forms with pagination and optional filters.
+     * Program and uploader are joined into the projection so a page is a single query.
      */
-    @Query("SELECT f FROM FormResourceEntity f WHERE " +
+    @Query(value = "SELECT f.id AS id, f.title AS title, f.description AS description, " +
+           "f.programId AS programId, p.name AS programName, f.category AS category, " +
+           "f.fileName AS fileName, f.fileSize AS fileSize, f.mimeType AS mimeType, " +
+           "f.version AS version, f.parentId AS parentId, f.complianceApproved AS complianceApproved, " +
+           "f.uploadedById AS uploadedById, u.email AS uploadedByEmail, " +
+           "f.uploadedAt AS uploadedAt, f.updatedAt AS updatedAt, f.downloadCount AS downloadCount " +
+           "FROM FormResourceEntity f LEFT JOIN f.program p LEFT JOIN f.uploadedBy u WHERE " +
            "(:programId IS NULL OR f.programId = :programId) AND " +
            "(:category IS NULL OR f.category = :category) AND " +
            "(:searchTerm IS NULL OR LOWER(f.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
            "OR LOWER(f.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-           "ORDER BY f.uploadedAt DESC")
-    Page<FormResourceEntity> findAllWithFilters(
+           "ORDER BY f.uploadedAt DESC",
+           countQuery = "SELECT COUNT(f) FROM FormResourceEntity f WHERE " +
+           "(:programId IS NULL OR f.programId = :programId) AND " +
+           "(:category IS NULL OR f.category = :category) AND " +
+           "(:searchTerm IS NULL OR LOWER(f.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+           "OR LOWER(f.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    Page<FormResourceSummaryView> findAllWithFilters(
             @Param("programId") Long programId,
             @Param("category") String category,
             @Param("searchTerm") String searchTerm,
             Pageable pageable
     );
 
+    /**
+     * Keyset page of forms, newest first, after the given (uploadedAt, id) position
+     */
+    @Query("SELECT f.id AS id, f.title AS title, f.description AS description, " +
+           "f.programId AS programId, p.name AS programName, f.category AS category, " +
+           "f.fileName AS fileName, f.fileSize AS fileSize, f.mimeType AS mimeType, " +
+           "f.version AS version, f.parentId AS parentId, f.complianceApproved AS complianceApproved, " +
+           "f.uploadedById AS uploadedById, u.email AS uploadedByEmail, " +
+           "f.uploadedAt AS uploadedAt, f.updatedAt AS updatedAt, f.downloadCount AS downloadCount " +
+           "FROM FormResourceEntity f LEFT JOIN f.program p LEFT JOIN f.uploadedBy u WHERE " +
+           "(:programId IS NULL OR f.programId = :programId) AND " +
+           "(:category IS NULL OR f.category = :category) AND " +
+           "(:searchTerm IS NULL OR LOWER(f.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+           "OR LOWER(f.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
+           "f.uploadedAt <= :afterUploadedAt AND (f.uploadedAt < :afterUploadedAt OR f.id < :afterId) " +
+           "ORDER BY f.uploadedAt DESC, f.id DESC")
+    List<FormResourceSummaryView> findPageAfter(
+            @Param("programId") Long programId,
+            @Param("category") String category,
+            @Param("searchTerm") String searchTerm,
+            @Param("afterUploadedAt") LocalDateTime afterUploadedAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    /**
+     * Atomically increment the download counter
+     */
+    @Modifying
+    @Query("UPDATE FormResourceEntity f SET f.downloadCount = f.downloadCount + 1 WHERE f.id = :id")
+    int incrementDownloadCount(@Param("id") Long id);
+
     /**
      * Find all versions of a form
      */
@@ -0,0 +1,49 @@
+package com.sonexus.portal.infrastructure.persistence.repository;
+
+import com.sonexus.portal.infrastructure.persistence.projection.ReadReceiptRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC access to message_read_receipts, one read watermark per user and thread
+ */
+@Repository
+@RequiredArgsConstructor
+public class MessageReadReceiptRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Move a user's watermark forward to the given message; never moves it back
+     */
+    public void advance(Long threadId, Long userId, Long messageId, LocalDateTime readAt) {
+        String sql = "INSERT INTO message_read_receipts (thread_id, user_id, last_read_message_id, read_at) " +
+                "VALUES (:threadId, :userId, :messageId, :readAt) " +
+                "ON CONFLICT (thread_id, user_id) DO UPDATE " +
+                "SET last_read_message_id = EXCLUDED.last_read_message_id, read_at = EXCLUDED.read_at " +
+                "WHERE message_read_receipts.last_read_message_id < EXCLUDED.last_read_message_id";
+
+        jdbcTemplate.update(sql, new MapSqlParameterSource()
+                .addValue("threadId", threadId)
+                .addValue("userId", userId)
+                .addValue("messageId", messageId)
+                .addValue("readAt", Timestamp.valueOf(readAt)));
+    }
+
+    public List<ReadReceiptRow> findByThreadId(Long threadId) {
+        String sql = "SELECT user_id, last_read_message_id, read_at FROM message_read_receipts " +
+                "WHERE thread_id = :threadId ORDER BY user_id";
+
+        return jdbcTemplate.query(sql, new MapSqlParameterSource("threadId", threadId),
+                (rs, rowNum) -> new ReadReceiptRow(
+                        rs.getLong("user_id"),
+                        rs.getLong("last_read_message_id"),
+                        rs.getObject("read_at", LocalDateTime.class)));
+    }
+}
@@ -0,0 +1,28 @@
+package com.sonexus.portal.infrastructure.persistence.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access to message_thread_participants: the thread creator and everyone who has posted
+ */
+@Repository
+@RequiredArgsConstructor
+public class MessageThreadParticipantRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Record the user as a participant; a no-op when already recorded
+     */
+    public void add(Long threadId, Long userId) {
+        String sql = "INSERT INTO message_thread_participants (thread_id, user_id) VALUES (:threadId, :userId) " +
+                "ON CONFLICT (thread_id, user_id) DO NOTHING";
+
+        jdbcTemplate.update(sql, new MapSqlParameterSource()
+                .addValue("threadId", threadId)
+                .addValue("userId", userId));
+    }
+}
@@ -0,0 +1,59 @@
+package com.sonexus.portal.infrastructure.persistence.repository;
+
+import com.sonexus.portal.infrastructure.persistence.projection.UnreadSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * JDBC access to message_unread_counters. Rows exist only while a user has unread messages in a thread.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MessageUnreadCounterRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Add one unread message for every thread participant (message_thread_participants) other than the sender
+     * @return the users whose counters changed
+     */
+    public List<Long> incrementForParticipants(Long threadId, Long senderId) {
+        String sql = "INSERT INTO message_unread_counters (user_id, thread_id, unread_count, updated_at) " +
+                "SELECT user_id, :threadId, 1, now() FROM message_thread_participants " +
+                "WHERE thread_id = :threadId AND user_id <> :senderId " +
+                "ON CONFLICT (user_id, thread_id) DO UPDATE " +
+                "SET unread_count = message_unread_counters.unread_count + 1, updated_at = now() " +
+                "RETURNING user_id";
+
+        return jdbcTemplate.queryForList(sql, new MapSqlParameterSource()
+                .addValue("threadId", threadId)
+                .addValue("senderId", senderId), Long.class);
+    }
+
+    /**
+     * Clear a user's unread count for a thread
+     * @return true if the user had unread messages there
+     */
+    public boolean clear(Long threadId, Long userId) {
+        String sql = "DELETE FROM message_unread_counters WHERE user_id = :userId AND thread_id = :threadId";
+
+        return jdbcTemplate.update(sql, new MapSqlParameterSource()
+                .addValue("threadId", threadId)
+                .addValue("userId", userId)) > 0;
+    }
+
+    /**
+     * Total unread messages and threads with unread messages for a user
+     */
+    public UnreadSummary summarize(Long userId) {
+        String sql = "SELECT COALESCE(SUM(unread_count), 0) AS unread_messages, COUNT(*) AS threads " +
+                "FROM message_unread_counters WHERE user_id = :userId";
+
+        return jdbcTemplate.queryForObject(sql, new MapSqlParameterSource("userId", userId),
+                (rs, rowNum) -> new UnreadSummary(rs.getLong("unread_messages"), rs.getLong("threads")));
+    }
+}
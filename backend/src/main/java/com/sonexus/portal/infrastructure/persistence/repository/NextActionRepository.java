@@ -0,0 +1,251 @@
+package com.sonexus.portal.infrastructure.persistence.repository;
+
+import com.sonexus.portal.infrastructure.persistence.projection.NextActionRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC access to the materialized next_actions table.
+ * Upserts rely on the (action_type, resource_id, COALESCE(user_id, 0)) unique index.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NextActionRepository {
+
+    public static final String ENROLLMENT = "ENROLLMENT";
+    public static final String BENEFITS = "BENEFITS";
+    public static final String SERVICE = "SERVICE";
+
+    private static final String ON_CONFLICT = "ON CONFLICT (action_type, resource_id, COALESCE(user_id, 0)) ";
+    /** Latest investigation per patient and type among :ids */
+    private static final String LATEST_AMONG_IDS = "SELECT DISTINCT ON (b.patient_id, b.investigation_type) " +
+            "  b.id, b.patient_id, b.investigation_type, b.expires_at " +
+            "FROM benefits_investigations b WHERE b.id IN (:ids) " +
+            "ORDER BY b.patient_id, b.investigation_type, b.created_at DESC, b.id DESC";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Find the actions visible to a user, capped per action type, most overdue first.
+     * One LIMITed scan of idx_next_actions_type_reference per type, so the cost is bounded by
+     * maxPerType rather than by the number of visible rows.
+     */
+    public List<NextActionRow> findVisibleForUser(Long userId, LocalDateTime now, int maxPerType) {
+        String sql = "SELECT n.id, n.action_type, n.resource_id, n.patient_id, n.patient_name, n.reference_at " +
+                "FROM (VALUES ('" + ENROLLMENT + "'), ('" + BENEFITS + "'), ('" + SERVICE + "')) AS t(action_type) " +
+                "CROSS JOIN LATERAL (" +
+                "  SELECT a.* FROM next_actions a " +
+                "  WHERE a.action_type = t.action_type " +
+                "    AND (a.user_id IS NULL OR a.user_id = :userId) AND a.due_at <= :now " +
+                "  ORDER BY a.reference_at ASC NULLS LAST, a.id DESC " +
+                "  LIMIT :limit" +
+                ") n";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("limit", maxPerType);
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new NextActionRow(
+                rs.getLong("id"),
+                rs.getString("action_type"),
+                rs.getLong("resource_id"),
+                rs.getObject("patient_id", Long.class),
+                rs.getString("patient_name"),
+                rs.getObject("reference_at", LocalDateTime.class)));
+    }
+
+    /**
+     * Insert or refresh an action shown to every dashboard user
+     */
+    public void upsertShared(String actionType, Long resourceId, Long patientId, String patientName,
+                             LocalDateTime referenceAt, LocalDateTime dueAt) {
+        String sql = "INSERT INTO next_actions " +
+                "(action_type, resource_id, patient_id, patient_name, reference_at, due_at, created_at, updated_at) " +
+                "VALUES (:actionType, :resourceId, :patientId, :patientName, :referenceAt, :dueAt, now(), now()) " +
+                ON_CONFLICT + "DO UPDATE SET patient_id = EXCLUDED.patient_id, patient_name = EXCLUDED.patient_name, " +
+                "reference_at = EXCLUDED.reference_at, due_at = EXCLUDED.due_at, updated_at = now()";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("actionType", actionType)
+                .addValue("resourceId", resourceId)
+                .addValue("patientId", patientId, Types.BIGINT)
+                .addValue("patientName", patientName, Types.VARCHAR)
+                .addValue("referenceAt", toTimestamp(referenceAt), Types.TIMESTAMP)
+                .addValue("dueAt", toTimestamp(dueAt), Types.TIMESTAMP);
+
+        jdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * Remove an action shown to every dashboard user
+     */
+    public int deleteShared(String actionType, Long resourceId) {
+        String sql = "DELETE FROM next_actions " +
+                "WHERE action_type = :actionType AND resource_id = :resourceId AND user_id IS NULL";
+
+        return jdbcTemplate.update(sql, new MapSqlParameterSource()
+                .addValue("actionType", actionType)
+                .addValue("resourceId", resourceId));
+    }
+
+    /**
+     * Remove the shared actions of several resources in one statement
+     */
+    public int deleteShared(String actionType, Collection<Long> resourceIds) {
+        if (resourceIds.isEmpty()) {
+            return 0;
+        }
+        String sql = "DELETE FROM next_actions " +
+                "WHERE action_type = :actionType AND resource_id IN (:resourceIds) AND user_id IS NULL";
+
+        return jdbcTemplate.update(sql, new MapSqlParameterSource()
+                .addValue("actionType", actionType)
+                .addValue("resourceIds", resourceIds));
+    }
+
+    /**
+     * Insert or refresh the ENROLLMENT actions of the given enrollments that are in SUBMITTED status
+     */
+    public int upsertSubmittedEnrollments(Collection<Long> enrollmentIds, int followUpDays) {
+        if (enrollmentIds.isEmpty()) {
+            return 0;
+        }
+        String sql = "INSERT INTO next_actions " +
+                "(action_type, resource_id, patient_id, patient_name, reference_at, due_at, created_at, updated_at) " +
+                "SELECT 'ENROLLMENT', e.id, p.id, p.first_name || ' ' || p.last_name, e.submitted_at, " +
+                "  e.submitted_at + make_interval(days => :days), now(), now() " +
+                "FROM enrollments e JOIN patients p ON p.id = e.patient_id " +
+                "WHERE e.id IN (:ids) AND e.status = 'SUBMITTED' AND e.submitted_at IS NOT NULL " +
+                ON_CONFLICT + "DO UPDATE SET patient_id = EXCLUDED.patient_id, patient_name = EXCLUDED.patient_name, " +
+                "reference_at = EXCLUDED.reference_at, due_at = EXCLUDED.due_at, updated_at = now()";
+
+        return jdbcTemplate.update(sql, new MapSqlParameterSource()
+                .addValue("ids", enrollmentIds)
+                .addValue("days", followUpDays));
+    }
+
+    /**
+     * Remove BENEFITS actions for older investigations of the same patient and type
+     */
+    public int deleteSupersededBenefits(Long investigationId) {
+        String sql = "DELETE FROM next_actions n USING benefits_investigations old, benefits_investigations latest " +
+                "WHERE n.action_type = 'BENEFITS' AND n.resource_id = old.id " +
+                "AND latest.id = :investigationId AND old.id <> latest.id " +
+                "AND old.patient_id = latest.patient_id AND old.investigation_type = latest.investigation_type";
+
+        return jdbcTemplate.update(sql, new MapSqlParameterSource("investigationId", investigationId));
+    }
+
+    /**
+     * Remove BENEFITS actions superseded by the latest of the given investigations per patient and type
+     */
+    public int deleteSupersededBenefits(Collection<Long> investigationIds) {
+        if (investigationIds.isEmpty()) {
+            return 0;
+        }
+        String sql = "DELETE FROM next_actions n USING benefits_investigations old, (" + LATEST_AMONG_IDS + ") latest " +
+                "WHERE n.action_type = 'BENEFITS' AND n.resource_id = old.id AND old.id <> latest.id " +
+                "AND old.patient_id = latest.patient_id AND old.investigation_type = latest.investigation_type";
+
+        return jdbcTemplate.update(sql, new MapSqlParameterSource("ids", investigationIds));
+    }
+
+    /**
+     * Insert or refresh the BENEFITS action of the latest of the given investigations per patient and type
+     */
+    public int upsertLatestBenefits(Collection<Long> investigationIds) {
+        if (investigationIds.isEmpty()) {
+            return 0;
+        }
+        String sql = "INSERT INTO next_actions " +
+                "(action_type, resource_id, patient_id, patient_name, reference_at, due_at, created_at, updated_at) " +
+                "SELECT 'BENEFITS', l.id, p.id, p.first_name || ' ' || p.last_name, l.expires_at, l.expires_at, now(), now() " +
+                "FROM (" + LATEST_AMONG_IDS + ") l JOIN patients p ON p.id = l.patient_id " +
+                "WHERE l.expires_at IS NOT NULL " +
+                ON_CONFLICT + "DO UPDATE SET patient_id = EXCLUDED.patient_id, patient_name = EXCLUDED.patient_name, " +
+                "reference_at = EXCLUDED.reference_at, due_at = EXCLUDED.due_at, updated_at = now()";
+
+        return jdbcTemplate.update(sql, new MapSqlParameterSource("ids", investigationIds));
+    }
+
+    /**
+     * Reconcile ENROLLMENT actions with enrollments currently in SUBMITTED status
+     */
+    public int reconcileSubmittedEnrollments(int followUpDays) {
+        String upsert = "INSERT INTO next_actions " +
+                "(action_type, resource_id, patient_id, patient_name, reference_at, due_at, created_at, updated_at) " +
+                "SELECT 'ENROLLMENT', e.id, p.id, p.first_name || ' ' || p.last_name, e.submitted_at, " +
+                "  e.submitted_at + make_interval(days => :days), now(), now() " +
+                "FROM enrollments e JOIN patients p ON p.id = e.patient_id " +
+                "WHERE e.status = 'SUBMITTED' AND e.submitted_at IS NOT NULL " +
+                ON_CONFLICT + "DO UPDATE SET patient_name = EXCLUDED.patient_name, " +
+                "reference_at = EXCLUDED.reference_at, due_at = EXCLUDED.due_at, updated_at = now() " +
+                "WHERE next_actions.due_at IS DISTINCT FROM EXCLUDED.due_at " +
+                "OR next_actions.patient_name IS DISTINCT FROM EXCLUDED.patient_name";
+
+        String delete = "DELETE FROM next_actions n WHERE n.action_type = 'ENROLLMENT' AND NOT EXISTS (" +
+                "  SELECT 1 FROM enrollments e WHERE e.id = n.resource_id " +
+                "  AND e.status = 'SUBMITTED' AND e.submitted_at IS NOT NULL)";
+
+        MapSqlParameterSource params = new MapSqlParameterSource("days", followUpDays);
+        return jdbcTemplate.update(upsert, params) + jdbcTemplate.update(delete, params);
+    }
+
+    /**
+     * Reconcile BENEFITS actions with the latest investigation per patient and type
+     */
+    public int reconcileLatestBenefits() {
+        String latest = "SELECT DISTINCT ON (b.patient_id, b.investigation_type) " +
+                "  b.id, b.patient_id, b.expires_at " +
+                "FROM benefits_investigations b " +
+                "ORDER BY b.patient_id, b.investigation_type, b.created_at DESC, b.id DESC";
+
+        String upsert = "INSERT INTO next_actions " +
+                "(action_type, resource_id, patient_id, patient_name, reference_at, due_at, created_at, updated_at) " +
+                "SELECT 'BENEFITS', l.id, p.id, p.first_name || ' ' || p.last_name, l.expires_at, l.expires_at, now(), now() " +
+                "FROM (" + latest + ") l JOIN patients p ON p.id = l.patient_id " +
+                "WHERE l.expires_at IS NOT NULL " +
+                ON_CONFLICT + "DO UPDATE SET patient_name = EXCLUDED.patient_name, " +
+                "reference_at = EXCLUDED.reference_at, due_at = EXCLUDED.due_at, updated_at = now() " +
+                "WHERE next_actions.due_at IS DISTINCT FROM EXCLUDED.due_at " +
+                "OR next_actions.patient_name IS DISTINCT FROM EXCLUDED.patient_name";
+
+        String delete = "DELETE FROM next_actions n WHERE n.action_type = 'BENEFITS' AND n.resource_id NOT IN (" +
+                "  SELECT l.id FROM (" + latest + ") l WHERE l.expires_at IS NOT NULL)";
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        return jdbcTemplate.update(upsert, params) + jdbcTemplate.update(delete, params);
+    }
+
+    /**
+     * Reconcile SERVICE actions with patients that have no active support service
+     */
+    public int reconcilePatientsWithoutServices() {
+        String upsert = "INSERT INTO next_actions " +
+                "(action_type, resource_id, patient_id, patient_name, due_at, created_at, updated_at) " +
+                "SELECT 'SERVICE', p.id, p.id, p.first_name || ' ' || p.last_name, p.created_at, now(), now() " +
+                "FROM patients p WHERE NOT EXISTS (" +
+                "  SELECT 1 FROM patient_service_enrollments s WHERE s.patient_id = p.id AND s.status = 'ACTIVE') " +
+                ON_CONFLICT + "DO UPDATE SET patient_name = EXCLUDED.patient_name, updated_at = now() " +
+                "WHERE next_actions.patient_name IS DISTINCT FROM EXCLUDED.patient_name";
+
+        String delete = "DELETE FROM next_actions n WHERE n.action_type = 'SERVICE' AND EXISTS (" +
+                "  SELECT 1 FROM patient_service_enrollments s WHERE s.patient_id = n.resource_id AND s.status = 'ACTIVE')";
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        return jdbcTemplate.update(upsert, params) + jdbcTemplate.update(delete, params);
+    }
+
+    private Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,165 @@
+package com.sonexus.portal.infrastructure.persistence.repository;
+
+import com.sonexus.portal.infrastructure.persistence.projection.OutboxEventRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JDBC access to outbox_events. Inserts join the caller's transaction; claims, releases and
+ * publish marks are single statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxEventRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events " +
+            "(event_id, event_type, aggregate_id, payload, occurred_at) " +
+            "VALUES (:eventId, :eventType, :aggregateId, CAST(:payload AS jsonb), :occurredAt)";
+
+    private static final RowMapper<OutboxEventRow> OUTBOX_ROW_MAPPER = (rs, rowNum) -> new OutboxEventRow(
+            rs.getLong("id"),
+            rs.getString("event_type"),
+            rs.getString("payload"),
+            rs.getObject("created_at", LocalDateTime.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insert(String eventId, String eventType, String aggregateId, String payload, LocalDateTime occurredAt) {
+        jdbcTemplate.update(INSERT_SQL, toParameters(new PendingEvent(eventId, eventType, aggregateId, payload, occurredAt)));
+    }
+
+    /**
+     * Insert all events in one JDBC batch, in list order
+     */
+    public void insertAll(List<PendingEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events.stream()
+                .map(OutboxEventRepository::toParameters)
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Lease up to limit of the oldest unpublished rows to nodeId and return them in insertion order.
+     * Rows claimed longer than leaseSeconds ago (by a node that died or stalled) are claimed again.
+     * SKIP LOCKED lets relays on several nodes claim disjoint batches without waiting on each other.
+     * A row is claimed only when every older unpublished row of its aggregate is in the same batch
+     * or leased to nodeId, whose bus keeps them in order; an aggregate another node is still relaying,
+     * or whose older row a concurrent claim locked, waits for a later poll.
+     */
+    public List<OutboxEventRow> claimBatch(int limit, String nodeId, long leaseSeconds) {
+        String sql = "WITH candidates AS (" +
+                "  SELECT e.id, e.aggregate_id FROM outbox_events e WHERE e.published_at IS NULL " +
+                "  AND (e.claimed_at IS NULL OR e.claimed_at < CURRENT_TIMESTAMP - make_interval(secs => :leaseSeconds)) " +
+                "  AND NOT EXISTS (SELECT 1 FROM outbox_events o " +
+                "    WHERE o.aggregate_id = e.aggregate_id AND o.id < e.id AND o.published_at IS NULL " +
+                "    AND o.claimed_at >= CURRENT_TIMESTAMP - make_interval(secs => :leaseSeconds) " +
+                "    AND o.claimed_by <> :nodeId) " +
+                "  ORDER BY e.id LIMIT :limit FOR UPDATE OF e SKIP LOCKED" +
+                "), claimable AS (" +
+                "  SELECT c.id FROM candidates c WHERE NOT EXISTS (SELECT 1 FROM outbox_events o " +
+                "    WHERE o.aggregate_id = c.aggregate_id AND o.id < c.id AND o.published_at IS NULL " +
+                "    AND o.id NOT IN (SELECT id FROM candidates) " +
+                "    AND (o.claimed_by IS DISTINCT FROM :nodeId " +
+                "      OR o.claimed_at < CURRENT_TIMESTAMP - make_interval(secs => :leaseSeconds)))" +
+                ") " +
+                "UPDATE outbox_events SET claimed_at = CURRENT_TIMESTAMP, claimed_by = :nodeId " +
+                "WHERE id IN (SELECT id FROM claimable) " +
+                "RETURNING id, event_type, payload::text AS payload, created_at";
+
+        List<OutboxEventRow> rows = jdbcTemplate.query(sql, new MapSqlParameterSource()
+                        .addValue("limit", limit)
+                        .addValue("nodeId", nodeId)
+                        .addValue("leaseSeconds", leaseSeconds),
+                OUTBOX_ROW_MAPPER);
+
+        // RETURNING does not preserve the subquery order
+        return rows.stream().sorted(Comparator.comparing(OutboxEventRow::id)).toList();
+    }
+
+    /**
+     * Rows by id, in insertion order; for nodes that were told about rows another node claimed
+     */
+    public List<OutboxEventRow> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+                "SELECT id, event_type, payload::text AS payload, created_at FROM outbox_events " +
+                        "WHERE id IN (:ids) ORDER BY id",
+                new MapSqlParameterSource("ids", ids), OUTBOX_ROW_MAPPER);
+    }
+
+    /**
+     * The rows' events were handled; they are kept until cleanup
+     */
+    public void markPublished(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE outbox_events SET published_at = CURRENT_TIMESTAMP " +
+                        "WHERE id IN (:ids) AND published_at IS NULL",
+                new MapSqlParameterSource("ids", ids));
+    }
+
+    /**
+     * Give up nodeId's claim on rows it could not hand to the bus, so any relay can claim them again
+     */
+    public void release(Collection<Long> ids, String nodeId) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE outbox_events SET claimed_at = NULL, claimed_by = NULL " +
+                        "WHERE id IN (:ids) AND claimed_by = :nodeId AND published_at IS NULL",
+                new MapSqlParameterSource()
+                        .addValue("ids", ids)
+                        .addValue("nodeId", nodeId));
+    }
+
+    public long countPending() {
+        Long count = jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE published_at IS NULL", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Delete at most limit relayed rows published before the cutoff
+     * @return rows deleted
+     */
+    public int deletePublishedBefore(LocalDateTime cutoff, int limit) {
+        String sql = "DELETE FROM outbox_events WHERE id IN (" +
+                "  SELECT id FROM outbox_events WHERE published_at < :cutoff LIMIT :limit" +
+                ")";
+
+        return jdbcTemplate.update(sql, new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", limit));
+    }
+
+    private static SqlParameterSource toParameters(PendingEvent event) {
+        return new MapSqlParameterSource()
+                .addValue("eventId", event.eventId())
+                .addValue("eventType", event.eventType())
+                .addValue("aggregateId", event.aggregateId())
+                .addValue("payload", event.payload())
+                .addValue("occurredAt", Timestamp.valueOf(event.occurredAt()));
+    }
+
+    /**
+     * An event to insert; payload is the event serialized as JSON
+     */
+    public record PendingEvent(String eventId, String eventType, String aggregateId, String payload,
+                               LocalDateTime occurredAt) {
+    }
+}
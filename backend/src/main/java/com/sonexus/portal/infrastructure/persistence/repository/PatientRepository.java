@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -19,4 +21,19 @@ public interface PatientRepository extends JpaRepository<PatientEntity, Long> {
            "LOWER(p.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "p.referenceId LIKE CONCAT('%', :search, '%')")
     Page<PatientEntity> searchPatients(@Param("search") String search, Pageable pageable);
+
+    /**
+     * Keyset page of patients, newest first, after the given (createdAt, id) position
+     */
+    @Query("SELECT p FROM PatientEntity p WHERE " +
+           "(:search IS NULL OR LOWER(p.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "p.referenceId LIKE CONCAT('%', :search, '%')) AND " +
+           "p.createdAt <= :afterCreatedAt AND (p.createdAt < :afterCreatedAt OR p.id < :afterId) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PatientEntity> findPageAfter(
+            @Param("search") String search,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
 }
@@ -0,0 +1,121 @@
+package com.sonexus.portal.infrastructure.persistence.repository;
+
+import com.sonexus.portal.infrastructure.persistence.projection.PatientSearchRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ranked, keyset-paginated patient search backed by the pg_trgm indexes from V010.
+ * <p>
+ * Every search token must match first name, last name or reference id as a substring.
+ * Results are ranked by how the first token matches:
+ * 0 exact reference id, 1 last name prefix, 2 first name prefix, 3 reference id prefix, 4 substring.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PatientSearchRepository {
+
+    private static final int MAX_TOKENS = 4;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Keyset position of the last row of the previous page
+     */
+    public record After(int tier, String lastName, String firstName, long id) {
+    }
+
+    public List<PatientSearchRow> search(String query, After after, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("exact", tokens.get(0))
+                .addValue("prefix", escapeLike(tokens.get(0)) + "%")
+                .addValue("limit", limit);
+
+        StringBuilder match = new StringBuilder();
+        for (int i = 0; i < tokens.size(); i++) {
+            String param = "t" + i;
+            params.addValue(param, "%" + escapeLike(tokens.get(i)) + "%");
+            if (i > 0) {
+                match.append(" AND ");
+            }
+            match.append("(LOWER(p.first_name) LIKE :").append(param)
+                    .append(" OR LOWER(p.last_name) LIKE :").append(param)
+                    .append(" OR p.reference_id ILIKE :").append(param).append(")");
+        }
+
+        String keyset = "";
+        if (after != null) {
+            keyset = "WHERE (tier, last_name_key, first_name_key, id) > (:afterTier, :afterLast, :afterFirst, :afterId) ";
+            params.addValue("afterTier", after.tier())
+                    .addValue("afterLast", after.lastName())
+                    .addValue("afterFirst", after.firstName())
+                    .addValue("afterId", after.id());
+        }
+
+        String sql = "SELECT * FROM (" +
+                "  SELECT p.*, u.email AS created_by_email, " +
+                "    LOWER(p.last_name) AS last_name_key, LOWER(p.first_name) AS first_name_key, " +
+                "    CASE WHEN LOWER(p.reference_id) = :exact THEN 0 " +
+                "         WHEN LOWER(p.last_name) LIKE :prefix THEN 1 " +
+                "         WHEN LOWER(p.first_name) LIKE :prefix THEN 2 " +
+                "         WHEN p.reference_id ILIKE :prefix THEN 3 " +
+                "         ELSE 4 END AS tier " +
+                "  FROM patients p JOIN users u ON u.id = p.created_by " +
+                "  WHERE " + match +
+                ") ranked " + keyset +
+                "ORDER BY tier, last_name_key, first_name_key, id " +
+                "LIMIT :limit";
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new PatientSearchRow(
+                rs.getInt("tier"),
+                rs.getString("last_name_key"),
+                rs.getString("first_name_key"),
+                rs.getLong("id"),
+                rs.getString("reference_id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getObject("date_of_birth", LocalDate.class),
+                rs.getString("gender"),
+                rs.getString("phone"),
+                rs.getString("email"),
+                rs.getString("address_line1"),
+                rs.getString("address_line2"),
+                rs.getString("city"),
+                rs.getString("state"),
+                rs.getString("zip_code"),
+                rs.getLong("created_by"),
+                rs.getString("created_by_email"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class)));
+    }
+
+    private List<String> tokenize(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        return Arrays.stream(query.trim().toLowerCase(Locale.ROOT).split("\\s+"))
+                .filter(t -> !t.isEmpty())
+                .limit(MAX_TOKENS)
+                .toList();
+    }
+
+    /**
+     * Escape LIKE wildcards so user input is matched literally (backslash is the default escape)
+     */
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
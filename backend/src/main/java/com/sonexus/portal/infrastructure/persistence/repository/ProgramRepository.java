@@ -1,12 +1,17 @@
 package com.sonexus.portal.infrastructure.persistence.repository;
 
 import com.sonexus.portal.infrastructure.persistence.entity.ProgramEntity;
+import com.sonexus.portal.infrastructure.persistence.projection.ProgramRef;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
-
 import java.util.List;
 
 @Repository
 public interface ProgramRepository extends JpaRepository<ProgramEntity, Long> {
     List<ProgramEntity> findByActiveTrue();
+
+    @Query("SELECT new com.sonexus.portal.infrastructure.persistence.projection.ProgramRef(" +
+           "p.id, p.name, p.description, p.active) FROM ProgramEntity p ORDER BY p.id")
+    List<ProgramRef> findAllRefs();
 }
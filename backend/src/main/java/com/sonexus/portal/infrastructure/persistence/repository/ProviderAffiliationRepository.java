@@ -15,4 +15,5 @@ public interface ProviderAffiliationRepository extends JpaRepository<ProviderAff
     Optional<ProviderAffiliationEntity> findByUserIdAndProviderId(Long userId, Long providerId);
     boolean existsByUserIdAndProviderIdAndStatus(Long userId, Long providerId, AffiliationStatus status);
     List<ProviderAffiliationEntity> findByUserIdAndStatus(Long userId, AffiliationStatus status);
+    boolean existsByUserIdAndStatus(Long userId, AffiliationStatus status);
 }
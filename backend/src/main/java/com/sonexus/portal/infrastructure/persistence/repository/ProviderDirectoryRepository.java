@@ -0,0 +1,237 @@
+package com.sonexus.portal.infrastructure.persistence.repository;
+
+import com.sonexus.portal.infrastructure.persistence.projection.FacetCountRow;
+import com.sonexus.portal.infrastructure.persistence.projection.ProviderDirectoryRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Provider directory queries over active providers, served from the V011 indexes.
+ * Name matching is a trigram-indexed substring match ranked with prefix matches first. The two
+ * ranks are queried separately: prefix matches are a range scan of the name order index, and
+ * substring matches are only fetched when the prefix matches do not fill the page. Terms shorter
+ * than a trigram match by prefix only. Specialty and state are exact-match facets.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProviderDirectoryRepository {
+
+    private static final int STREAM_FETCH_SIZE = 10_000;
+    /** Shortest term the trigram index can serve in a substring match */
+    private static final int MIN_SUBSTRING_LENGTH = 3;
+
+    private static final String COLUMNS = "id, npi, name, specialty, address_line1, address_line2, city, state, " +
+            "zip_code, phone, fax, email, active";
+
+    private static final RowMapper<ProviderDirectoryRow> ROW_MAPPER = (rs, rowNum) -> new ProviderDirectoryRow(
+            rs.getInt("tier"),
+            rs.getString("name_key"),
+            rs.getLong("id"),
+            rs.getString("npi"),
+            rs.getString("name"),
+            rs.getString("specialty"),
+            rs.getString("address_line1"),
+            rs.getString("address_line2"),
+            rs.getString("city"),
+            rs.getString("state"),
+            rs.getString("zip_code"),
+            rs.getString("phone"),
+            rs.getString("fax"),
+            rs.getString("email"),
+            rs.getBoolean("active"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Search filters; null fields are not applied
+     */
+    public record Criteria(String name, String specialty, String state) {
+    }
+
+    /**
+     * Keyset position of the last row of the previous page
+     */
+    public record After(int tier, String nameKey, long id) {
+    }
+
+    public List<ProviderDirectoryRow> search(Criteria criteria, After after, int limit) {
+        List<ProviderDirectoryRow> rows = new ArrayList<>();
+        if (after == null || after.tier() == 0) {
+            rows.addAll(searchTier(criteria, 0, after, limit));
+        }
+        if (rows.size() < limit && criteria.name() != null && !prefixOnly(normalize(criteria.name()))) {
+            rows.addAll(searchTier(criteria, 1, after != null && after.tier() == 1 ? after : null, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    /**
+     * Typeahead over active providers: every token must be a prefix of a word of the name, the
+     * same rule ProviderTypeaheadIndex applies. Names starting with the first token rank first.
+     * Tokens are lowercase alphanumeric words (ProviderTypeaheadIndex.nameTokens), so they need
+     * no escaping; the LIKE is served by the trigram index and the regex checks the word boundary.
+     * When every token is shorter than a trigram only names starting with the first token match.
+     */
+    public List<ProviderDirectoryRow> suggest(List<String> tokens, int limit) {
+        List<ProviderDirectoryRow> rows = new ArrayList<>(suggestTier(tokens, 0, limit));
+        boolean prefixOnly = tokens.stream().allMatch(this::prefixOnly);
+        if (rows.size() < limit && !prefixOnly) {
+            rows.addAll(suggestTier(tokens, 1, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    /**
+     * Exact NPI lookup (unique index)
+     */
+    public List<ProviderDirectoryRow> findActiveByNpi(String npi) {
+        String sql = "SELECT " + COLUMNS + ", LOWER(name) AS name_key, 0 AS tier " +
+                "FROM providers WHERE active AND npi = :npi";
+        return jdbcTemplate.query(sql, new MapSqlParameterSource("npi", npi), ROW_MAPPER);
+    }
+
+    /**
+     * Top specialty counts for the criteria, ignoring the specialty filter itself so the
+     * client can offer alternatives
+     */
+    public List<FacetCountRow> countBySpecialty(Criteria criteria, int maxValues) {
+        return facet("specialty", criteria, false, true, maxValues);
+    }
+
+    /**
+     * Top state counts for the criteria, ignoring the state filter itself
+     */
+    public List<FacetCountRow> countByState(Criteria criteria, int maxValues) {
+        return facet("state", criteria, true, false, maxValues);
+    }
+
+    /**
+     * Stream id, name, specialty and state of every active provider; used to warm the typeahead index.
+     * Call inside a transaction so the driver fetches with a cursor instead of buffering all rows.
+     */
+    public void streamActiveNames(RowCallbackHandler handler) {
+        jdbcTemplate.getJdbcTemplate().query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT id, name, specialty, state FROM providers WHERE active");
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * One rank of the name search. Tier 0 (names starting with the term, or every provider when
+     * there is no term) walks the name order index; tier 1 (the other substring matches) is
+     * fenced with OFFSET 0 so the planner sorts the trigram matches instead of walking the whole
+     * name order index looking for rare terms.
+     */
+    private List<ProviderDirectoryRow> searchTier(Criteria criteria, int tier, After after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        StringBuilder where = new StringBuilder(where(criteria, params, true, true, tier));
+        if (after != null) {
+            where.append(" AND (LOWER(name), id) > (:afterName, :afterId)");
+            params.addValue("afterName", after.nameKey())
+                    .addValue("afterId", after.id());
+        }
+
+        String select = "SELECT " + COLUMNS + ", LOWER(name) AS name_key, " + tier + " AS tier " +
+                "FROM providers WHERE " + where;
+        String sql = tier == 0
+                ? select + " ORDER BY LOWER(name), id LIMIT :limit"
+                : "SELECT * FROM (" + select + " OFFSET 0) matches ORDER BY name_key, id LIMIT :limit";
+
+        return jdbcTemplate.query(sql, params, ROW_MAPPER);
+    }
+
+    private List<ProviderDirectoryRow> suggestTier(List<String> tokens, int tier, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("limit", limit)
+                .addValue("prefix", tokens.get(0) + "%");
+
+        StringBuilder where = new StringBuilder("active AND LOWER(name) ")
+                .append(tier == 0 ? "LIKE" : "NOT LIKE").append(" :prefix");
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tier == 1 && !prefixOnly(tokens.get(i))) {
+                where.append(" AND LOWER(name) LIKE :like").append(i);
+                params.addValue("like" + i, "%" + tokens.get(i) + "%");
+            }
+            where.append(" AND LOWER(name) ~ :word").append(i);
+            params.addValue("word" + i, "(^|[^[:alnum:]])" + tokens.get(i));
+        }
+
+        // Same plans as searchTier
+        String select = "SELECT " + COLUMNS + ", LOWER(name) AS name_key, " + tier + " AS tier " +
+                "FROM providers WHERE " + where;
+        String sql = tier == 0
+                ? select + " ORDER BY LOWER(name), id LIMIT :limit"
+                : "SELECT * FROM (" + select + " OFFSET 0) matches ORDER BY name_key, id LIMIT :limit";
+
+        return jdbcTemplate.query(sql, params, ROW_MAPPER);
+    }
+
+    private List<FacetCountRow> facet(String column, Criteria criteria, boolean withSpecialty, boolean withState,
+                                      int maxValues) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", maxValues);
+        String sql = "SELECT " + column + " AS value, COUNT(*) AS cnt FROM providers " +
+                "WHERE " + where(criteria, params, withSpecialty, withState, -1) + " AND " + column + " IS NOT NULL " +
+                "GROUP BY " + column + " ORDER BY cnt DESC, value LIMIT :limit";
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new FacetCountRow(rs.getString("value"), rs.getLong("cnt")));
+    }
+
+    /**
+     * @param tier 0 for names starting with the term, 1 for the other substring matches, -1 for both
+     */
+    private String where(Criteria criteria, MapSqlParameterSource params, boolean withSpecialty, boolean withState,
+                         int tier) {
+        StringBuilder where = new StringBuilder("active");
+        if (criteria.name() != null) {
+            String term = normalize(criteria.name());
+            String prefix = escapeLike(term) + "%";
+            if (tier == 0 || prefixOnly(term)) {
+                where.append(" AND LOWER(name) LIKE :prefix");
+            } else {
+                where.append(" AND LOWER(name) LIKE :nameLike");
+                params.addValue("nameLike", "%" + escapeLike(term) + "%");
+                if (tier == 1) {
+                    where.append(" AND LOWER(name) NOT LIKE :prefix");
+                }
+            }
+            params.addValue("prefix", prefix);
+        }
+        if (withSpecialty && criteria.specialty() != null) {
+            where.append(" AND specialty = :specialty");
+            params.addValue("specialty", criteria.specialty());
+        }
+        if (withState && criteria.state() != null) {
+            where.append(" AND state = :state");
+            params.addValue("state", criteria.state().toUpperCase(Locale.ROOT));
+        }
+        return where.toString();
+    }
+
+    /**
+     * A term too short for a trigram would make the substring match scan every indexed name
+     */
+    private boolean prefixOnly(String term) {
+        return term.length() < MIN_SUBSTRING_LENGTH;
+    }
+
+    private String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Escape LIKE wildcards so user input is matched literally (backslash is the default escape)
+     */
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,204 @@
+package com.sonexus.portal.infrastructure.persistence.repository;
+
+import com.sonexus.portal.infrastructure.persistence.projection.ProviderImportRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Bulk provider loading through Postgres COPY.
+ * Rows are streamed into a session-local staging table with the providers column set, then merged
+ * into providers on npi in one statement per chunk. Each chunk commits on its own, so an interrupted
+ * import keeps every chunk merged before the failure.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderImportRepository {
+
+    private static final String STAGING_TABLE = "provider_import_staging";
+    private static final String COLUMNS =
+            "npi, name, specialty, address_line1, address_line2, city, state, zip_code, phone, fax, email, active";
+    private static final String UPDATE_COLUMNS =
+            "name, specialty, address_line1, address_line2, city, state, zip_code, phone, fax, email, active";
+
+    private static final String CREATE_STAGING_SQL = "CREATE TEMP TABLE IF NOT EXISTS " + STAGING_TABLE +
+            " ON COMMIT DELETE ROWS AS SELECT " + COLUMNS + " FROM providers WITH NO DATA";
+
+    private static final String COPY_SQL = "COPY " + STAGING_TABLE + " (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    // DISTINCT ON keeps the last occurrence of an NPI within the chunk; ON CONFLICT cannot touch a row twice.
+    // A row without a name is a deactivation: it only marks an existing provider inactive, and a new NPI
+    // is inserted inactive under its number so a later reactivation updates it in place.
+    private static final String MERGE_SQL = "WITH latest AS (" +
+            "  SELECT DISTINCT ON (npi) " + COLUMNS + " FROM " + STAGING_TABLE +
+            "  ORDER BY npi, ctid DESC" +
+            "), merged AS (" +
+            "  INSERT INTO providers (" + COLUMNS + ", created_at, updated_at) " +
+            "  SELECT " + COLUMNS + ", now(), now() FROM latest WHERE name IS NOT NULL " +
+            "  ON CONFLICT (npi) DO UPDATE SET " +
+            "    name = EXCLUDED.name, specialty = EXCLUDED.specialty, " +
+            "    address_line1 = EXCLUDED.address_line1, address_line2 = EXCLUDED.address_line2, " +
+            "    city = EXCLUDED.city, state = EXCLUDED.state, zip_code = EXCLUDED.zip_code, " +
+            "    phone = EXCLUDED.phone, fax = EXCLUDED.fax, email = EXCLUDED.email, " +
+            "    active = EXCLUDED.active, updated_at = now() " +
+            "  WHERE (" + qualified("providers") + ") IS DISTINCT FROM (" + qualified("EXCLUDED") + ") " +
+            "  RETURNING (xmax = 0) AS inserted" +
+            "), deactivated AS (" +
+            "  INSERT INTO providers (npi, name, active, created_at, updated_at) " +
+            "  SELECT npi, 'NPI ' || npi, false, now(), now() FROM latest WHERE name IS NULL " +
+            "  ON CONFLICT (npi) DO UPDATE SET active = false, updated_at = now() WHERE providers.active " +
+            "  RETURNING (xmax = 0) AS inserted" +
+            "), changed AS (" +
+            "  SELECT inserted FROM merged UNION ALL SELECT inserted FROM deactivated" +
+            ") SELECT COUNT(*) FILTER (WHERE inserted) AS inserted, COUNT(*) FILTER (WHERE NOT inserted) AS updated, " +
+            "(SELECT COUNT(*) FROM latest) AS distinct_npis " +
+            "FROM changed";
+
+    private final DataSource dataSource;
+
+    /**
+     * Result of merging one staged chunk
+     * @param duplicates staged rows dropped because a later row in the chunk had the same NPI
+     */
+    public record MergeResult(long staged, long duplicates, long inserted, long updated) {
+    }
+
+    /**
+     * Open an import session on a dedicated connection. The caller must close it.
+     */
+    public ImportSession openSession() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_SQL);
+            }
+            connection.commit();
+            return new ImportSession(connection, connection.unwrap(PGConnection.class).getCopyAPI());
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Holds an open COPY into the staging table; rows are written straight to the socket
+     */
+    public static class ImportSession implements AutoCloseable {
+
+        private final Connection connection;
+        private final CopyManager copyManager;
+        private final StringBuilder line = new StringBuilder(512);
+        private CopyIn copyIn;
+        private long staged;
+
+        private ImportSession(Connection connection, CopyManager copyManager) {
+            this.connection = connection;
+            this.copyManager = copyManager;
+        }
+
+        public void add(ProviderImportRow row) throws SQLException {
+            if (copyIn == null) {
+                copyIn = copyManager.copyIn(COPY_SQL);
+            }
+
+            line.setLength(0);
+            appendField(row.npi()).append(',');
+            appendField(row.name()).append(',');
+            appendField(row.specialty()).append(',');
+            appendField(row.addressLine1()).append(',');
+            appendField(row.addressLine2()).append(',');
+            appendField(row.city()).append(',');
+            appendField(row.state()).append(',');
+            appendField(row.zipCode()).append(',');
+            appendField(row.phone()).append(',');
+            appendField(row.fax()).append(',');
+            appendField(row.email()).append(',');
+            line.append(row.active()).append('\n');
+
+            byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            staged++;
+        }
+
+        /**
+         * Finish the current COPY, merge the staged rows into providers and commit
+         */
+        public MergeResult flush() throws SQLException {
+            if (copyIn == null) {
+                return new MergeResult(0, 0, 0, 0);
+            }
+
+            try {
+                copyIn.endCopy();
+                copyIn = null;
+
+                MergeResult result;
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(MERGE_SQL)) {
+                    rs.next();
+                    result = new MergeResult(staged, staged - rs.getLong("distinct_npis"),
+                            rs.getLong("inserted"), rs.getLong("updated"));
+                }
+                // ON COMMIT DELETE ROWS empties the staging table for the next chunk
+                connection.commit();
+                return result;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                staged = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (copyIn != null && copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+                connection.rollback();
+                // The connection goes back to the pool, so do not leave the temp table behind
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP TABLE IF EXISTS " + STAGING_TABLE);
+                }
+                connection.commit();
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                log.warn("Failed to clean up provider import session", e);
+            } finally {
+                connection.close();
+            }
+        }
+
+        private StringBuilder appendField(String value) {
+            // Unquoted empty is NULL in COPY csv; quoted values keep empty strings and commas intact
+            if (value != null) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            }
+            return line;
+        }
+    }
+
+    private static String qualified(String alias) {
+        StringBuilder columns = new StringBuilder();
+        for (String column : UPDATE_COLUMNS.split(", ")) {
+            if (!columns.isEmpty()) {
+                columns.append(", ");
+            }
+            columns.append(alias).append('.').append(column);
+        }
+        return columns.toString();
+    }
+}
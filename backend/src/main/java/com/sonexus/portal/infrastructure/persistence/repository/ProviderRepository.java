@@ -4,8 +4,11 @@ import com.sonexus.portal.infrastructure.persistence.entity.ProviderEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +17,17 @@ public interface ProviderRepository extends JpaRepository<ProviderEntity, Long>
     Page<ProviderEntity> findByActiveTrue(Pageable pageable);
     Page<ProviderEntity> findByActiveTrueAndNameContainingIgnoreCase(String name, Pageable pageable);
     Page<ProviderEntity> findByActiveTrueAndSpecialtyContainingIgnoreCase(String specialty, Pageable pageable);
+
+    /**
+     * Keyset page of active providers by name, after the given (name, id) position
+     */
+    @Query("SELECT p FROM ProviderEntity p WHERE p.active = true AND " +
+           "(:search IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           "p.name >= :afterName AND (p.name > :afterName OR p.id > :afterId) " +
+           "ORDER BY p.name ASC, p.id ASC")
+    List<ProviderEntity> findActivePageAfter(
+            @Param("search") String search,
+            @Param("afterName") String afterName,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
 }
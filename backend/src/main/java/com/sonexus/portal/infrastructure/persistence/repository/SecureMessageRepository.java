@@ -1,25 +1,39 @@
 package com.sonexus.portal.infrastructure.persistence.repository;
 
 import com.sonexus.portal.infrastructure.persistence.entity.SecureMessageEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface SecureMessageRepository extends JpaRepository<SecureMessageEntity, Long> {
 
-    @Query("SELECT m FROM SecureMessageEntity m " +
-           "LEFT JOIN FETCH m.attachments " +
-           "LEFT JOIN FETCH m.sentBy " +
-           "WHERE m.thread.id = :threadId " +
-           "ORDER BY m.sentAt ASC")
-    List<SecureMessageEntity> findByThreadIdOrderBySentAt(@Param("threadId") Long threadId);
+    /**
+     * Keyset page of a thread's messages, newest first, older than the given id.
+     * Attachments are batch-loaded per page rather than fetch-joined, so the limit stays in SQL.
+     */
+    @Query("SELECT m FROM SecureMessageEntity m JOIN FETCH m.sentBy " +
+           "WHERE m.thread.id = :threadId AND m.id < :beforeId " +
+           "ORDER BY m.id DESC")
+    List<SecureMessageEntity> findPageBefore(
+            @Param("threadId") Long threadId,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable);
 
-    @Query("SELECT COUNT(m) FROM SecureMessageEntity m " +
-           "WHERE m.thread.id = :threadId AND m.readAt IS NULL " +
-           "AND m.sentBy.id != :currentUserId")
-    Long countUnreadMessages(@Param("threadId") Long threadId, @Param("currentUserId") Long currentUserId);
+    /**
+     * Mark every message in a thread not sent by the user as read, in one statement
+     */
+    @Modifying
+    @Query("UPDATE SecureMessageEntity m SET m.readAt = :readAt " +
+           "WHERE m.thread.id = :threadId AND m.readAt IS NULL AND m.sentBy.id <> :userId")
+    int markThreadRead(
+            @Param("threadId") Long threadId,
+            @Param("userId") Long userId,
+            @Param("readAt") LocalDateTime readAt);
 }
@@ -1,6 +1,7 @@
 package com.sonexus.portal.infrastructure.persistence.repository;
 
 import com.sonexus.portal.infrastructure.persistence.entity.SecureMessageThreadEntity;
+import com.sonexus.portal.infrastructure.persistence.projection.ThreadSummaryView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,16 +9,47 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface SecureMessageThreadRepository extends JpaRepository<SecureMessageThreadEntity, Long> {
 
-    @Query("SELECT DISTINCT t FROM SecureMessageThreadEntity t " +
-           "LEFT JOIN FETCH t.messages m " +
-           "LEFT JOIN FETCH m.sentBy " +
-           "WHERE t.createdBy.id = :userId OR EXISTS (" +
-           "  SELECT 1 FROM SecureMessageEntity msg WHERE msg.thread = t AND msg.sentBy.id = :userId" +
-           ")")
-    Page<SecureMessageThreadEntity> findThreadsByUser(@Param("userId") Long userId, Pageable pageable);
+    String INBOX_SELECT = "SELECT t.id AS id, t.subject AS subject, " +
+            "pr.id AS programId, pr.name AS programName, " +
+            "pa.id AS patientId, pa.firstName AS patientFirstName, pa.lastName AS patientLastName, " +
+            "cb.id AS createdById, cb.firstName AS createdByFirstName, cb.lastName AS createdByLastName, " +
+            "t.createdAt AS createdAt, t.lastMessageAt AS lastMessageAt, " +
+            "(SELECT c.unreadCount FROM MessageUnreadCounterEntity c " +
+            "  WHERE c.userId = :userId AND c.threadId = t.id) AS unreadCount " +
+            "FROM SecureMessageThreadEntity t JOIN t.createdBy cb LEFT JOIN t.program pr LEFT JOIN t.patient pa ";
+
+    String PARTICIPANT_FILTER = "(t.createdBy.id = :userId OR EXISTS (" +
+            "  SELECT 1 FROM SecureMessageEntity msg WHERE msg.thread = t AND msg.sentBy.id = :userId" +
+            "))";
+
+    /**
+     * Inbox page for a user, most recently active first. Paginates in SQL and reads unread
+     * counters in the same query; message bodies are never loaded.
+     */
+    @Query(value = INBOX_SELECT + "WHERE " + PARTICIPANT_FILTER + " " +
+           "ORDER BY COALESCE(t.lastMessageAt, t.createdAt) DESC, t.id DESC",
+           countQuery = "SELECT COUNT(t) FROM SecureMessageThreadEntity t WHERE " + PARTICIPANT_FILTER)
+    Page<ThreadSummaryView> findThreadsByUser(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Keyset page of a user's inbox by latest activity, after the given (activityAt, id) position.
+     * Activity is the last message time, or creation time for threads without messages.
+     */
+    @Query(INBOX_SELECT + "WHERE " + PARTICIPANT_FILTER + " " +
+           "AND COALESCE(t.lastMessageAt, t.createdAt) <= :afterActivityAt " +
+           "AND (COALESCE(t.lastMessageAt, t.createdAt) < :afterActivityAt OR t.id < :afterId) " +
+           "ORDER BY COALESCE(t.lastMessageAt, t.createdAt) DESC, t.id DESC")
+    List<ThreadSummaryView> findThreadsByUserAfter(
+            @Param("userId") Long userId,
+            @Param("afterActivityAt") LocalDateTime afterActivityAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
 
     @Query("SELECT t FROM SecureMessageThreadEntity t " +
            "WHERE t.patient.id = :patientId " +
@@ -1,12 +1,19 @@
 package com.sonexus.portal.infrastructure.persistence.repository;
 
 import com.sonexus.portal.infrastructure.persistence.entity.SupportServiceEntity;
+import com.sonexus.portal.infrastructure.persistence.projection.SupportServiceRef;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-
 import java.util.List;
 
 @Repository
 public interface SupportServiceRepository extends JpaRepository<SupportServiceEntity, Long> {
     List<SupportServiceEntity> findByProgramIdAndActiveTrue(Long programId);
+
+    @Query("SELECT new com.sonexus.portal.infrastructure.persistence.projection.SupportServiceRef(" +
+           "s.id, s.program.id, s.name, s.description, s.serviceType, s.active) " +
+           "FROM SupportServiceEntity s WHERE s.program.id = :programId AND s.active = true ORDER BY s.id")
+    List<SupportServiceRef> findActiveRefsByProgramId(@Param("programId") Long programId);
 }
@@ -0,0 +1,408 @@
+package com.sonexus.portal.infrastructure.realtime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+/**
+ * In-process fan-out of Server-Sent Events to connected users.
+ * Connections are async-servlet SseEmitters, so an idle connection holds no request thread.
+ * Sends run on a small dedicated pool so a slow client never blocks the publishing request.
+ * Each stream has its own queue and at most one write in flight, so a stream only ever ties up
+ * one sender thread. A write still running after send-timeout-ms marks the stream stalled: it is
+ * dropped, completed with an error once the write returns, and its thread is replaced in the pool
+ * (up to max-stalled-streams extra threads), so stalled clients cannot starve the others.
+ * A periodic comment line keeps proxies from closing idle streams.
+ */
+@Component
+@Slf4j
+public class SseHub {
+
+    private static final Outgoing HEARTBEAT = new Outgoing(null, null);
+
+    private final Map<Long, Set<Stream>> streamsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ThreadPoolExecutor sender;
+    private final int senderThreads;
+    private final int maxStalledStreams;
+    /** Extra sender threads standing in for threads stuck in a stalled write; guarded by sender */
+    private int stalledWriters;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final int streamQueueCapacity;
+    private final int maxConnectionsPerUser;
+    private final Counter eventsSent;
+    private final Counter eventsDropped;
+    private final Counter streamsStalled;
+
+    public SseHub(
+            MeterRegistry meterRegistry,
+            @Value("${app.messaging.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.messaging.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+            @Value("${app.messaging.stream.sender-threads:2}") int senderThreads,
+            @Value("${app.messaging.stream.send-queue-capacity:10000}") int sendQueueCapacity,
+            @Value("${app.messaging.stream.stream-queue-capacity:100}") int streamQueueCapacity,
+            @Value("${app.messaging.stream.send-timeout-ms:5000}") long sendTimeoutMs,
+            @Value("${app.messaging.stream.max-stalled-streams:32}") int maxStalledStreams) {
+        this.timeoutMs = timeoutMs;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.senderThreads = senderThreads;
+        this.streamQueueCapacity = streamQueueCapacity;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.maxStalledStreams = maxStalledStreams;
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(sendQueueCapacity), daemonThreads("sse-sender-"));
+
+        Gauge.builder("sse.connections", connections, AtomicInteger::get)
+                .description("Open Server-Sent Event connections")
+                .register(meterRegistry);
+        this.eventsSent = Counter.builder("sse.events.sent").register(meterRegistry);
+        this.eventsDropped = Counter.builder("sse.events.dropped")
+                .description("Events not delivered because a queue was full or the client was gone")
+                .register(meterRegistry);
+        this.streamsStalled = Counter.builder("sse.streams.stalled")
+                .description("Streams dropped because a write took longer than the send timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for a user. The oldest stream is closed when the user exceeds the per-user limit.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Stream stream = new Stream(userId, emitter);
+        Set<Stream> streams = streamsByUser.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>());
+
+        if (streams.size() >= maxConnectionsPerUser) {
+            streams.stream().findFirst().ifPresent(oldest -> {
+                remove(oldest);
+                oldest.close();
+            });
+        }
+
+        streams.add(stream);
+        connections.incrementAndGet();
+        emitter.onCompletion(stream::detach);
+        emitter.onTimeout(stream::detach);
+        emitter.onError(e -> stream.detach());
+
+        log.debug("SSE stream opened: userId={}, userStreams={}", userId, streams.size());
+        return emitter;
+    }
+
+    public boolean isConnected(Long userId) {
+        Set<Stream> streams = streamsByUser.get(userId);
+        return streams != null && !streams.isEmpty();
+    }
+
+    /**
+     * Send an event to every open stream of each connected user. The payload is built on the
+     * sender pool and only for users that are connected.
+     */
+    public void send(Collection<Long> userIds, String eventName, LongFunction<Object> payload) {
+        for (Long userId : userIds) {
+            if (!isConnected(userId)) {
+                continue;
+            }
+            try {
+                sender.execute(() -> deliver(userId, new Outgoing(eventName, payload.apply(userId))));
+            } catch (RejectedExecutionException e) {
+                eventsDropped.increment();
+                log.warn("SSE send queue full, dropping {} event for user {}", eventName, userId);
+            }
+        }
+    }
+
+    /**
+     * Queue a heartbeat on every idle stream; a stream with writes queued or in flight needs none
+     */
+    @Scheduled(fixedDelayString = "${app.messaging.stream.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        streamsByUser.values().forEach(streams -> streams.forEach(stream -> stream.enqueue(HEARTBEAT, true)));
+    }
+
+    /**
+     * Drop streams whose current write started more than send-timeout-ms ago
+     */
+    @Scheduled(fixedDelayString = "${app.messaging.stream.stall-check-interval-ms:1000}")
+    public void checkStalledWrites() {
+        long now = System.nanoTime();
+        streamsByUser.values().forEach(streams -> streams.forEach(stream -> {
+            long startedAt = stream.writeStartedAt;
+            if (startedAt != 0 && now - startedAt > sendTimeoutNanos) {
+                stream.stalled();
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        streamsByUser.values().forEach(streams -> streams.forEach(Stream::close));
+        streamsByUser.clear();
+    }
+
+    private void deliver(Long userId, Outgoing event) {
+        Set<Stream> streams = streamsByUser.get(userId);
+        if (streams == null) {
+            return;
+        }
+        for (Stream stream : streams) {
+            if (!stream.enqueue(event, false)) {
+                eventsDropped.increment();
+            }
+        }
+    }
+
+    private void remove(Stream stream) {
+        Set<Stream> streams = streamsByUser.get(stream.userId);
+        if (streams != null && streams.remove(stream)) {
+            connections.decrementAndGet();
+            if (streams.isEmpty()) {
+                streamsByUser.remove(stream.userId, streams);
+            }
+        }
+    }
+
+    /**
+     * Let the pool start a thread in place of one stuck in a stalled write
+     * @return false when max-stalled-streams threads are already stuck
+     */
+    private boolean addStalledWriter() {
+        synchronized (sender) {
+            if (stalledWriters >= maxStalledStreams) {
+                return false;
+            }
+            stalledWriters++;
+            sender.setMaximumPoolSize(senderThreads + stalledWriters);
+            sender.setCorePoolSize(senderThreads + stalledWriters);
+            return true;
+        }
+    }
+
+    private void removeStalledWriter() {
+        synchronized (sender) {
+            stalledWriters--;
+            sender.setCorePoolSize(senderThreads + stalledWriters);
+            sender.setMaximumPoolSize(senderThreads + stalledWriters);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * An event to write; a null name is a heartbeat comment. The builder is created per write
+     * because SseEventBuilder is not reusable.
+     */
+    private record Outgoing(String name, Object data) {
+
+        private SseEmitter.SseEventBuilder toEvent() {
+            return name == null
+                    ? SseEmitter.event().comment("keepalive")
+                    : SseEmitter.event().name(name).data(data);
+        }
+    }
+
+    /**
+     * One open emitter with its pending writes. At most one drain task runs per stream, so writes
+     * to an emitter are serialized and only the drain thread ever blocks on it.
+     */
+    private final class Stream {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Deque<Outgoing> queue = new ArrayDeque<>();
+        /** System.nanoTime() when the write in flight started; 0 when idle */
+        private volatile long writeStartedAt;
+
+        // Guarded by this
+        private boolean draining;
+        private boolean closed;
+        private boolean completed;
+        private boolean stalled;
+        private boolean holdsStalledWriter;
+
+        private Stream(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * @param onlyIfIdle skip the event when a write is queued or in flight
+         * @return false when the event was not queued
+         */
+        private boolean enqueue(Outgoing event, boolean onlyIfIdle) {
+            synchronized (this) {
+                if (closed || (onlyIfIdle && draining)) {
+                    return false;
+                }
+                if (queue.size() >= streamQueueCapacity) {
+                    return false;
+                }
+                queue.add(event);
+                if (draining) {
+                    return true;
+                }
+                draining = true;
+            }
+            try {
+                sender.execute(this::drain);
+                return true;
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    draining = false;
+                    queue.clear();
+                }
+                return false;
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Outgoing event;
+                synchronized (this) {
+                    event = closed ? null : queue.poll();
+                    if (event == null) {
+                        draining = false;
+                        break;
+                    }
+                }
+                writeStartedAt = System.nanoTime();
+                try {
+                    emitter.send(event.toEvent());
+                    eventsSent.increment();
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the container reports it on the next write or timeout anyway
+                    eventsDropped.increment();
+                    remove(this);
+                    close();
+                } finally {
+                    writeStartedAt = 0;
+                    writeReturned();
+                }
+            }
+            boolean mustComplete;
+            synchronized (this) {
+                mustComplete = closed;
+            }
+            if (mustComplete) {
+                complete();
+            }
+        }
+
+        /**
+         * The write in flight passed the send timeout: stop using the stream and free its
+         * sender thread's place in the pool. The emitter is completed with an error as soon as
+         * the write returns; the container's write timeout bounds how long that takes.
+         */
+        private void stalled() {
+            synchronized (this) {
+                if (stalled) {
+                    return;
+                }
+                stalled = true;
+                closed = true;
+                eventsDropped.increment(queue.size());
+                queue.clear();
+            }
+            remove(this);
+            streamsStalled.increment();
+            boolean replaced = addStalledWriter();
+            synchronized (this) {
+                holdsStalledWriter = replaced;
+            }
+            // The write may have returned while the pool was resized
+            if (writeStartedAt == 0) {
+                writeReturned();
+            }
+            log.debug("SSE write to user {} took longer than the send timeout, dropping the stream", userId);
+        }
+
+        private void writeReturned() {
+            boolean release;
+            synchronized (this) {
+                release = holdsStalledWriter;
+                holdsStalledWriter = false;
+            }
+            if (release) {
+                removeStalledWriter();
+            }
+        }
+
+        /**
+         * Stop queueing and complete the emitter; with a drain running, the drain completes it
+         * after its current write so this thread never waits on the emitter
+         */
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+                if (draining) {
+                    return;
+                }
+            }
+            complete();
+        }
+
+        /**
+         * The container completed, timed out or failed the emitter
+         */
+        private void detach() {
+            synchronized (this) {
+                closed = true;
+                completed = true;
+                queue.clear();
+            }
+            remove(this);
+        }
+
+        private void complete() {
+            boolean timedOut;
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+                completed = true;
+                timedOut = stalled;
+            }
+            try {
+                if (timedOut) {
+                    emitter.completeWithError(new TimeoutException("SSE write took longer than the send timeout"));
+                } else {
+                    emitter.complete();
+                }
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+    }
+}
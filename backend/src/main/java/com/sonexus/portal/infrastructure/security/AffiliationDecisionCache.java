@@ -0,0 +1,112 @@
+package com.sonexus.portal.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sonexus.portal.infrastructure.cache.ClusterCacheInvalidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.LongPredicate;
+
+/**
+ * Cached "has an approved provider affiliation" decision per user id.
+ * Denials are kept for a shorter negative-ttl-seconds so a newly approved user is let in quickly
+ * even if an eviction is missed. Verifying an affiliation evicts the user on this node after
+ * commit and on the other nodes through ClusterCacheInvalidator.
+ */
+@Component
+@Slf4j
+public class AffiliationDecisionCache {
+
+    private static final String REGION = "affiliation_decisions";
+
+    private final Cache<Long, Boolean> cache;
+    private final ClusterCacheInvalidator invalidator;
+    private final Counter approvedCounter;
+    private final Counter deniedCounter;
+
+    public AffiliationDecisionCache(
+            ClusterCacheInvalidator invalidator,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.affiliation-cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${app.security.affiliation-cache.negative-ttl-seconds:30}") long negativeTtlSeconds,
+            @Value("${app.security.affiliation-cache.max-size:10000}") long maxSize) {
+        this.invalidator = invalidator;
+        long approvedNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        long deniedNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, Boolean approved, long currentTime) {
+                        return approved ? approvedNanos : deniedNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, Boolean approved, long currentTime, long currentDuration) {
+                        return expireAfterCreate(userId, approved, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, Boolean approved, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, REGION);
+        this.approvedCounter = decisions(meterRegistry, "approved");
+        this.deniedCounter = decisions(meterRegistry, "denied");
+
+        invalidator.register(REGION, key -> {
+            if (ClusterCacheInvalidator.ALL.equals(key)) {
+                cache.invalidateAll();
+            } else {
+                cache.invalidate(Long.valueOf(key));
+            }
+        });
+    }
+
+    /**
+     * Cached decision for the user, loading it on a miss
+     */
+    public boolean isApproved(Long userId, LongPredicate loader) {
+        boolean approved = cache.get(userId, loader::test);
+        (approved ? approvedCounter : deniedCounter).increment();
+        return approved;
+    }
+
+    /**
+     * Forget the user's decision once the current transaction commits, on every node
+     */
+    public void evict(Long userId) {
+        invalidator.broadcast(REGION, userId.toString());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        } else {
+            cache.invalidate(userId);
+        }
+        log.debug("Evicted affiliation decision for user {}", userId);
+    }
+
+    private static Counter decisions(MeterRegistry meterRegistry, String decision) {
+        return Counter.builder("affiliation.checks")
+                .description("Affiliation authorization checks by decision, cached or not")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+}
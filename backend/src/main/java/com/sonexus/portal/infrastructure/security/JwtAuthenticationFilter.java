@@ -9,7 +9,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,6 +18,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Component
@@ -26,7 +26,14 @@ import java.util.stream.Collectors;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /** Browser EventSource cannot set headers, so only the SSE streams accept a stream ticket parameter */
+    private static final String STREAM_PATH = "/api/v1/messages/stream";
+    private static final Pattern BATCH_STREAM_PATH =
+            Pattern.compile("/api/v1/benefits-investigation/batches/[^/]+/events");
+    private static final String TICKET_PARAM = "ticket";
+
     private final AuthProvider authProvider;
+    private final StreamTicketService streamTicketService;
 
     @Override
     protected void doFilterInternal(
@@ -34,15 +41,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
 
-        String authHeader = request.getHeader("Authorization");
-
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
-        String token = authHeader.substring(7);
-        Optional<User> userOpt = authProvider.validateToken(token);
+        Optional<User> userOpt = resolveUser(request);
 
         if (userOpt.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
             User user = userOpt.get();
@@ -51,14 +50,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                     .collect(Collectors.toList());
 
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(user.getEmail(), null, authorities);
+            PortalAuthenticationToken authentication = new PortalAuthenticationToken(user, authorities);
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            log.debug("User {} authenticated with roles: {}", user.getEmail(), user.getRoles());
+            log.debug("User {} authenticated with roles: {}", user.getId(), user.getRoles());
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private Optional<User> resolveUser(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authProvider.validateToken(authHeader.substring(7));
+        }
+
+        if ("GET".equals(request.getMethod()) && isStreamPath(request.getRequestURI())) {
+            String ticket = request.getParameter(TICKET_PARAM);
+            if (ticket != null && !ticket.isBlank()) {
+                return streamTicketService.redeem(ticket);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean isStreamPath(String uri) {
+        return STREAM_PATH.equals(uri) || BATCH_STREAM_PATH.matcher(uri).matches();
+    }
 }
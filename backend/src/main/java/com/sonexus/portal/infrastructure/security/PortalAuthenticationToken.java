@@ -0,0 +1,37 @@
+package com.sonexus.portal.infrastructure.security;
+
+import com.sonexus.portal.domain.model.User;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Authentication carrying the resolved domain User, so the current user can be read
+ * from the security context without a database lookup.
+ */
+public class PortalAuthenticationToken extends AbstractAuthenticationToken {
+
+    private final User user;
+
+    public PortalAuthenticationToken(User user, Collection<? extends GrantedAuthority> authorities) {
+        super(authorities);
+        this.user = user;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public User getPrincipal() {
+        return user;
+    }
+
+    @Override
+    public String getName() {
+        return user.getEmail();
+    }
+}
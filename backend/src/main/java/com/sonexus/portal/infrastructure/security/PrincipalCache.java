@@ -0,0 +1,55 @@
+package com.sonexus.portal.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sonexus.portal.domain.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicted cache of authenticated principals keyed by user id.
+ * Saves the user-plus-roles lookup on every authenticated request; entries are evicted
+ * when the user or a role changes (see PrincipalCacheEvictionListener).
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private final Cache<Long, User> cache;
+
+    public PrincipalCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.security.principal-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    /**
+     * Get the cached principal, loading it on a miss. Absent users are not cached.
+     */
+    public Optional<User> get(Long userId, Function<Long, Optional<User>> loader) {
+        return Optional.ofNullable(cache.get(userId, id -> loader.apply(id).orElse(null)));
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+        log.debug("Evicted cached principal for user {}", userId);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+        log.debug("Evicted all cached principals");
+    }
+}
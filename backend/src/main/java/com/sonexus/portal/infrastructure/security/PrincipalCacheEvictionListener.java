@@ -0,0 +1,30 @@
+package com.sonexus.portal.infrastructure.security;
+
+import com.sonexus.portal.infrastructure.persistence.entity.UserEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that keeps the principal cache consistent with user and role changes.
+ * A role change can affect any user holding it, so it clears the whole cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCacheEvictionListener {
+
+    private final PrincipalCache principalCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        if (entity instanceof UserEntity user) {
+            principalCache.evict(user.getId());
+        } else {
+            principalCache.evictAll();
+        }
+    }
+}
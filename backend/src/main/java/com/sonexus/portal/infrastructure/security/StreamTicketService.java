@@ -0,0 +1,113 @@
+package com.sonexus.portal.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sonexus.portal.domain.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Short-lived tickets for opening Server-Sent Event streams. Browser EventSource cannot send
+ * headers, so the stream URL carries a ticket instead of the session token: it is only accepted
+ * on the stream endpoints, expires after ttl-seconds and is redeemed once per node. Tickets are
+ * signed with a key derived from the JWT secret, so a ticket is never a valid session token and
+ * any node can redeem it.
+ */
+@Component
+@Slf4j
+public class StreamTicketService {
+
+    private static final String PURPOSE = "stream";
+
+    private final SecretKey key;
+    private final Duration ttl;
+    /** Ticket ids already redeemed on this node, kept until the ticket would have expired anyway */
+    private final Cache<String, Boolean> redeemed;
+
+    public StreamTicketService(
+            @Value("${app.security.jwt.secret}") String jwtSecret,
+            @Value("${app.security.stream-ticket.ttl-seconds:60}") long ttlSeconds) {
+        this.key = Keys.hmacShaKeyFor(deriveKey(jwtSecret));
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.redeemed = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Ticket issue(User user) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        String ticket = Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(PURPOSE)
+                .claim("userId", user.getId())
+                .claim("roles", List.copyOf(user.getRoles()))
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(expiresAt))
+                .signWith(key)
+                .compact();
+        return new Ticket(ticket, expiresAt);
+    }
+
+    /**
+     * The principal the ticket was issued to, or empty when it is invalid, expired or already used
+     */
+    public Optional<User> redeem(String ticket) {
+        Claims claims;
+        try {
+            claims = Jwts.parser()
+                    .verifyWith(key)
+                    .build()
+                    .parseSignedClaims(ticket)
+                    .getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected stream ticket: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (!PURPOSE.equals(claims.getSubject()) || claims.getId() == null
+                || redeemed.asMap().putIfAbsent(claims.getId(), Boolean.TRUE) != null) {
+            log.debug("Rejected stream ticket {}: wrong purpose or already used", claims.getId());
+            return Optional.empty();
+        }
+
+        List<?> roles = claims.get("roles", List.class);
+        Set<String> roleNames = new HashSet<>();
+        roles.forEach(role -> roleNames.add(role.toString()));
+        return Optional.of(User.builder()
+                .id(claims.get("userId", Long.class))
+                .roles(roleNames)
+                .build());
+    }
+
+    private static byte[] deriveKey(String jwtSecret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal("stream-ticket".getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to derive the stream ticket key", e);
+        }
+    }
+
+    public record Ticket(String ticket, Instant expiresAt) {
+    }
+}
@@ -1,21 +1,31 @@
 package com.sonexus.portal.service;
 
 import com.sonexus.portal.api.dto.AuditEventResponse;
+import com.sonexus.portal.api.dto.CursorPageResponse;
+import com.sonexus.portal.api.support.CursorCodec;
+import com.sonexus.portal.api.support.CursorPages;
 import com.sonexus.portal.domain.ports.AuthProvider;
+import com.sonexus.portal.infrastructure.audit.AsyncAuditWriter;
+import com.sonexus.portal.infrastructure.audit.AuditRecord;
 import com.sonexus.portal.infrastructure.persistence.entity.AuditEventEntity;
-import com.sonexus.portal.infrastructure.persistence.entity.UserEntity;
 import com.sonexus.portal.infrastructure.persistence.repository.AuditEventRepository;
-import com.sonexus.portal.infrastructure.persistence.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -25,15 +35,17 @@ import java.util.UUID;
 public class AuditService {
 
     private final AuditEventRepository auditEventRepository;
-    private final UserRepository userRepository;
     private final AuthProvider authProvider;
+    private final AsyncAuditWriter auditWriter;
 
-    @Transactional
     public void logEvent(String eventType, String resourceType, Long resourceId, String action) {
         logEvent(eventType, resourceType, resourceId, action, null, null);
     }
 
-    @Transactional
+    /**
+     * Capture the event on the caller thread and hand it to the async writer. Inside a transaction
+     * the event is only submitted after commit, so rolled-back work is not audited.
+     */
     public void logEvent(String eventType, String resourceType, Long resourceId, String action,
                          String correlationId, Map<String, Object> metadata) {
         try {
@@ -41,26 +53,22 @@ public class AuditService {
                     .map(user -> user.getId())
                     .orElse(null);
 
-            UserEntity userEntity = null;
-            if (userId != null) {
-                userEntity = userRepository.findById(userId).orElse(null);
-            }
-
             String ipAddress = getClientIpAddress();
-            String finalCorrelationId = correlationId != null ? correlationId : UUID.randomUUID().toString();
-
-            AuditEventEntity auditEvent = AuditEventEntity.builder()
-                    .eventType(eventType)
-                    .user(userEntity)
-                    .resourceType(resourceType)
-                    .resourceId(resourceId)
-                    .action(action)
-                    .correlationId(finalCorrelationId)
-                    .ipAddress(ipAddress)
-                    .metadata(metadata)
-                    .build();
-
-            auditEventRepository.save(auditEvent);
+            String finalCorrelationId = correlationId != null ? correlationId : currentCorrelationId();
+
+            AuditRecord auditRecord = new AuditRecord(
+                    eventType,
+                    userId,
+                    resourceType,
+                    resourceId,
+                    action,
+                    finalCorrelationId,
+                    ipAddress,
+                    metadata != null ? new LinkedHashMap<>(metadata) : null,
+                    LocalDateTime.now());
+
+            submitAfterCommit(List.of(auditRecord));
+
             log.info("Audit event logged: type={}, resource={}:{}, action={}, correlationId={}",
                     eventType, resourceType, resourceId, action, finalCorrelationId);
         } catch (Exception e) {
@@ -69,6 +77,78 @@ public class AuditService {
         }
     }
 
+    /**
+     * Audit one action on many resources, keyed by resource id with each resource's metadata.
+     * User, IP and correlation id are captured once and the records reach the writer together.
+     */
+    public void logEvents(String eventType, String resourceType, String action,
+                          Map<Long, Map<String, Object>> metadataByResourceId) {
+        if (metadataByResourceId.isEmpty()) {
+            return;
+        }
+        try {
+            logEvents(eventType, resourceType, action, metadataByResourceId, captureContext());
+        } catch (Exception e) {
+            log.error("Failed to log audit events", e);
+        }
+    }
+
+    /**
+     * Like logEvents, attributed to a context captured earlier on the request thread; for work
+     * that finishes on a background thread
+     */
+    public void logEvents(String eventType, String resourceType, String action,
+                          Map<Long, Map<String, Object>> metadataByResourceId, Context context) {
+        if (metadataByResourceId.isEmpty()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+
+            List<AuditRecord> auditRecords = new ArrayList<>(metadataByResourceId.size());
+            metadataByResourceId.forEach((resourceId, metadata) -> auditRecords.add(new AuditRecord(
+                    eventType,
+                    context.userId(),
+                    resourceType,
+                    resourceId,
+                    action,
+                    context.correlationId(),
+                    context.ipAddress(),
+                    metadata != null ? new LinkedHashMap<>(metadata) : null,
+                    now)));
+
+            submitAfterCommit(auditRecords);
+
+            log.info("Audit events logged: type={}, resourceType={}, count={}, action={}, correlationId={}",
+                    eventType, resourceType, auditRecords.size(), action, context.correlationId());
+        } catch (Exception e) {
+            log.error("Failed to log audit events", e);
+        }
+    }
+
+    /**
+     * User, client IP and correlation id of the current request
+     */
+    public Context captureContext() {
+        Long userId = authProvider.getCurrentUser()
+                .map(user -> user.getId())
+                .orElse(null);
+        return new Context(userId, getClientIpAddress(), currentCorrelationId());
+    }
+
+    private void submitAfterCommit(List<AuditRecord> auditRecords) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditRecords.forEach(auditWriter::submit);
+                }
+            });
+        } else {
+            auditRecords.forEach(auditWriter::submit);
+        }
+    }
+
     @Transactional(readOnly = true)
     public Page<AuditEventResponse> getAuditEvents(
             String eventType,
@@ -85,6 +165,37 @@ public class AuditService {
         return events.map(this::mapToResponse);
     }
 
+    /**
+     * Audit events newest first with keyset pagination; the cursor-mode counterpart of getAuditEvents
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AuditEventResponse> getAuditEventsByCursor(
+            String eventType,
+            Long userId,
+            String action,
+            String correlationId,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String cursor,
+            int size) {
+
+        int pageSize = CursorPages.pageSize(size);
+        LocalDateTime afterCreatedAt = CursorPages.LATEST;
+        long afterId = Long.MAX_VALUE;
+        if (!CursorPages.isFirstPage(cursor)) {
+            List<String> key = CursorCodec.decode(cursor, 2);
+            afterCreatedAt = CursorPages.timestamp(key.get(0));
+            afterId = Long.parseLong(key.get(1));
+        }
+
+        List<AuditEventEntity> events = auditEventRepository.findAuditEventsAfter(
+                eventType, userId, action, correlationId, startDate, endDate,
+                afterCreatedAt, afterId, PageRequest.of(0, pageSize + 1));
+
+        return CursorPages.toResponse(events, pageSize, this::mapToResponse,
+                e -> new Object[]{e.getCreatedAt(), e.getId()});
+    }
+
     private AuditEventResponse mapToResponse(AuditEventEntity entity) {
         return AuditEventResponse.builder()
                 .id(entity.getId())
@@ -102,6 +213,11 @@ public class AuditService {
                 .build();
     }
 
+    private String currentCorrelationId() {
+        String correlationId = MDC.get("correlationId");
+        return correlationId != null ? correlationId : UUID.randomUUID().toString();
+    }
+
     private String getClientIpAddress() {
         try {
             ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -117,4 +233,10 @@ public class AuditService {
         }
         return "unknown";
     }
+
+    /**
+     * Who and where an audited action came from
+     */
+    public record Context(Long userId, String ipAddress, String correlationId) {
+    }
 }
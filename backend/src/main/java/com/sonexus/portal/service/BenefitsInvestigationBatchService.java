@@ -0,0 +1,563 @@
+package com.sonexus.portal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sonexus.portal.api.dto.BatchInvestigationItem;
+import com.sonexus.portal.api.dto.BatchInvestigationItemResult;
+import com.sonexus.portal.api.dto.BatchInvestigationJobResponse;
+import com.sonexus.portal.api.dto.BatchInvestigationRequest;
+import com.sonexus.portal.api.exception.ResourceNotFoundException;
+import com.sonexus.portal.domain.model.User;
+import com.sonexus.portal.domain.ports.AuthProvider;
+import com.sonexus.portal.infrastructure.persistence.entity.BenefitsInvestigationEntity;
+import com.sonexus.portal.infrastructure.persistence.entity.PatientEntity;
+import com.sonexus.portal.infrastructure.persistence.entity.ProgramEntity;
+import com.sonexus.portal.infrastructure.persistence.projection.BatchJobRow;
+import com.sonexus.portal.infrastructure.persistence.repository.BenefitsInvestigationBatchJobRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.BenefitsInvestigationBatchRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.PatientRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.ProgramRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs benefits investigations for many patient/type pairs as a background job.
+ * The affiliation check and the patient and program lookups happen once per job; items then
+ * run in parallel on a bounded pool and their results are inserted in JDBC batches. A job runs
+ * on the node that accepted it; its status, and its results once finished, are stored so any
+ * node can answer a status request. The progress stream is only served by the running node.
+ */
+@Service
+@Slf4j
+public class BenefitsInvestigationBatchService {
+
+    private static final Set<String> INVESTIGATION_TYPES = Set.of("MEDICAL", "PHARMACY");
+
+    private final BenefitsInvestigationService investigationService;
+    private final BenefitsInvestigationBatchRepository batchRepository;
+    private final PatientRepository patientRepository;
+    private final ProgramRepository programRepository;
+    private final ProviderAffiliationService affiliationService;
+    private final AuthProvider authProvider;
+    private final AuditService auditService;
+    private final BenefitsInvestigationBatchJobRepository jobRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor;
+    private final Map<String, BatchJob> jobs = new ConcurrentHashMap<>();
+    /** One permit per running job on this node; taken at submit, returned when the job finishes */
+    private final Semaphore jobSlots;
+    private final int maxItems;
+    private final int insertBatchSize;
+    private final Duration retention;
+    private final Duration staleAfter;
+    private final long streamTimeoutMs;
+
+    public BenefitsInvestigationBatchService(
+            BenefitsInvestigationService investigationService,
+            BenefitsInvestigationBatchRepository batchRepository,
+            PatientRepository patientRepository,
+            ProgramRepository programRepository,
+            ProviderAffiliationService affiliationService,
+            AuthProvider authProvider,
+            AuditService auditService,
+            BenefitsInvestigationBatchJobRepository jobRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.benefits.batch.parallelism:8}") int parallelism,
+            @Value("${app.benefits.batch.max-items:1000}") int maxItems,
+            @Value("${app.benefits.batch.max-active-jobs:4}") int maxActiveJobs,
+            @Value("${app.benefits.batch.insert-batch-size:100}") int insertBatchSize,
+            @Value("${app.benefits.batch.retention-minutes:60}") long retentionMinutes,
+            @Value("${app.benefits.batch.stale-minutes:5}") long staleMinutes,
+            @Value("${app.benefits.batch.stream-timeout-ms:600000}") long streamTimeoutMs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.investigationService = investigationService;
+        this.batchRepository = batchRepository;
+        this.patientRepository = patientRepository;
+        this.programRepository = programRepository;
+        this.affiliationService = affiliationService;
+        this.authProvider = authProvider;
+        this.auditService = auditService;
+        this.jobRepository = jobRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobSlots = new Semaphore(maxActiveJobs);
+        this.maxItems = maxItems;
+        this.insertBatchSize = insertBatchSize;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.staleAfter = Duration.ofMinutes(staleMinutes);
+        this.streamTimeoutMs = streamTimeoutMs;
+
+        // Queue holds every item of every admitted job, so accepted work is never rejected.
+        // With virtual threads the pool still caps parallelism, which protects the upstream.
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadFactory threadFactory = virtualThreads
+                ? new VirtualThreadTaskExecutor("bi-batch-").getVirtualThreadFactory()
+                : runnable -> {
+                    Thread thread = new Thread(runnable, "bi-batch-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(maxItems * maxActiveJobs), threadFactory);
+    }
+
+    public BatchInvestigationJobResponse submit(BatchInvestigationRequest request) {
+        User user = authProvider.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("User not authenticated"));
+
+        if (!affiliationService.hasApprovedAffiliation(user.getId())) {
+            throw new RuntimeException("User must have approved affiliation to run benefits investigation");
+        }
+
+        List<BatchInvestigationItem> items = request.getItems();
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("A batch can contain at most " + maxItems + " items");
+        }
+        if (!jobSlots.tryAcquire()) {
+            throw new IllegalArgumentException("Too many batch investigations running, try again later");
+        }
+
+        Map<Long, PatientEntity> patients;
+        Set<Long> programIds;
+        BatchJob job;
+        try {
+            // One query each instead of a lookup per item
+            patients = patientRepository.findAllById(items.stream()
+                            .map(BatchInvestigationItem::getPatientId).collect(Collectors.toSet())).stream()
+                    .collect(Collectors.toMap(PatientEntity::getId, Function.identity()));
+            programIds = programRepository.findAllById(items.stream()
+                            .map(item -> item.getInvestigation().getProgramId()).collect(Collectors.toSet())).stream()
+                    .map(ProgramEntity::getId)
+                    .collect(Collectors.toSet());
+
+            job = new BatchJob(UUID.randomUUID().toString(), user.getId(), items, auditService.captureContext());
+            jobRepository.insert(job.id, job.userId, items.size(), job.createdAt);
+            jobs.put(job.id, job);
+        } catch (RuntimeException e) {
+            jobSlots.release();
+            throw e;
+        }
+
+        auditService.logEvent("BENEFITS_INVESTIGATION_BATCH_SUBMITTED", "BENEFITS_INVESTIGATION", null, "CREATE",
+                null, Map.of("jobId", job.id, "items", items.size()));
+        log.info("Benefits investigation batch submitted: jobId={}, items={}, userId={}", job.id, items.size(), user.getId());
+
+        for (int i = 0; i < items.size(); i++) {
+            BatchInvestigationItem item = items.get(i);
+            PatientEntity patient = patients.get(item.getPatientId());
+            String error = validate(item, patient, programIds);
+            if (error != null) {
+                itemFailed(job, i, error);
+                continue;
+            }
+
+            int index = i;
+            try {
+                executor.execute(() -> runItem(job, index));
+            } catch (RejectedExecutionException e) {
+                itemFailed(job, index, "Batch capacity exceeded");
+            }
+        }
+
+        return job.toResponse(true);
+    }
+
+    /**
+     * Current state of a job started by the current user (admins see all jobs). A job running on
+     * another node reports its counts; results are included once it finishes.
+     */
+    public BatchInvestigationJobResponse getJob(String jobId) {
+        User user = currentUser();
+        BatchJob job = jobs.get(jobId);
+        if (job != null) {
+            checkVisible(jobId, job.userId, user);
+            return job.toResponse(true);
+        }
+        return findStoredJob(jobId, user);
+    }
+
+    /**
+     * Stream "progress" events while the job runs and a final "done" event with all results.
+     * Only the node running the job can stream its progress; elsewhere a finished job gets the
+     * "done" event and a running one is rejected.
+     */
+    public SseEmitter streamJob(String jobId) {
+        User user = currentUser();
+        BatchJob job = jobs.get(jobId);
+        if (job == null) {
+            return streamStoredJob(findStoredJob(jobId, user));
+        }
+        checkVisible(jobId, job.userId, user);
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        job.emitters.add(emitter);
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(e -> job.emitters.remove(emitter));
+
+        // The job may have finished before the emitter was registered
+        if (job.isFinished()) {
+            sendDone(job);
+        } else {
+            send(job, emitter, "progress", job.toResponse(false));
+        }
+        return emitter;
+    }
+
+    /**
+     * Refresh the stored status of jobs running here, mark jobs whose node stopped refreshing
+     * them as INTERRUPTED and drop finished jobs past retention
+     */
+    @Scheduled(fixedDelayString = "${app.benefits.batch.cleanup-interval-ms:60000}")
+    public void removeExpiredJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt.isBefore(cutoff));
+        try {
+            jobs.values().stream()
+                    .filter(job -> !job.isFinished())
+                    .forEach(this::storeProgress);
+            int interrupted = jobRepository.markInterrupted(now.minus(staleAfter));
+            if (interrupted > 0) {
+                log.warn("Marked {} benefits investigation batches interrupted; their node stopped", interrupted);
+            }
+            jobRepository.deleteFinishedBefore(cutoff);
+        } catch (Exception e) {
+            log.error("Failed to maintain stored benefits investigation batches", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private User currentUser() {
+        return authProvider.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("User not authenticated"));
+    }
+
+    private void checkVisible(String jobId, Long ownerId, User user) {
+        if (!Objects.equals(ownerId, user.getId()) && !user.getRoles().contains("ADMIN")) {
+            throw new ResourceNotFoundException("Batch investigation not found: " + jobId);
+        }
+    }
+
+    /**
+     * A job this node does not hold: another node runs it, or it finished before a restart
+     */
+    private BatchInvestigationJobResponse findStoredJob(String jobId, User user) {
+        BatchJobRow row = jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Batch investigation not found: " + jobId));
+        checkVisible(jobId, row.userId(), user);
+        return BatchInvestigationJobResponse.builder()
+                .jobId(row.id())
+                .status(row.status())
+                .total(row.total())
+                .succeeded(row.succeeded())
+                .failed(row.failed())
+                .createdAt(row.createdAt())
+                .finishedAt(row.finishedAt())
+                .results(readResults(row))
+                .build();
+    }
+
+    private SseEmitter streamStoredJob(BatchInvestigationJobResponse job) {
+        if ("RUNNING".equals(job.getStatus())) {
+            throw new IllegalArgumentException("Batch investigation " + job.getJobId()
+                    + " is running on another node; poll its status instead");
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        try {
+            emitter.send(SseEmitter.event().name("done").data(job));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    private List<BatchInvestigationItemResult> readResults(BatchJobRow row) {
+        if (row.results() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(row.results(), new TypeReference<>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable results for batch investigation " + row.id(), e);
+        }
+    }
+
+    private void storeProgress(BatchJob job) {
+        BatchInvestigationJobResponse progress = job.toResponse(false);
+        jobRepository.updateProgress(job.id, progress.getSucceeded(), progress.getFailed());
+    }
+
+    private void storeFinished(BatchJob job) {
+        BatchInvestigationJobResponse done = job.toResponse(true);
+        try {
+            jobRepository.finish(job.id, done.getSucceeded(), done.getFailed(),
+                    objectMapper.writeValueAsString(done.getResults()), done.getFinishedAt());
+        } catch (Exception e) {
+            // Still served from memory here; other nodes see it interrupted once it goes stale
+            log.error("Failed to store finished benefits investigation batch: jobId={}", job.id, e);
+        }
+    }
+
+    private String validate(BatchInvestigationItem item, PatientEntity patient, Set<Long> programIds) {
+        if (patient == null) {
+            return "Patient not found with id: " + item.getPatientId();
+        }
+        if (!programIds.contains(item.getInvestigation().getProgramId())) {
+            return "Program not found with id: " + item.getInvestigation().getProgramId();
+        }
+        String type = item.getInvestigation().getInvestigationType();
+        if (type == null || !INVESTIGATION_TYPES.contains(type.toUpperCase())) {
+            return "Invalid investigation type: " + type;
+        }
+        return null;
+    }
+
+    private void runItem(BatchJob job, int index) {
+        BatchInvestigationItem item = job.items.get(index);
+        BenefitsInvestigationEntity result;
+        try {
+            result = investigationService.investigate(item.getPatientId(), item.getInvestigation(), job.userId);
+        } catch (Exception e) {
+            log.warn("Batch investigation item failed: jobId={}, index={}, patientId={}",
+                    job.id, index, item.getPatientId(), e);
+            itemFailed(job, index, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            return;
+        }
+
+        List<Pending> toInsert = job.addPending(new Pending(index, result), insertBatchSize);
+        if (!toInsert.isEmpty()) {
+            insert(job, toInsert);
+        }
+    }
+
+    private void itemFailed(BatchJob job, int index, String error) {
+        List<Pending> toInsert = job.fail(index, error, true);
+        if (!toInsert.isEmpty()) {
+            insert(job, toInsert);
+        }
+        afterResolved(job);
+    }
+
+    private void insert(BatchJob job, List<Pending> pending) {
+        List<BenefitsInvestigationEntity> rows = pending.stream().map(Pending::result).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batchRepository.insertAll(rows);
+                investigationService.onInvestigationsSaved(rows);
+                auditService.logEvents("BENEFITS_INVESTIGATION_RUN", "BENEFITS_INVESTIGATION", "CREATE",
+                        auditMetadata(job, pending), job.auditContext);
+            });
+            job.saved(pending);
+        } catch (Exception e) {
+            log.error("Failed to save {} batch investigation results: jobId={}", pending.size(), job.id, e);
+            pending.forEach(p -> job.fail(p.index(), "Could not save result", false));
+        }
+        afterResolved(job);
+        if (!job.isFinished()) {
+            try {
+                storeProgress(job);
+            } catch (Exception e) {
+                log.warn("Failed to store benefits investigation batch progress: jobId={}", job.id, e);
+            }
+        }
+    }
+
+    /**
+     * One audit record per saved investigation, as a single run would log, tagged with the job
+     */
+    private Map<Long, Map<String, Object>> auditMetadata(BatchJob job, List<Pending> pending) {
+        Map<Long, Map<String, Object>> metadata = new LinkedHashMap<>();
+        for (Pending p : pending) {
+            metadata.put(p.result().getId(), Map.of("jobId", job.id, "index", p.index()));
+        }
+        return metadata;
+    }
+
+    private void afterResolved(BatchJob job) {
+        if (job.finishIfDone()) {
+            jobSlots.release();
+            log.info("Benefits investigation batch finished: jobId={}, succeeded={}, failed={}",
+                    job.id, job.succeeded, job.failed);
+            storeFinished(job);
+            sendDone(job);
+        } else {
+            BatchInvestigationJobResponse progress = job.toResponse(false);
+            job.emitters.forEach(emitter -> send(job, emitter, "progress", progress));
+        }
+    }
+
+    private void sendDone(BatchJob job) {
+        BatchInvestigationJobResponse done = job.toResponse(true);
+        for (SseEmitter emitter : job.emitters) {
+            if (send(job, emitter, "done", done)) {
+                emitter.complete();
+            }
+        }
+    }
+
+    private boolean send(BatchJob job, SseEmitter emitter, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            job.emitters.remove(emitter);
+            return false;
+        }
+    }
+
+    private record Pending(int index, BenefitsInvestigationEntity result) {
+    }
+
+    /**
+     * Mutable job state, guarded by the job's monitor
+     */
+    private static final class BatchJob {
+        private final String id;
+        private final Long userId;
+        private final List<BatchInvestigationItem> items;
+        private final BatchInvestigationItemResult[] results;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        /** Submitter's audit context; items are saved on pool threads */
+        private final AuditService.Context auditContext;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        private List<Pending> pending = new ArrayList<>();
+        private int investigated; // port call finished or item rejected
+        private int succeeded;
+        private int failed;
+        private volatile LocalDateTime finishedAt;
+
+        private BatchJob(String id, Long userId, List<BatchInvestigationItem> items,
+                         AuditService.Context auditContext) {
+            this.id = id;
+            this.userId = userId;
+            this.auditContext = auditContext;
+            this.items = List.copyOf(items);
+            this.results = new BatchInvestigationItemResult[items.size()];
+        }
+
+        /**
+         * Queue a result for insertion; returns the rows to insert now once a full chunk is pending
+         * or no other item is still being investigated
+         */
+        private synchronized List<Pending> addPending(Pending result, int insertBatchSize) {
+            investigated++;
+            pending.add(result);
+            return takePendingIf(pending.size() >= insertBatchSize);
+        }
+
+        /**
+         * @param uninvestigated true when the item never reached the port or the port call failed
+         */
+        private synchronized List<Pending> fail(int index, String error, boolean uninvestigated) {
+            if (uninvestigated) {
+                investigated++;
+            }
+            results[index] = BatchInvestigationItemResult.builder()
+                    .index(index)
+                    .patientId(items.get(index).getPatientId())
+                    .investigationType(items.get(index).getInvestigation().getInvestigationType())
+                    .error(error)
+                    .build();
+            failed++;
+            return takePendingIf(false);
+        }
+
+        private synchronized void saved(List<Pending> rows) {
+            for (Pending row : rows) {
+                BenefitsInvestigationEntity entity = row.result();
+                results[row.index()] = BatchInvestigationItemResult.builder()
+                        .index(row.index())
+                        .patientId(entity.getPatientId())
+                        .investigationType(entity.getInvestigationType().name())
+                        .investigationId(entity.getId())
+                        .coverageStatus(entity.getCoverageStatus())
+                        .coverageType(entity.getCoverageType())
+                        .priorAuthRequired(entity.getPriorAuthRequired())
+                        .build();
+                succeeded++;
+            }
+        }
+
+        /**
+         * @return true exactly once, when the last item is resolved
+         */
+        private synchronized boolean finishIfDone() {
+            if (finishedAt == null && succeeded + failed == results.length) {
+                finishedAt = LocalDateTime.now();
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        private synchronized BatchInvestigationJobResponse toResponse(boolean includeResults) {
+            return BatchInvestigationJobResponse.builder()
+                    .jobId(id)
+                    .status(finishedAt != null ? "COMPLETED" : "RUNNING")
+                    .total(results.length)
+                    .succeeded(succeeded)
+                    .failed(failed)
+                    .createdAt(createdAt)
+                    .finishedAt(finishedAt)
+                    .results(includeResults
+                            ? Arrays.stream(results).filter(Objects::nonNull).toList()
+                            : null)
+                    .build();
+        }
+
+        private List<Pending> takePendingIf(boolean chunkFull) {
+            if (pending.isEmpty() || !(chunkFull || investigated == results.length)) {
+                return List.of();
+            }
+            List<Pending> taken = pending;
+            pending = new ArrayList<>();
+            return taken;
+        }
+    }
+}
@@ -2,21 +2,21 @@ package com.sonexus.portal.service;
 
 import com.sonexus.portal.api.dto.BenefitsInvestigationRequestDto;
 import com.sonexus.portal.api.dto.BenefitsInvestigationResponseDto;
+import com.sonexus.portal.domain.events.BenefitsInvestigationCompletedEvent;
 import com.sonexus.portal.domain.model.BenefitsInvestigationRequest;
 import com.sonexus.portal.domain.model.BenefitsInvestigationResult;
+import com.sonexus.portal.domain.model.User;
+import com.sonexus.portal.domain.ports.AuthProvider;
 import com.sonexus.portal.domain.ports.BenefitsInvestigationPort;
+import com.sonexus.portal.domain.ports.EventBusPort;
 import com.sonexus.portal.infrastructure.persistence.entity.BenefitsInvestigationEntity;
 import com.sonexus.portal.infrastructure.persistence.entity.PatientEntity;
 import com.sonexus.portal.infrastructure.persistence.entity.ProgramEntity;
-import com.sonexus.portal.infrastructure.persistence.entity.UserEntity;
 import com.sonexus.portal.infrastructure.persistence.repository.BenefitsInvestigationRepository;
 import com.sonexus.portal.infrastructure.persistence.repository.PatientRepository;
 import com.sonexus.portal.infrastructure.persistence.repository.ProgramRepository;
-import com.sonexus.portal.infrastructure.persistence.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,19 +33,19 @@ public class BenefitsInvestigationService {
     private final BenefitsInvestigationRepository investigationRepository;
     private final PatientRepository patientRepository;
     private final ProgramRepository programRepository;
-    private final UserRepository userRepository;
+    private final AuthProvider authProvider;
     private final ProviderAffiliationService affiliationService;
     private final AuditService auditService;
+    private final NextActionProjector nextActionProjector;
+    private final EventBusPort eventBus;
 
     @Transactional
     public BenefitsInvestigationResponseDto runInvestigation(Long patientId, BenefitsInvestigationRequestDto requestDto) {
         log.info("Running benefits investigation for patient {}", patientId);
 
         // Verify user has approved affiliation
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String userEmail = authentication.getName();
-        UserEntity user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = authProvider.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("User not authenticated"));
 
         if (!affiliationService.hasApprovedAffiliation(user.getId())) {
             throw new RuntimeException("User must have approved affiliation to run benefits investigation");
@@ -59,6 +59,29 @@ public class BenefitsInvestigationService {
         ProgramEntity program = programRepository.findById(requestDto.getProgramId())
                 .orElseThrow(() -> new RuntimeException("Program not found with id: " + requestDto.getProgramId()));
 
+        BenefitsInvestigationEntity entity = investigate(patientId, requestDto, user.getId());
+
+        BenefitsInvestigationEntity saved = investigationRepository.save(entity);
+        onInvestigationSaved(saved, patient);
+
+        // Audit log
+        auditService.logEvent(
+                "BENEFITS_INVESTIGATION_RUN",
+                "BENEFITS_INVESTIGATION",
+                saved.getId(),
+                "CREATE"
+        );
+
+        log.info("Benefits investigation completed and saved with id {}", saved.getId());
+
+        return mapToResponseDto(saved);
+    }
+
+    /**
+     * Call the benefits port and build the unsaved result row. Shared with batch jobs, which
+     * validate patients and programs up front and insert results in bulk.
+     */
+    BenefitsInvestigationEntity investigate(Long patientId, BenefitsInvestigationRequestDto requestDto, Long userId) {
         // Build domain request
         BenefitsInvestigationRequest domainRequest = BenefitsInvestigationRequest.builder()
                 .patientId(patientId)
@@ -82,8 +105,7 @@ public class BenefitsInvestigationService {
             throw new RuntimeException("Invalid investigation type: " + requestDto.getInvestigationType());
         }
 
-        // Save investigation to database
-        BenefitsInvestigationEntity entity = BenefitsInvestigationEntity.builder()
+        return BenefitsInvestigationEntity.builder()
                 .patientId(patientId)
                 .programId(requestDto.getProgramId())
                 .investigationType(BenefitsInvestigationEntity.InvestigationType.valueOf(
@@ -100,22 +122,40 @@ public class BenefitsInvestigationService {
                 .specialtyPharmacyRequired(result.getSpecialtyPharmacyRequired())
                 .notes(result.getNotes())
                 .resultPayload(result.getAdditionalData())
-                .createdById(user.getId())
+                .expiresAt(result.getValidUntil())
+                .createdById(userId)
                 .build();
+    }
 
-        BenefitsInvestigationEntity saved = investigationRepository.save(entity);
-
-        // Audit log
-        auditService.logEvent(
-                "BENEFITS_INVESTIGATION_RUN",
-                "BENEFITS_INVESTIGATION",
-                saved.getId(),
-                "CREATE"
-        );
+    /**
+     * Side effects of a stored investigation: next-action projection and the completion event
+     */
+    void onInvestigationSaved(BenefitsInvestigationEntity saved, PatientEntity patient) {
+        nextActionProjector.onBenefitsInvestigationCompleted(saved, patient);
+        eventBus.publish(completedEvent(saved));
+    }
 
-        log.info("Benefits investigation completed and saved with id {}", saved.getId());
+    /**
+     * Side effects of investigations stored together, with one projection statement pair and one event write
+     */
+    void onInvestigationsSaved(List<BenefitsInvestigationEntity> saved) {
+        nextActionProjector.onBenefitsInvestigationsCompleted(saved.stream()
+                .map(BenefitsInvestigationEntity::getId)
+                .toList());
+        eventBus.publishAll(saved.stream()
+                .map(BenefitsInvestigationService::completedEvent)
+                .toList());
+    }
 
-        return mapToResponseDto(saved);
+    private static BenefitsInvestigationCompletedEvent completedEvent(BenefitsInvestigationEntity saved) {
+        return new BenefitsInvestigationCompletedEvent(
+                saved.getId(),
+                saved.getPatientId(),
+                saved.getProgramId(),
+                saved.getInvestigationType().name(),
+                saved.getCoverageStatus(),
+                saved.getExpiresAt(),
+                saved.getCreatedById());
     }
 
     @Transactional(readOnly = true)
@@ -2,10 +2,12 @@ package com.sonexus.portal.service;
 
 import com.sonexus.portal.api.dto.NextActionResponse;
 import com.sonexus.portal.domain.ports.AuthProvider;
-import com.sonexus.portal.infrastructure.persistence.entity.*;
-import com.sonexus.portal.infrastructure.persistence.repository.*;
+import com.sonexus.portal.infrastructure.persistence.projection.NextActionRow;
+import com.sonexus.portal.infrastructure.persistence.projection.UnreadSummary;
+import com.sonexus.portal.infrastructure.persistence.repository.NextActionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,11 +23,11 @@ import java.util.UUID;
 public class DashboardService {
 
     private final AuthProvider authProvider;
-    private final EnrollmentRepository enrollmentRepository;
-    private final BenefitsInvestigationRepository benefitsInvestigationRepository;
-    private final PatientRepository patientRepository;
-    private final PatientServiceEnrollmentRepository patientServiceEnrollmentRepository;
-    private final SecureMessageThreadRepository messageThreadRepository;
+    private final NextActionRepository nextActionRepository;
+    private final UnreadCounterService unreadCounterService;
+
+    @Value("${app.dashboard.max-actions-per-rule:50}")
+    private int maxActionsPerRule;
 
     @Transactional(readOnly = true)
     public List<NextActionResponse> getNextActions() {
@@ -33,19 +35,23 @@ public class DashboardService {
                 .orElseThrow(() -> new RuntimeException("User not authenticated"))
                 .getId();
 
+        LocalDateTime now = LocalDateTime.now();
         List<NextActionResponse> actions = new ArrayList<>();
 
-        // Rule 1: Check for enrollments submitted > 7 days ago without status update
-        actions.addAll(checkStaleEnrollments());
-
-        // Rule 2: Check for expired benefits investigations
-        actions.addAll(checkExpiredBenefits());
-
-        // Rule 3: Check for patients with no active services
-        actions.addAll(checkPatientsWithoutServices());
+        // Rules are maintained incrementally in next_actions; due_at makes time-based rules visible on read
+        for (NextActionRow row : nextActionRepository.findVisibleForUser(userId, now, maxActionsPerRule)) {
+            switch (row.actionType()) {
+                case NextActionRepository.ENROLLMENT -> actions.add(toStaleEnrollmentAction(row, now));
+                case NextActionRepository.BENEFITS -> actions.add(toExpiredBenefitsAction(row, now));
+                case NextActionRepository.SERVICE -> actions.add(toMissingServiceAction(row));
+                default -> log.warn("Unknown next action type: {}", row.actionType());
+            }
+        }
 
-        // Rule 4: Check for unread messages
-        actions.addAll(checkUnreadMessages(userId));
+        UnreadSummary unread = unreadCounterService.getSummary(userId);
+        if (unread.threadsWithUnread() > 0) {
+            actions.add(toUnreadMessagesAction(unread.threadsWithUnread()));
+        }
 
         // Sort by priority and days overdue
         actions.sort((a, b) -> {
@@ -61,127 +67,68 @@ public class DashboardService {
         return actions;
     }
 
-    private List<NextActionResponse> checkStaleEnrollments() {
-        List<NextActionResponse> actions = new ArrayList<>();
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-
-        List<EnrollmentEntity> staleEnrollments = enrollmentRepository.findAll().stream()
-                .filter(e -> "SUBMITTED".equals(e.getStatus()) &&
-                        e.getSubmittedAt() != null &&
-                        e.getSubmittedAt().isBefore(sevenDaysAgo))
-                .toList();
-
-        for (EnrollmentEntity enrollment : staleEnrollments) {
-            long daysOverdue = ChronoUnit.DAYS.between(enrollment.getSubmittedAt(), LocalDateTime.now());
-
-            actions.add(NextActionResponse.builder()
-                    .id(UUID.randomUUID().toString())
-                    .title("Follow up on enrollment")
-                    .description("Enrollment for " + enrollment.getPatient().getFirstName() + " " +
-                            enrollment.getPatient().getLastName() + " has been pending for " + daysOverdue + " days")
-                    .actionType("ENROLLMENT")
-                    .priority(daysOverdue > 14 ? "HIGH" : "MEDIUM")
-                    .resourceId(enrollment.getId())
-                    .resourceName(enrollment.getPatient().getFirstName() + " " + enrollment.getPatient().getLastName())
-                    .actionUrl("/patients/" + enrollment.getPatient().getId())
-                    .icon("schedule")
-                    .daysOverdue((int) daysOverdue)
-                    .build());
-        }
-
-        return actions;
+    private NextActionResponse toStaleEnrollmentAction(NextActionRow row, LocalDateTime now) {
+        long daysOverdue = ChronoUnit.DAYS.between(row.referenceAt(), now);
+
+        return NextActionResponse.builder()
+                .id(UUID.randomUUID().toString())
+                .title("Follow up on enrollment")
+                .description("Enrollment for " + row.patientName() + " has been pending for " + daysOverdue + " days")
+                .actionType("ENROLLMENT")
+                .priority(daysOverdue > 14 ? "HIGH" : "MEDIUM")
+                .resourceId(row.resourceId())
+                .resourceName(row.patientName())
+                .actionUrl("/patients/" + row.patientId())
+                .icon("schedule")
+                .daysOverdue((int) daysOverdue)
+                .build();
     }
 
-    private List<NextActionResponse> checkExpiredBenefits() {
-        List<NextActionResponse> actions = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
-
-        List<BenefitsInvestigationEntity> expiredBenefits = benefitsInvestigationRepository.findAll().stream()
-                .filter(bi -> bi.getExpiresAt() != null && bi.getExpiresAt().isBefore(now))
-                .toList();
-
-        for (BenefitsInvestigationEntity bi : expiredBenefits) {
-            long daysExpired = ChronoUnit.DAYS.between(bi.getExpiresAt(), now);
-
-            actions.add(NextActionResponse.builder()
-                    .id(UUID.randomUUID().toString())
-                    .title("Re-run benefits investigation")
-                    .description("Benefits investigation for " + bi.getPatient().getFirstName() + " " +
-                            bi.getPatient().getLastName() + " expired " + daysExpired + " days ago")
-                    .actionType("BENEFITS")
-                    .priority(daysExpired > 30 ? "HIGH" : "MEDIUM")
-                    .resourceId(bi.getPatient().getId())
-                    .resourceName(bi.getPatient().getFirstName() + " " + bi.getPatient().getLastName())
-                    .actionUrl("/patients/" + bi.getPatient().getId())
-                    .icon("update")
-                    .daysOverdue((int) daysExpired)
-                    .build());
-        }
-
-        return actions;
+    private NextActionResponse toExpiredBenefitsAction(NextActionRow row, LocalDateTime now) {
+        long daysExpired = ChronoUnit.DAYS.between(row.referenceAt(), now);
+
+        return NextActionResponse.builder()
+                .id(UUID.randomUUID().toString())
+                .title("Re-run benefits investigation")
+                .description("Benefits investigation for " + row.patientName() + " expired " + daysExpired + " days ago")
+                .actionType("BENEFITS")
+                .priority(daysExpired > 30 ? "HIGH" : "MEDIUM")
+                .resourceId(row.patientId())
+                .resourceName(row.patientName())
+                .actionUrl("/patients/" + row.patientId())
+                .icon("update")
+                .daysOverdue((int) daysExpired)
+                .build();
     }
 
-    private List<NextActionResponse> checkPatientsWithoutServices() {
-        List<NextActionResponse> actions = new ArrayList<>();
-
-        List<PatientEntity> allPatients = patientRepository.findAll();
-
-        for (PatientEntity patient : allPatients) {
-            List<PatientServiceEnrollmentEntity> services =
-                    patientServiceEnrollmentRepository.findByPatientId(patient.getId());
-
-            boolean hasActiveServices = services.stream()
-                    .anyMatch(s -> "ACTIVE".equals(s.getStatus()));
-
-            if (!hasActiveServices) {
-                actions.add(NextActionResponse.builder()
-                        .id(UUID.randomUUID().toString())
-                        .title("Enroll in support services")
-                        .description(patient.getFirstName() + " " + patient.getLastName() +
-                                " is not enrolled in any support services")
-                        .actionType("SERVICE")
-                        .priority("LOW")
-                        .resourceId(patient.getId())
-                        .resourceName(patient.getFirstName() + " " + patient.getLastName())
-                        .actionUrl("/patients/" + patient.getId())
-                        .icon("add_circle")
-                        .daysOverdue(null)
-                        .build());
-            }
-        }
-
-        return actions;
+    private NextActionResponse toMissingServiceAction(NextActionRow row) {
+        return NextActionResponse.builder()
+                .id(UUID.randomUUID().toString())
+                .title("Enroll in support services")
+                .description(row.patientName() + " is not enrolled in any support services")
+                .actionType("SERVICE")
+                .priority("LOW")
+                .resourceId(row.patientId())
+                .resourceName(row.patientName())
+                .actionUrl("/patients/" + row.patientId())
+                .icon("add_circle")
+                .daysOverdue(null)
+                .build();
     }
 
-    private List<NextActionResponse> checkUnreadMessages(Long userId) {
-        List<NextActionResponse> actions = new ArrayList<>();
-
-        // Get threads where user has unread messages
-        List<SecureMessageThreadEntity> threadsWithUnread = messageThreadRepository.findAll().stream()
-                .filter(thread -> {
-                    long unreadCount = thread.getMessages().stream()
-                            .filter(m -> m.getReadAt() == null && !m.getSentBy().getId().equals(userId))
-                            .count();
-                    return unreadCount > 0;
-                })
-                .toList();
-
-        if (!threadsWithUnread.isEmpty()) {
-            actions.add(NextActionResponse.builder()
-                    .id(UUID.randomUUID().toString())
-                    .title("Review unread messages")
-                    .description("You have " + threadsWithUnread.size() + " message thread(s) with unread messages")
-                    .actionType("MESSAGE")
-                    .priority("MEDIUM")
-                    .resourceId(null)
-                    .resourceName(null)
-                    .actionUrl("/messages")
-                    .icon("mail")
-                    .daysOverdue(null)
-                    .build());
-        }
-
-        return actions;
+    private NextActionResponse toUnreadMessagesAction(long threadsWithUnread) {
+        return NextActionResponse.builder()
+                .id(UUID.randomUUID().toString())
+                .title("Review unread messages")
+                .description("You have " + threadsWithUnread + " message thread(s) with unread messages")
+                .actionType("MESSAGE")
+                .priority("MEDIUM")
+                .resourceId(null)
+                .resourceName(null)
+                .actionUrl("/messages")
+                .icon("mail")
+                .daysOverdue(null)
+                .build();
     }
 
     private int getPriorityValue(String priority) {
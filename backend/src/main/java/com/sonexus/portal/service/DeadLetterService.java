@@ -0,0 +1,81 @@
+package com.sonexus.portal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sonexus.portal.api.dto.DeadLetterEventResponse;
+import com.sonexus.portal.api.exception.ResourceNotFoundException;
+import com.sonexus.portal.domain.events.DomainEvent;
+import com.sonexus.portal.infrastructure.adapters.InMemoryEventBusAdapter;
+import com.sonexus.portal.infrastructure.persistence.projection.DeadLetterEventRow;
+import com.sonexus.portal.infrastructure.persistence.repository.DeadLetterEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Lists and replays dead-lettered events. A dead letter is recorded per handler, so a replayed event
+ * goes back onto the in-process bus for that handler only; handlers that already succeeded do not
+ * see it again. Events that never reached a handler go to all of them. If it fails again it is
+ * dead-lettered again as a new row.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterService {
+
+    private static final int MAX_LIST_SIZE = 500;
+
+    private final DeadLetterEventRepository deadLetterEventRepository;
+    private final InMemoryEventBusAdapter inMemoryEventBus;
+    private final AuditService auditService;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public List<DeadLetterEventResponse> getPendingDeadLetters(int limit) {
+        return deadLetterEventRepository.findPending(Math.min(Math.max(limit, 1), MAX_LIST_SIZE)).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    /**
+     * Hand the event back to its recorded handler once this transaction commits
+     */
+    @Transactional
+    public DeadLetterEventResponse replay(Long id) {
+        DeadLetterEventRow row = deadLetterEventRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Dead letter not found: " + id));
+
+        DomainEvent event;
+        try {
+            event = objectMapper.readValue(row.payload(), DomainEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Dead letter " + id + " has an unreadable payload", e);
+        }
+        if (!deadLetterEventRepository.markReplayed(id)) {
+            throw new IllegalArgumentException("Dead letter " + id + " was already replayed");
+        }
+
+        inMemoryEventBus.replay(event, row.handler());
+        auditService.logEvent("DEAD_LETTER_REPLAYED", "DEAD_LETTER_EVENT", id, "REPLAY");
+        log.info("Replaying dead letter: id={}, type={}, eventId={}", id, row.eventType(), row.eventId());
+
+        return deadLetterEventRepository.findById(id).map(this::toResponse).orElseThrow();
+    }
+
+    private DeadLetterEventResponse toResponse(DeadLetterEventRow row) {
+        return DeadLetterEventResponse.builder()
+                .id(row.id())
+                .eventId(row.eventId())
+                .eventType(row.eventType())
+                .aggregateId(row.aggregateId())
+                .handler(row.handler())
+                .reason(row.reason())
+                .attempts(row.attempts())
+                .createdAt(row.createdAt())
+                .replayedAt(row.replayedAt())
+                .build();
+    }
+}
@@ -4,7 +4,10 @@ import com.sonexus.portal.api.dto.EnrollmentRequest;
 import com.sonexus.portal.api.dto.EnrollmentResponse;
 import com.sonexus.portal.api.dto.ProgramResponse;
 import com.sonexus.portal.api.dto.ProviderResponse;
+import com.sonexus.portal.domain.events.EnrollmentStatusChangedEvent;
 import com.sonexus.portal.domain.ports.AuthProvider;
+import com.sonexus.portal.domain.ports.EventBusPort;
+import com.sonexus.portal.infrastructure.cache.ReferenceDataCache;
 import com.sonexus.portal.infrastructure.persistence.entity.*;
 import com.sonexus.portal.infrastructure.persistence.entity.EnrollmentEntity.EnrollmentStatus;
 import com.sonexus.portal.infrastructure.persistence.repository.*;
@@ -27,11 +30,15 @@ public class EnrollmentService {
     private final EnrollmentRepository enrollmentRepository;
     private final PatientRepository patientRepository;
     private final ProgramRepository programRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final ProviderRepository providerRepository;
     private final UserRepository userRepository;
     private final EnrollmentStatusHistoryRepository statusHistoryRepository;
+    private final EnrollmentStatusBatchRepository statusBatchRepository;
     private final AuthProvider authProvider;
     private final AuditService auditService;
+    private final NextActionProjector nextActionProjector;
+    private final EventBusPort eventBus;
 
     @Transactional
     public EnrollmentResponse createOrUpdateEnrollment(Long patientId, EnrollmentRequest request) {
@@ -42,8 +49,9 @@ public class EnrollmentService {
         PatientEntity patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new RuntimeException("Patient not found"));
 
-        ProgramEntity program = programRepository.findById(request.getProgramId())
+        referenceDataCache.getProgram(request.getProgramId())
                 .orElseThrow(() -> new RuntimeException("Program not found"));
+        ProgramEntity program = programRepository.getReferenceById(request.getProgramId());
 
         UserEntity createdBy = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -93,6 +101,7 @@ public class EnrollmentService {
         }
 
         EnrollmentEntity saved = enrollmentRepository.save(enrollment);
+        nextActionProjector.onEnrollmentStatusChanged(saved);
 
         // Record status history if submitted
         if (request.getSubmit()) {
@@ -133,17 +142,26 @@ public class EnrollmentService {
                 .orElseThrow(() -> new RuntimeException("User not authenticated"))
                 .getId();
 
-        UserEntity changedBy = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // The authenticated user exists; history only needs the id
+        UserEntity changedBy = userRepository.getReferenceById(userId);
 
+        // Check the transition on the locked row, as the bulk path does, so it cannot race another change
+        statusBatchRepository.lockAll(List.of(id));
         EnrollmentEntity enrollment = enrollmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Enrollment not found"));
 
         EnrollmentStatus oldStatus = enrollment.getStatus();
+        if (!oldStatus.canChangeTo(newStatus)) {
+            throw new IllegalArgumentException("Cannot change status from " + oldStatus + " to " + newStatus);
+        }
         enrollment.setStatus(newStatus);
+        if (newStatus == EnrollmentStatus.SUBMITTED) {
+            enrollment.setSubmittedAt(LocalDateTime.now());
+        }
 
         EnrollmentEntity updated = enrollmentRepository.save(enrollment);
         recordStatusChange(updated, oldStatus, newStatus, reason, changedBy);
+        nextActionProjector.onEnrollmentStatusChanged(updated);
 
         log.info("Enrollment status updated: id={}, from={}, to={}, by={}", id, oldStatus, newStatus, userId);
 
@@ -161,15 +179,27 @@ public class EnrollmentService {
                 .build();
 
         statusHistoryRepository.save(history);
+
+        eventBus.publish(new EnrollmentStatusChangedEvent(
+                enrollment.getId(),
+                enrollment.getPatient().getId(),
+                enrollment.getProgram().getId(),
+                fromStatus != null ? fromStatus.name() : null,
+                toStatus.name(),
+                reason,
+                changedBy.getId()));
     }
 
     private EnrollmentResponse mapToResponse(EnrollmentEntity entity) {
-        ProgramResponse programResponse = ProgramResponse.builder()
-                .id(entity.getProgram().getId())
-                .name(entity.getProgram().getName())
-                .description(entity.getProgram().getDescription())
-                .active(entity.getProgram().getActive())
-                .build();
+        Long programId = entity.getProgram().getId();
+        ProgramResponse programResponse = referenceDataCache.getProgram(programId)
+                .map(program -> ProgramResponse.builder()
+                        .id(program.id())
+                        .name(program.name())
+                        .description(program.description())
+                        .active(program.active())
+                        .build())
+                .orElseThrow(() -> new RuntimeException("Program not found: " + programId));
 
         ProviderResponse prescriberResponse = null;
         if (entity.getPrescriber() != null) {
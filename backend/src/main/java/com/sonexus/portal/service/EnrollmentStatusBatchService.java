@@ -0,0 +1,220 @@
+package com.sonexus.portal.service;
+
+import com.sonexus.portal.api.dto.BulkEnrollmentStatusRequest;
+import com.sonexus.portal.api.dto.BulkEnrollmentStatusResponse;
+import com.sonexus.portal.api.dto.EnrollmentStatusTransition;
+import com.sonexus.portal.api.dto.EnrollmentStatusTransitionResult;
+import com.sonexus.portal.domain.events.EnrollmentStatusChangedEvent;
+import com.sonexus.portal.domain.ports.AuthProvider;
+import com.sonexus.portal.domain.ports.EventBusPort;
+import com.sonexus.portal.infrastructure.persistence.entity.EnrollmentEntity.EnrollmentStatus;
+import com.sonexus.portal.infrastructure.persistence.entity.EnrollmentStatusHistoryEntity;
+import com.sonexus.portal.infrastructure.persistence.entity.UserEntity;
+import com.sonexus.portal.infrastructure.persistence.projection.EnrollmentTransitionRow;
+import com.sonexus.portal.infrastructure.persistence.repository.EnrollmentRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.EnrollmentStatusBatchRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies many enrollment status transitions in one transaction with set-based statements: one
+ * UPDATE ... RETURNING per target status, then one batch each for history rows and outbox events
+ * and one statement each for the next-action projection. Each transition gets its own outcome;
+ * transitions that EnrollmentStatus does not allow from the enrollment's current status are
+ * reported and skipped without failing the rest.
+ */
+@Service
+@Slf4j
+public class EnrollmentStatusBatchService {
+
+    private final EnrollmentStatusBatchRepository statusBatchRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final UserRepository userRepository;
+    private final AuthProvider authProvider;
+    private final AuditService auditService;
+    private final NextActionProjector nextActionProjector;
+    private final EventBusPort eventBus;
+    private final int maxTransitions;
+
+    public EnrollmentStatusBatchService(
+            EnrollmentStatusBatchRepository statusBatchRepository,
+            EnrollmentRepository enrollmentRepository,
+            UserRepository userRepository,
+            AuthProvider authProvider,
+            AuditService auditService,
+            NextActionProjector nextActionProjector,
+            EventBusPort eventBus,
+            @Value("${app.enrollments.bulk.max-transitions:500}") int maxTransitions) {
+        this.statusBatchRepository = statusBatchRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.userRepository = userRepository;
+        this.authProvider = authProvider;
+        this.auditService = auditService;
+        this.nextActionProjector = nextActionProjector;
+        this.eventBus = eventBus;
+        this.maxTransitions = maxTransitions;
+    }
+
+    @Transactional
+    public BulkEnrollmentStatusResponse transition(BulkEnrollmentStatusRequest request) {
+        List<EnrollmentStatusTransition> transitions = request.getTransitions();
+        if (transitions.size() > maxTransitions) {
+            throw new IllegalArgumentException("A request can contain at most " + maxTransitions + " transitions");
+        }
+
+        Long userId = authProvider.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("User not authenticated"))
+                .getId();
+
+        EnrollmentStatusTransitionResult[] results = new EnrollmentStatusTransitionResult[transitions.size()];
+
+        // Target status -> enrollment id -> index in the request; the first transition of an enrollment wins
+        Map<EnrollmentStatus, Map<Long, Integer>> byTarget = new EnumMap<>(EnrollmentStatus.class);
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < transitions.size(); i++) {
+            EnrollmentStatusTransition transition = transitions.get(i);
+            if (!seen.add(transition.getEnrollmentId())) {
+                results[i] = rejected(i, transition, null, "Enrollment appears more than once in the request");
+            } else {
+                byTarget.computeIfAbsent(transition.getStatus(), status -> new LinkedHashMap<>())
+                        .put(transition.getEnrollmentId(), i);
+            }
+        }
+
+        // All rows up front in one id order; one lock per target status would interleave
+        statusBatchRepository.lockAll(seen);
+
+        LocalDateTime now = LocalDateTime.now();
+        UserEntity changedBy = userRepository.getReferenceById(userId);
+        List<EnrollmentStatusHistoryEntity> history = new ArrayList<>();
+        List<EnrollmentStatusChangedEvent> events = new ArrayList<>();
+        List<Long> submittedIds = new ArrayList<>();
+        List<Long> otherIds = new ArrayList<>();
+
+        for (Map.Entry<EnrollmentStatus, Map<Long, Integer>> group : byTarget.entrySet()) {
+            EnrollmentStatus toStatus = group.getKey();
+            Map<Long, Integer> indexes = group.getValue();
+            Map<Long, Map<String, Object>> auditMetadata = new LinkedHashMap<>();
+
+            List<EnrollmentTransitionRow> rows = statusBatchRepository.transitionAll(
+                    indexes.keySet(), toStatus, toStatus.allowedSources(), now);
+
+            for (EnrollmentTransitionRow row : rows) {
+                int index = indexes.get(row.enrollmentId());
+                String reason = transitions.get(index).getReason();
+
+                results[index] = EnrollmentStatusTransitionResult.builder()
+                        .index(index)
+                        .enrollmentId(row.enrollmentId())
+                        .fromStatus(row.fromStatus())
+                        .toStatus(toStatus.name())
+                        .applied(true)
+                        .build();
+
+                history.add(EnrollmentStatusHistoryEntity.builder()
+                        .enrollment(enrollmentRepository.getReferenceById(row.enrollmentId()))
+                        .fromStatus(row.fromStatus())
+                        .toStatus(toStatus.name())
+                        .reason(reason)
+                        .changedBy(changedBy)
+                        .changedAt(now)
+                        .build());
+
+                events.add(new EnrollmentStatusChangedEvent(
+                        row.enrollmentId(),
+                        row.patientId(),
+                        row.programId(),
+                        row.fromStatus(),
+                        toStatus.name(),
+                        reason,
+                        userId));
+
+                Map<String, Object> metadata = new LinkedHashMap<>();
+                metadata.put("patientId", row.patientId());
+                metadata.put("programId", row.programId());
+                metadata.put("fromStatus", row.fromStatus());
+                metadata.put("toStatus", toStatus.name());
+                auditMetadata.put(row.enrollmentId(), metadata);
+
+                (toStatus == EnrollmentStatus.SUBMITTED ? submittedIds : otherIds).add(row.enrollmentId());
+            }
+
+            if (toStatus == EnrollmentStatus.SUBMITTED) {
+                auditService.logEvents("ENROLLMENT_SUBMITTED", "ENROLLMENT", "SUBMIT", auditMetadata);
+            } else {
+                auditService.logEvents("ENROLLMENT_STATUS_CHANGED", "ENROLLMENT", "STATUS_CHANGE", auditMetadata);
+            }
+        }
+
+        explainUnapplied(transitions, results);
+
+        statusBatchRepository.insertHistory(history);
+        nextActionProjector.onEnrollmentStatusesChanged(submittedIds, otherIds);
+        eventBus.publishAll(events);
+
+        int applied = history.size();
+        log.info("Bulk enrollment status change: requested={}, applied={}, rejected={}, by={}",
+                transitions.size(), applied, transitions.size() - applied, userId);
+
+        return BulkEnrollmentStatusResponse.builder()
+                .requested(transitions.size())
+                .applied(applied)
+                .rejected(transitions.size() - applied)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /**
+     * Fill in the outcome of every transition the updates did not apply, with one status lookup
+     */
+    private void explainUnapplied(List<EnrollmentStatusTransition> transitions,
+                                  EnrollmentStatusTransitionResult[] results) {
+        List<Long> unappliedIds = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                unappliedIds.add(transitions.get(i).getEnrollmentId());
+            }
+        }
+        if (unappliedIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> currentStatuses = statusBatchRepository.findStatuses(unappliedIds);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            EnrollmentStatusTransition transition = transitions.get(i);
+            String currentStatus = currentStatuses.get(transition.getEnrollmentId());
+            results[i] = currentStatus == null
+                    ? rejected(i, transition, null, "Enrollment not found")
+                    : rejected(i, transition, currentStatus,
+                            "Cannot change status from " + currentStatus + " to " + transition.getStatus());
+        }
+    }
+
+    private EnrollmentStatusTransitionResult rejected(int index, EnrollmentStatusTransition transition,
+                                                      String fromStatus, String error) {
+        return EnrollmentStatusTransitionResult.builder()
+                .index(index)
+                .enrollmentId(transition.getEnrollmentId())
+                .fromStatus(fromStatus)
+                .toStatus(transition.getStatus().name())
+                .applied(false)
+                .error(error)
+                .build();
+    }
+}
@@ -1,27 +1,32 @@
 package com.sonexus.portal.service;
 
+import com.sonexus.portal.api.dto.CursorPageResponse;
 import com.sonexus.portal.api.dto.FormResourceRequestDto;
 import com.sonexus.portal.api.dto.FormResourceResponseDto;
+import com.sonexus.portal.api.support.CursorCodec;
+import com.sonexus.portal.api.support.CursorPages;
+import com.sonexus.portal.domain.model.FileDownload;
+import com.sonexus.portal.domain.model.User;
+import com.sonexus.portal.domain.ports.AuthProvider;
 import com.sonexus.portal.domain.ports.FileStoragePort;
 import com.sonexus.portal.infrastructure.persistence.entity.DownloadAuditEntity;
 import com.sonexus.portal.infrastructure.persistence.entity.FormResourceEntity;
-import com.sonexus.portal.infrastructure.persistence.entity.UserEntity;
+import com.sonexus.portal.infrastructure.persistence.projection.FormResourceSummaryView;
 import com.sonexus.portal.infrastructure.persistence.repository.DownloadAuditRepository;
 import com.sonexus.portal.infrastructure.persistence.repository.FormResourceRepository;
-import com.sonexus.portal.infrastructure.persistence.repository.UserRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -33,7 +38,7 @@ public class FormResourceService {
 
     private final FormResourceRepository formResourceRepository;
     private final DownloadAuditRepository downloadAuditRepository;
-    private final UserRepository userRepository;
+    private final AuthProvider authProvider;
     private final FileStoragePort fileStoragePort;
     private final AuditService auditService;
 
@@ -45,10 +50,8 @@ public class FormResourceService {
         log.info("Uploading form: {} ({})", requestDto.getTitle(), file.getOriginalFilename());
 
         // Get current user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String userEmail = authentication.getName();
-        UserEntity user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = authProvider.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("User not authenticated"));
 
         // Validate file
         if (file.isEmpty()) {
@@ -112,11 +115,38 @@ public class FormResourceService {
 
         Pageable pageable = PageRequest.of(page, size);
 
-        Page<FormResourceEntity> entities = formResourceRepository.findAllWithFilters(
+        Page<FormResourceSummaryView> forms = formResourceRepository.findAllWithFilters(
                 programId, category, searchTerm, pageable
         );
 
-        return entities.map(this::mapToResponseDto);
+        return forms.map(this::mapToResponseDto);
+    }
+
+    /**
+     * Forms newest first with keyset pagination; the cursor-mode counterpart of searchForms
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<FormResourceResponseDto> searchFormsByCursor(
+            Long programId,
+            String category,
+            String searchTerm,
+            String cursor,
+            int size) {
+
+        int pageSize = CursorPages.pageSize(size);
+        LocalDateTime afterUploadedAt = CursorPages.LATEST;
+        long afterId = Long.MAX_VALUE;
+        if (!CursorPages.isFirstPage(cursor)) {
+            List<String> key = CursorCodec.decode(cursor, 2);
+            afterUploadedAt = CursorPages.timestamp(key.get(0));
+            afterId = Long.parseLong(key.get(1));
+        }
+
+        List<FormResourceSummaryView> forms = formResourceRepository.findPageAfter(
+                programId, category, searchTerm, afterUploadedAt, afterId, PageRequest.of(0, pageSize + 1));
+
+        return CursorPages.toResponse(forms, pageSize, this::mapToResponseDto,
+                form -> new Object[]{form.getUploadedAt(), form.getId()});
     }
 
     @Transactional(readOnly = true)
@@ -127,16 +157,36 @@ public class FormResourceService {
         return mapToResponseDto(entity);
     }
 
-    @Transactional
-    public InputStream downloadForm(Long id, Long patientId, HttpServletRequest request) {
+    /**
+     * Look up a form for streaming; the download itself is recorded by recordFormDownload
+     */
+    @Transactional(readOnly = true)
+    public FileDownload downloadForm(Long id) {
         FormResourceEntity entity = formResourceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Form not found with id: " + id));
 
+        // Content is streamed from storage by the caller, after this transaction has committed
+        String filePath = entity.getFilePath();
+        Instant lastModified = entity.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant();
+        return FileDownload.builder()
+                .fileName(entity.getFileName())
+                .contentType(entity.getMimeType())
+                .contentLength(entity.getFileSize())
+                .etag("\"form-" + entity.getId() + "-" + entity.getVersion() + "-" + lastModified.toEpochMilli() + "\"")
+                .lastModified(lastModified)
+                .content((offset, length) -> fileStoragePort.retrieveFile(filePath, offset, length))
+                .build();
+    }
+
+    /**
+     * Record a download of a form: download audit row, download count and audit event. Called
+     * once per download, not for revalidations or follow-up range requests.
+     */
+    @Transactional
+    public void recordFormDownload(Long id, Long patientId, HttpServletRequest request) {
         // Get current user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String userEmail = authentication.getName();
-        UserEntity user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = authProvider.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("User not authenticated"));
 
         // Get correlation ID from request header
         String correlationId = request.getHeader("X-Correlation-Id");
@@ -157,6 +207,7 @@ public class FormResourceService {
                 .build();
 
         downloadAuditRepository.save(audit);
+        formResourceRepository.incrementDownloadCount(id);
 
         // Audit log
         auditService.logEvent(
@@ -166,10 +217,7 @@ public class FormResourceService {
                 "READ"
         );
 
-        log.info("Form downloaded: {} by user: {}", entity.getFileName(), userEmail);
-
-        // Retrieve file from MinIO
-        return fileStoragePort.retrieveFile(entity.getFilePath());
+        log.info("Form downloaded: id={} by user: {}", id, user.getEmail());
     }
 
     @Transactional(readOnly = true)
@@ -204,8 +252,6 @@ public class FormResourceService {
     }
 
     private FormResourceResponseDto mapToResponseDto(FormResourceEntity entity) {
-        Long downloadCount = downloadAuditRepository.countByFormResourceId(entity.getId());
-
         return FormResourceResponseDto.builder()
                 .id(entity.getId())
                 .title(entity.getTitle())
@@ -223,7 +269,29 @@ public class FormResourceService {
                 .uploadedByEmail(entity.getUploadedBy() != null ? entity.getUploadedBy().getEmail() : null)
                 .uploadedAt(entity.getUploadedAt())
                 .updatedAt(entity.getUpdatedAt())
-                .downloadCount(downloadCount)
+                .downloadCount(entity.getDownloadCount())
+                .build();
+    }
+
+    private FormResourceResponseDto mapToResponseDto(FormResourceSummaryView view) {
+        return FormResourceResponseDto.builder()
+                .id(view.getId())
+                .title(view.getTitle())
+                .description(view.getDescription())
+                .programId(view.getProgramId())
+                .programName(view.getProgramName())
+                .category(view.getCategory())
+                .fileName(view.getFileName())
+                .fileSize(view.getFileSize())
+                .mimeType(view.getMimeType())
+                .version(view.getVersion())
+                .parentId(view.getParentId())
+                .complianceApproved(view.getComplianceApproved())
+                .uploadedById(view.getUploadedById())
+                .uploadedByEmail(view.getUploadedByEmail())
+                .uploadedAt(view.getUploadedAt())
+                .updatedAt(view.getUpdatedAt())
+                .downloadCount(view.getDownloadCount())
                 .build();
     }
 
@@ -0,0 +1,103 @@
+package com.sonexus.portal.service;
+
+import com.sonexus.portal.api.dto.NewMessageEvent;
+import com.sonexus.portal.api.dto.UnreadCountResponse;
+import com.sonexus.portal.domain.events.MessageSentEvent;
+import com.sonexus.portal.domain.ports.AuthProvider;
+import com.sonexus.portal.domain.ports.EventBusPort;
+import com.sonexus.portal.infrastructure.persistence.projection.UnreadSummary;
+import com.sonexus.portal.infrastructure.realtime.SseHub;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Real-time message notifications for the signed-in user's open streams.
+ * Events are pushed only after the originating transaction commits, so clients never
+ * see a message or count that was rolled back. New messages arrive through the event bus.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageStreamService {
+
+    static final String MESSAGE_EVENT = "message";
+    static final String UNREAD_EVENT = "unread";
+
+    private final SseHub sseHub;
+    private final AuthProvider authProvider;
+    private final UnreadCounterService unreadCounterService;
+    private final EventBusPort eventBus;
+
+    /**
+     * Open a stream for the current user, starting with their unread totals
+     */
+    public SseEmitter subscribe() {
+        Long userId = authProvider.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("User not authenticated"))
+                .getId();
+
+        SseEmitter emitter = sseHub.subscribe(userId);
+        sseHub.send(List.of(userId), UNREAD_EVENT, this::unreadCount);
+        return emitter;
+    }
+
+    @PostConstruct
+    void subscribeToEvents() {
+        // Recipients' streams may be open on any node
+        eventBus.subscribeOnEveryNode(MessageSentEvent.TYPE, event -> onMessageSent((MessageSentEvent) event));
+    }
+
+    /**
+     * Runs on every node after the send committed
+     */
+    void onMessageSent(MessageSentEvent sent) {
+        List<Long> recipients = sent.getRecipientIds();
+        if (recipients == null || recipients.isEmpty()) {
+            return;
+        }
+
+        NewMessageEvent event = NewMessageEvent.builder()
+                .threadId(sent.getThreadId())
+                .messageId(sent.getMessageId())
+                .sentBy(sent.getSentBy())
+                .sentByName(sent.getSentByName())
+                .sentAt(sent.getSentAt())
+                .build();
+
+        sseHub.send(recipients, MESSAGE_EVENT, userId -> event);
+        sseHub.send(recipients, UNREAD_EVENT, this::unreadCount);
+    }
+
+    public void onThreadRead(Long userId) {
+        // Other tabs of the same user update their badge
+        afterCommit(() -> sseHub.send(List.of(userId), UNREAD_EVENT, this::unreadCount));
+    }
+
+    private UnreadCountResponse unreadCount(long userId) {
+        UnreadSummary summary = unreadCounterService.getSummary(userId);
+        return UnreadCountResponse.builder()
+                .unreadMessages(summary.unreadMessages())
+                .threadsWithUnread(summary.threadsWithUnread())
+                .build();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.sonexus.portal.service;
+
+import com.sonexus.portal.infrastructure.persistence.entity.BenefitsInvestigationEntity;
+import com.sonexus.portal.infrastructure.persistence.entity.EnrollmentEntity;
+import com.sonexus.portal.infrastructure.persistence.entity.EnrollmentEntity.EnrollmentStatus;
+import com.sonexus.portal.infrastructure.persistence.entity.PatientEntity;
+import com.sonexus.portal.infrastructure.persistence.entity.PatientServiceEnrollmentEntity.ServiceEnrollmentStatus;
+import com.sonexus.portal.infrastructure.persistence.repository.NextActionRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.PatientServiceEnrollmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Keeps the materialized next_actions table in step with the state changes that drive
+ * the dashboard rules. Called from the owning services inside their transactions so the
+ * projection commits or rolls back together with the change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NextActionProjector {
+
+    /**
+     * Days a submitted enrollment may wait before a follow-up action is due
+     */
+    public static final int ENROLLMENT_FOLLOW_UP_DAYS = 7;
+
+    private final NextActionRepository nextActionRepository;
+    private final PatientServiceEnrollmentRepository patientServiceEnrollmentRepository;
+
+    @Transactional
+    public void onEnrollmentStatusChanged(EnrollmentEntity enrollment) {
+        if (enrollment.getStatus() == EnrollmentStatus.SUBMITTED && enrollment.getSubmittedAt() != null) {
+            PatientEntity patient = enrollment.getPatient();
+            nextActionRepository.upsertShared(
+                    NextActionRepository.ENROLLMENT,
+                    enrollment.getId(),
+                    patient.getId(),
+                    patient.getFirstName() + " " + patient.getLastName(),
+                    enrollment.getSubmittedAt(),
+                    enrollment.getSubmittedAt().plusDays(ENROLLMENT_FOLLOW_UP_DAYS));
+        } else {
+            nextActionRepository.deleteShared(NextActionRepository.ENROLLMENT, enrollment.getId());
+        }
+    }
+
+    /**
+     * Set-based counterpart of onEnrollmentStatusChanged for bulk transitions
+     */
+    @Transactional
+    public void onEnrollmentStatusesChanged(Collection<Long> submittedIds, Collection<Long> otherIds) {
+        nextActionRepository.upsertSubmittedEnrollments(submittedIds, ENROLLMENT_FOLLOW_UP_DAYS);
+        nextActionRepository.deleteShared(NextActionRepository.ENROLLMENT, otherIds);
+    }
+
+    @Transactional
+    public void onBenefitsInvestigationCompleted(BenefitsInvestigationEntity investigation, PatientEntity patient) {
+        nextActionRepository.deleteSupersededBenefits(investigation.getId());
+
+        if (investigation.getExpiresAt() != null) {
+            nextActionRepository.upsertShared(
+                    NextActionRepository.BENEFITS,
+                    investigation.getId(),
+                    patient.getId(),
+                    patient.getFirstName() + " " + patient.getLastName(),
+                    investigation.getExpiresAt(),
+                    investigation.getExpiresAt());
+        }
+    }
+
+    /**
+     * Set-based counterpart of onBenefitsInvestigationCompleted for investigations saved together;
+     * of several for one patient and type, the latest is the one kept
+     */
+    @Transactional
+    public void onBenefitsInvestigationsCompleted(Collection<Long> investigationIds) {
+        nextActionRepository.deleteSupersededBenefits(investigationIds);
+        nextActionRepository.upsertLatestBenefits(investigationIds);
+    }
+
+    @Transactional
+    public void onPatientServicesChanged(PatientEntity patient) {
+        boolean hasActiveServices = patientServiceEnrollmentRepository.findByPatientId(patient.getId()).stream()
+                .anyMatch(s -> s.getStatus() == ServiceEnrollmentStatus.ACTIVE);
+
+        if (hasActiveServices) {
+            nextActionRepository.deleteShared(NextActionRepository.SERVICE, patient.getId());
+        } else {
+            nextActionRepository.upsertShared(
+                    NextActionRepository.SERVICE,
+                    patient.getId(),
+                    patient.getId(),
+                    patient.getFirstName() + " " + patient.getLastName(),
+                    null,
+                    LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.sonexus.portal.service;
+
+import com.sonexus.portal.infrastructure.persistence.repository.NextActionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Periodically reconciles the next_actions table with the source tables.
+ * Time-based transitions surface through due_at on read; this sweep repairs drift from
+ * changes made outside the services (bulk SQL, other deployments) and back-fills on startup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NextActionSweeper {
+
+    private final NextActionRepository nextActionRepository;
+
+    @Scheduled(
+            initialDelayString = "${app.dashboard.next-actions.sweep-initial-delay-ms:10000}",
+            fixedDelayString = "${app.dashboard.next-actions.sweep-interval-ms:900000}")
+    @Transactional
+    public void sweep() {
+        long start = System.currentTimeMillis();
+
+        int enrollments = nextActionRepository.reconcileSubmittedEnrollments(
+                NextActionProjector.ENROLLMENT_FOLLOW_UP_DAYS);
+        int benefits = nextActionRepository.reconcileLatestBenefits();
+        int services = nextActionRepository.reconcilePatientsWithoutServices();
+
+        log.info("Next actions reconciled in {} ms: enrollments={}, benefits={}, services={}",
+                System.currentTimeMillis() - start, enrollments, benefits, services);
+    }
+}
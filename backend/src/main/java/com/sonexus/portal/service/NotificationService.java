@@ -0,0 +1,58 @@
+package com.sonexus.portal.service;
+
+import com.sonexus.portal.domain.events.EnrollmentStatusChangedEvent;
+import com.sonexus.portal.domain.events.ProviderAffiliationVerifiedEvent;
+import com.sonexus.portal.domain.ports.EventBusPort;
+import com.sonexus.portal.domain.ports.NotificationPort;
+import com.sonexus.portal.infrastructure.persistence.repository.EnrollmentRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+
+/**
+ * Turns domain events into user notifications. Runs on the event bus, so recipient lookups and
+ * queuing never happen on the request thread that made the change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationService {
+
+    private final EventBusPort eventBus;
+    private final NotificationPort notificationPort;
+    private final EnrollmentRepository enrollmentRepository;
+    private final UserRepository userRepository;
+
+    @PostConstruct
+    void subscribeToEvents() {
+        eventBus.subscribe(EnrollmentStatusChangedEvent.TYPE,
+                event -> onEnrollmentStatusChanged((EnrollmentStatusChangedEvent) event));
+        eventBus.subscribe(ProviderAffiliationVerifiedEvent.TYPE,
+                event -> onProviderAffiliationVerified((ProviderAffiliationVerifiedEvent) event));
+    }
+
+    /**
+     * Tell the user who created the enrollment, unless they made the change themselves
+     */
+    void onEnrollmentStatusChanged(EnrollmentStatusChangedEvent event) {
+        enrollmentRepository.findNotificationView(event.getEnrollmentId())
+                .filter(target -> !Objects.equals(target.getCreatedById(), event.getChangedBy()))
+                .ifPresent(target -> notificationPort.notifyEnrollmentStatusChange(
+                        target.getCreatedByEmail(),
+                        target.getPatientFirstName() + " " + target.getPatientLastName(),
+                        event.getToStatus()));
+    }
+
+    void onProviderAffiliationVerified(ProviderAffiliationVerifiedEvent event) {
+        if (!event.isApproved()) {
+            return;
+        }
+        userRepository.findById(event.getUserId())
+                .ifPresent(user -> notificationPort.notifyProviderAffiliationApproved(
+                        user.getEmail(), event.getProviderName()));
+    }
+}
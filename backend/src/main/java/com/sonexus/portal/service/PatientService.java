@@ -1,20 +1,29 @@
 package com.sonexus.portal.service;
 
+import com.sonexus.portal.api.dto.CursorPageResponse;
 import com.sonexus.portal.api.dto.PatientRequest;
 import com.sonexus.portal.api.dto.PatientResponse;
+import com.sonexus.portal.api.support.CursorCodec;
+import com.sonexus.portal.api.support.CursorPages;
 import com.sonexus.portal.domain.ports.AuthProvider;
 import com.sonexus.portal.infrastructure.persistence.entity.PatientEntity;
 import com.sonexus.portal.infrastructure.persistence.entity.UserEntity;
+import com.sonexus.portal.infrastructure.persistence.projection.PatientSearchRow;
 import com.sonexus.portal.infrastructure.persistence.repository.PatientRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.PatientSearchRepository;
 import com.sonexus.portal.infrastructure.persistence.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -26,6 +35,8 @@ public class PatientService {
     private final AuthProvider authProvider;
     private final AuditService auditService;
     private final JdbcTemplate jdbcTemplate;
+    private final NextActionProjector nextActionProjector;
+    private final PatientSearchRepository patientSearchRepository;
 
     @Transactional
     public PatientResponse createPatient(PatientRequest request) {
@@ -61,6 +72,7 @@ public class PatientService {
                 .build();
 
         PatientEntity saved = patientRepository.save(patient);
+        nextActionProjector.onPatientServicesChanged(saved);
         log.info("Patient created: id={}, referenceId={}, createdBy={}", saved.getId(), saved.getReferenceId(), userId);
 
         auditService.logEvent("PATIENT_CREATED", "PATIENT", saved.getId(), "CREATE");
@@ -89,6 +101,66 @@ public class PatientService {
         return patients.map(this::mapToResponse);
     }
 
+    /**
+     * Patients newest first with keyset pagination; the cursor-mode counterpart of searchPatients
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PatientResponse> searchPatientsByCursor(String search, String cursor, int size) {
+        // Validate affiliation
+        Long userId = authProvider.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("User not authenticated"))
+                .getId();
+
+        if (!affiliationService.hasApprovedAffiliation(userId)) {
+            throw new RuntimeException("User must have an approved provider affiliation to view patients");
+        }
+
+        int pageSize = CursorPages.pageSize(size);
+        LocalDateTime afterCreatedAt = CursorPages.LATEST;
+        long afterId = Long.MAX_VALUE;
+        if (!CursorPages.isFirstPage(cursor)) {
+            List<String> key = CursorCodec.decode(cursor, 2);
+            afterCreatedAt = CursorPages.timestamp(key.get(0));
+            afterId = Long.parseLong(key.get(1));
+        }
+
+        List<PatientEntity> rows = patientRepository.findPageAfter(
+                search == null || search.isBlank() ? null : search.trim(),
+                afterCreatedAt, afterId, PageRequest.of(0, pageSize + 1));
+
+        return CursorPages.toResponse(rows, pageSize, this::mapToResponse,
+                p -> new Object[]{p.getCreatedAt(), p.getId()});
+    }
+
+    /**
+     * Ranked patient search with keyset pagination; see PatientSearchRepository for ranking rules
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PatientResponse> searchPatientsRanked(String query, String cursor, int size) {
+        // Validate affiliation
+        Long userId = authProvider.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("User not authenticated"))
+                .getId();
+
+        if (!affiliationService.hasApprovedAffiliation(userId)) {
+            throw new RuntimeException("User must have an approved provider affiliation to view patients");
+        }
+
+        int pageSize = CursorPages.pageSize(size);
+
+        PatientSearchRepository.After after = null;
+        if (!CursorPages.isFirstPage(cursor)) {
+            List<String> key = CursorCodec.decode(cursor, 4);
+            after = new PatientSearchRepository.After(
+                    Integer.parseInt(key.get(0)), key.get(1), key.get(2), Long.parseLong(key.get(3)));
+        }
+
+        List<PatientSearchRow> rows = patientSearchRepository.search(query, after, pageSize + 1);
+
+        return CursorPages.toResponse(rows, pageSize, this::mapToResponse,
+                row -> new Object[]{row.tier(), row.lastNameKey(), row.firstNameKey(), row.id()});
+    }
+
     @Transactional(readOnly = true)
     public PatientResponse getPatientById(Long id) {
         // Validate affiliation
@@ -111,6 +183,28 @@ public class PatientService {
         return "PT" + String.format("%06d", nextVal);
     }
 
+    private PatientResponse mapToResponse(PatientSearchRow row) {
+        return PatientResponse.builder()
+                .id(row.id())
+                .referenceId(row.referenceId())
+                .firstName(row.firstName())
+                .lastName(row.lastName())
+                .dateOfBirth(row.dateOfBirth())
+                .gender(row.gender())
+                .phone(row.phone())
+                .email(row.email())
+                .addressLine1(row.addressLine1())
+                .addressLine2(row.addressLine2())
+                .city(row.city())
+                .state(row.state())
+                .zipCode(row.zipCode())
+                .createdById(row.createdById())
+                .createdByEmail(row.createdByEmail())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .build();
+    }
+
     private PatientResponse mapToResponse(PatientEntity entity) {
         return PatientResponse.builder()
                 .id(entity.getId())
@@ -3,8 +3,11 @@ package com.sonexus.portal.service;
 import com.sonexus.portal.api.dto.AddServiceRequest;
 import com.sonexus.portal.api.dto.ProgramResponse;
 import com.sonexus.portal.api.dto.SupportServiceResponse;
+import com.sonexus.portal.infrastructure.cache.ReferenceDataCache;
 import com.sonexus.portal.infrastructure.persistence.entity.ProgramEntity;
 import com.sonexus.portal.infrastructure.persistence.entity.SupportServiceEntity;
+import com.sonexus.portal.infrastructure.persistence.projection.ProgramRef;
+import com.sonexus.portal.infrastructure.persistence.projection.SupportServiceRef;
 import com.sonexus.portal.infrastructure.persistence.repository.ProgramRepository;
 import com.sonexus.portal.infrastructure.persistence.repository.SupportServiceRepository;
 import lombok.RequiredArgsConstructor;
@@ -23,31 +26,31 @@ public class ProgramService {
 
     private final ProgramRepository programRepository;
     private final SupportServiceRepository supportServiceRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     public List<ProgramResponse> getAllActivePrograms() {
-        List<ProgramEntity> programs = programRepository.findByActiveTrue();
-        return programs.stream()
+        return referenceDataCache.getActivePrograms().stream()
                 .map(this::mapToProgramResponse)
                 .collect(Collectors.toList());
     }
 
     public ProgramResponse getProgramById(Long id) {
-        ProgramEntity program = programRepository.findById(id)
+        ProgramRef program = referenceDataCache.getProgram(id)
                 .orElseThrow(() -> new RuntimeException("Program not found"));
         return mapToProgramResponse(program);
     }
 
     public List<SupportServiceResponse> getProgramServices(Long programId) {
-        List<SupportServiceEntity> services = supportServiceRepository.findByProgramIdAndActiveTrue(programId);
-        return services.stream()
+        return referenceDataCache.getActiveServices(programId).stream()
                 .map(this::mapToServiceResponse)
                 .collect(Collectors.toList());
     }
 
     @Transactional
     public SupportServiceResponse addServiceToProgram(Long programId, AddServiceRequest request) {
-        ProgramEntity program = programRepository.findById(programId)
+        referenceDataCache.getProgram(programId)
                 .orElseThrow(() -> new RuntimeException("Program not found"));
+        ProgramEntity program = programRepository.getReferenceById(programId);
 
         SupportServiceEntity service = SupportServiceEntity.builder()
                 .program(program)
@@ -58,29 +61,37 @@ public class ProgramService {
                 .build();
 
         SupportServiceEntity saved = supportServiceRepository.save(service);
+        referenceDataCache.evictProgramServices(programId);
         log.info("Service added to program: serviceId={}, programId={}, name={}",
                 saved.getId(), programId, request.getName());
 
-        return mapToServiceResponse(saved);
+        return SupportServiceResponse.builder()
+                .id(saved.getId())
+                .programId(programId)
+                .name(saved.getName())
+                .description(saved.getDescription())
+                .serviceType(saved.getServiceType())
+                .active(saved.getActive())
+                .build();
     }
 
-    private ProgramResponse mapToProgramResponse(ProgramEntity entity) {
+    private ProgramResponse mapToProgramResponse(ProgramRef program) {
         return ProgramResponse.builder()
-                .id(entity.getId())
-                .name(entity.getName())
-                .description(entity.getDescription())
-                .active(entity.getActive())
+                .id(program.id())
+                .name(program.name())
+                .description(program.description())
+                .active(program.active())
                 .build();
     }
 
-    private SupportServiceResponse mapToServiceResponse(SupportServiceEntity entity) {
+    private SupportServiceResponse mapToServiceResponse(SupportServiceRef service) {
         return SupportServiceResponse.builder()
-                .id(entity.getId())
-                .programId(entity.getProgram().getId())
-                .name(entity.getName())
-                .description(entity.getDescription())
-                .serviceType(entity.getServiceType())
-                .active(entity.getActive())
+                .id(service.id())
+                .programId(service.programId())
+                .name(service.name())
+                .description(service.description())
+                .serviceType(service.serviceType())
+                .active(service.active())
                 .build();
     }
 }
@@ -4,7 +4,9 @@ import com.sonexus.portal.api.dto.ProviderAffiliationRequest;
 import com.sonexus.portal.api.dto.ProviderAffiliationResponse;
 import com.sonexus.portal.api.dto.ProviderResponse;
 import com.sonexus.portal.api.dto.VerifyAffiliationRequest;
+import com.sonexus.portal.domain.events.ProviderAffiliationVerifiedEvent;
 import com.sonexus.portal.domain.ports.AuthProvider;
+import com.sonexus.portal.domain.ports.EventBusPort;
 import com.sonexus.portal.infrastructure.persistence.entity.ProviderAffiliationEntity;
 import com.sonexus.portal.infrastructure.persistence.entity.ProviderAffiliationEntity.AffiliationStatus;
 import com.sonexus.portal.infrastructure.persistence.entity.ProviderEntity;
@@ -12,6 +14,7 @@ import com.sonexus.portal.infrastructure.persistence.entity.UserEntity;
 import com.sonexus.portal.infrastructure.persistence.repository.ProviderAffiliationRepository;
 import com.sonexus.portal.infrastructure.persistence.repository.ProviderRepository;
 import com.sonexus.portal.infrastructure.persistence.repository.UserRepository;
+import com.sonexus.portal.infrastructure.security.AffiliationDecisionCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -30,6 +33,8 @@ public class ProviderAffiliationService {
     private final ProviderRepository providerRepository;
     private final UserRepository userRepository;
     private final AuthProvider authProvider;
+    private final EventBusPort eventBus;
+    private final AffiliationDecisionCache affiliationDecisionCache;
 
     @Transactional
     public ProviderAffiliationResponse requestAffiliation(ProviderAffiliationRequest request) {
@@ -103,15 +108,26 @@ public class ProviderAffiliationService {
         affiliation.setVerificationReason(request.getReason());
 
         ProviderAffiliationEntity updated = affiliationRepository.save(affiliation);
+        affiliationDecisionCache.evict(updated.getUser().getId());
+        eventBus.publish(new ProviderAffiliationVerifiedEvent(
+                updated.getId(),
+                updated.getUser().getId(),
+                updated.getProvider().getId(),
+                updated.getProvider().getName(),
+                request.getApproved(),
+                adminUserId));
         log.info("Provider affiliation verified: id={}, approved={}, adminUser={}",
                 affiliationId, request.getApproved(), adminUserId);
 
         return mapToResponse(updated);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Authorization check used on every patient and benefits call; answered from the decision cache
+     */
     public boolean hasApprovedAffiliation(Long userId) {
-        return !affiliationRepository.findByUserIdAndStatus(userId, AffiliationStatus.APPROVED).isEmpty();
+        return affiliationDecisionCache.isApproved(userId,
+                id -> affiliationRepository.existsByUserIdAndStatus(id, AffiliationStatus.APPROVED));
     }
 
     private ProviderAffiliationResponse mapToResponse(ProviderAffiliationEntity entity) {
@@ -0,0 +1,306 @@
+package com.sonexus.portal.service;
+
+import com.sonexus.portal.infrastructure.persistence.projection.ProviderImportRow;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming RFC 4180 reader that maps provider CSV records to the providers column set.
+ * Accepts either the NPPES dissemination file (detected by its "Entity Type Code" header) or a
+ * plain file whose headers are the providers table columns (npi, name, specialty, address_line1, ...).
+ * Holds one record in memory at a time; a record longer than the field or record cap is skipped and
+ * returned as rejected rather than buffered.
+ */
+class ProviderCsvReader {
+
+    private static final String NPPES_ENTITY_TYPE = "entity type code";
+    private static final int NPPES_TAXONOMY_SLOTS = 15;
+    private static final int MAX_FIELD_LENGTH = 4096;
+    private static final int MAX_RECORD_LENGTH = 65536;
+    private static final Pattern NPI = Pattern.compile("\\d{10}");
+
+    private final Reader reader;
+    private final RecordMapper mapper;
+    private final StringBuilder field = new StringBuilder();
+    private long recordNumber;
+    private int pending = -2;
+    /** Why the last record was not kept, or null */
+    private String overflow;
+
+    ProviderCsvReader(Reader reader) throws IOException {
+        this.reader = reader;
+        // The NPPES file starts with a UTF-8 byte order mark
+        int first = reader.read();
+        if (first != '\uFEFF') {
+            pending = first;
+        }
+        List<String> header = nextRecord();
+        if (header == null || header.isEmpty()) {
+            throw new IllegalArgumentException("Provider import file is empty");
+        }
+        if (overflow != null) {
+            throw new IllegalArgumentException("Provider import header is invalid: " + overflow);
+        }
+        this.mapper = createMapper(header);
+    }
+
+    /**
+     * Next mapped row, or null at end of input. Rows that cannot be mapped are returned as rejected.
+     */
+    Result next() throws IOException {
+        List<String> record = nextRecord();
+        if (record == null) {
+            return null;
+        }
+        if (overflow != null) {
+            return new Result(null, overflow);
+        }
+        return mapper.map(record);
+    }
+
+    long recordNumber() {
+        return recordNumber;
+    }
+
+    record Result(ProviderImportRow row, String rejectReason) {
+        boolean rejected() {
+            return row == null;
+        }
+    }
+
+    private interface RecordMapper {
+        Result map(List<String> record);
+    }
+
+    private List<String> nextRecord() throws IOException {
+        int c = read();
+        // Skip blank lines between records
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> record = new ArrayList<>();
+        boolean quoted = false;
+        field.setLength(0);
+        overflow = null;
+        // Characters of the record so far; once a cap is hit the rest is only scanned for its end
+        int length = 0;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field in record " + (recordNumber + 1));
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        length = append('"', length);
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    length = append(c, length);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                if (overflow == null) {
+                    record.add(field.toString());
+                }
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pending = next;
+                    }
+                }
+                if (overflow == null) {
+                    record.add(field.toString());
+                }
+                recordNumber++;
+                return record;
+            } else {
+                length = append(c, length);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Append to the current field unless the record is already over a cap
+     * @return the record length including c
+     */
+    private int append(int c, int length) {
+        if (overflow != null) {
+            return length;
+        }
+        if (field.length() == MAX_FIELD_LENGTH) {
+            overflow = "field longer than " + MAX_FIELD_LENGTH + " characters";
+        } else if (length == MAX_RECORD_LENGTH) {
+            overflow = "record longer than " + MAX_RECORD_LENGTH + " characters";
+        } else {
+            field.append((char) c);
+            return length + 1;
+        }
+        field.setLength(0);
+        return length;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private RecordMapper createMapper(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        if (columns.containsKey(NPPES_ENTITY_TYPE)) {
+            return nppesMapper(columns);
+        }
+        if (columns.containsKey("npi") && columns.containsKey("name")) {
+            return plainMapper(columns);
+        }
+        throw new IllegalArgumentException(
+                "Unrecognized provider file header: expected NPPES columns or npi,name,... provider columns");
+    }
+
+    private RecordMapper plainMapper(Map<String, Integer> columns) {
+        return record -> {
+            Fields f = new Fields(record, columns);
+            String active = f.get("active");
+            return validate(new ProviderImportRow(
+                    f.get("npi"),
+                    f.get("name"),
+                    f.get("specialty"),
+                    f.get("address_line1"),
+                    f.get("address_line2"),
+                    f.get("city"),
+                    f.get("state"),
+                    f.get("zip_code"),
+                    f.get("phone"),
+                    f.get("fax"),
+                    f.get("email"),
+                    active == null || Boolean.parseBoolean(active)));
+        };
+    }
+
+    private RecordMapper nppesMapper(Map<String, Integer> columns) {
+        return record -> {
+            Fields f = new Fields(record, columns);
+
+            // Entity type 1 is an individual, 2 an organization. A deactivated NPI has an empty entity
+            // type and no name or address; it is kept as an inactive row so the provider leaves the directory.
+            String entityType = f.get(NPPES_ENTITY_TYPE);
+            if (entityType == null) {
+                return validate(new ProviderImportRow(
+                        f.get("npi"), null, null, null, null, null, null, null, null, null, null, false));
+            }
+            String name = "2".equals(entityType)
+                    ? f.get("provider organization name (legal business name)")
+                    : individualName(f);
+
+            boolean active = f.get("npi deactivation date") == null || f.get("npi reactivation date") != null;
+
+            return validate(new ProviderImportRow(
+                    f.get("npi"),
+                    name,
+                    primaryTaxonomy(f),
+                    f.get("provider first line business practice location address"),
+                    f.get("provider second line business practice location address"),
+                    f.get("provider business practice location address city name"),
+                    f.get("provider business practice location address state name"),
+                    f.get("provider business practice location address postal code"),
+                    f.get("provider business practice location address telephone number"),
+                    f.get("provider business practice location address fax number"),
+                    null,
+                    active));
+        };
+    }
+
+    private String individualName(Fields f) {
+        String first = f.get("provider first name");
+        String last = f.get("provider last name (legal name)");
+        if (last == null) {
+            return null;
+        }
+        String name = first != null ? first + " " + last : last;
+        String credential = f.get("provider credential text");
+        return credential != null ? name + ", " + credential : name;
+    }
+
+    private String primaryTaxonomy(Fields f) {
+        String first = null;
+        for (int i = 1; i <= NPPES_TAXONOMY_SLOTS; i++) {
+            String code = f.get("healthcare provider taxonomy code_" + i);
+            if (code == null) {
+                continue;
+            }
+            if ("Y".equals(f.get("healthcare provider primary taxonomy switch_" + i))) {
+                return code;
+            }
+            if (first == null) {
+                first = code;
+            }
+        }
+        return first;
+    }
+
+    private Result validate(ProviderImportRow row) {
+        if (row.npi() == null || !NPI.matcher(row.npi()).matches()) {
+            return new Result(null, "invalid NPI");
+        }
+        // Only a deactivation may come without a name; the merge then just marks the provider inactive
+        if (row.name() == null && row.active()) {
+            return new Result(null, "missing name");
+        }
+        // Clip to the providers column widths so one long value cannot fail a whole COPY chunk
+        return new Result(new ProviderImportRow(
+                row.npi(),
+                clip(row.name(), 255),
+                clip(row.specialty(), 100),
+                clip(row.addressLine1(), 255),
+                clip(row.addressLine2(), 255),
+                clip(row.city(), 100),
+                clip(row.state(), 2),
+                clip(row.zipCode(), 10),
+                clip(row.phone(), 20),
+                clip(row.fax(), 20),
+                clip(row.email(), 255),
+                row.active()), null);
+    }
+
+    private String clip(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+
+    private record Fields(List<String> record, Map<String, Integer> columns) {
+        String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size()) {
+                return null;
+            }
+            String value = record.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
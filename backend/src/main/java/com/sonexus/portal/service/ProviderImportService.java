@@ -0,0 +1,133 @@
+package com.sonexus.portal.service;
+
+import com.sonexus.portal.api.dto.ProviderImportResult;
+import com.sonexus.portal.infrastructure.persistence.repository.ProviderImportRepository;
+import com.sonexus.portal.infrastructure.persistence.repository.ProviderImportRepository.ImportSession;
+import com.sonexus.portal.infrastructure.persistence.repository.ProviderImportRepository.MergeResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams a provider CSV (NPPES or providers-column format) into the providers table.
+ * The file is parsed one record at a time and COPY'd in fixed-size chunks, so memory stays
+ * bounded regardless of file size. Only one import runs at a time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderImportService {
+
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_LOGGED_REJECTS = 20;
+
+    private final ProviderImportRepository providerImportRepository;
+    private final AuditService auditService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.providers.import.chunk-size:50000}")
+    private int chunkSize;
+
+    public ProviderImportResult importProviders(InputStream input, String source) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A provider import is already running");
+        }
+
+        try {
+            ProviderImportResult result = runImport(input, source);
+            auditService.logEvent("PROVIDERS_IMPORTED", "PROVIDER", null, "IMPORT", null, Map.of(
+                    "source", source,
+                    "recordsRead", result.getRecordsRead(),
+                    "recordsRejected", result.getRecordsRejected(),
+                    "inserted", result.getProvidersInserted(),
+                    "updated", result.getProvidersUpdated()));
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read provider import from " + source, e);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load provider import from " + source, e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ProviderImportResult runImport(InputStream input, String source) throws IOException, SQLException {
+        long start = System.nanoTime();
+        log.info("Provider import started: source={}, chunkSize={}", source, chunkSize);
+
+        ProviderCsvReader reader = new ProviderCsvReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), READ_BUFFER_SIZE));
+
+        long read = 0;
+        long rejected = 0;
+        long staged = 0;
+        long duplicates = 0;
+        long inserted = 0;
+        long updated = 0;
+        int inChunk = 0;
+
+        try (ImportSession session = providerImportRepository.openSession()) {
+            ProviderCsvReader.Result next;
+            while ((next = reader.next()) != null) {
+                read++;
+                if (next.rejected()) {
+                    if (++rejected <= MAX_LOGGED_REJECTS) {
+                        log.warn("Provider import rejected record {}: {}", reader.recordNumber(), next.rejectReason());
+                    }
+                    continue;
+                }
+
+                session.add(next.row());
+                if (++inChunk == chunkSize) {
+                    MergeResult merged = session.flush();
+                    staged += merged.staged();
+            duplicates += merged.duplicates();
+                    duplicates += merged.duplicates();
+                    inserted += merged.inserted();
+                    updated += merged.updated();
+                    inChunk = 0;
+                    log.info("Provider import progress: read={}, rejected={}, inserted={}, updated={}, rate={} records/s",
+                            read, rejected, inserted, updated, rate(read, start));
+                }
+            }
+
+            MergeResult merged = session.flush();
+            staged += merged.staged();
+            duplicates += merged.duplicates();
+            inserted += merged.inserted();
+            updated += merged.updated();
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        ProviderImportResult result = ProviderImportResult.builder()
+                .recordsRead(read)
+                .recordsRejected(rejected)
+                .providersInserted(inserted)
+                .providersUpdated(updated)
+                .duplicatesSkipped(duplicates)
+                .providersUnchanged(staged - duplicates - inserted - updated)
+                .elapsedMs(elapsedMs)
+                .recordsPerSecond(rate(read, start))
+                .build();
+
+        log.info("Provider import finished: source={}, result={}", source, result);
+        return result;
+    }
+
+    private long rate(long records, long startNanos) {
+        long elapsedNanos = Math.max(System.nanoTime() - startNanos, 1);
+        return records * 1_000_000_000L / elapsedNanos;
+    }
+}
@@ -1,22 +1,45 @@
 package com.sonexus.portal.service;
 
+import com.sonexus.portal.api.dto.CursorPageResponse;
+import com.sonexus.portal.api.dto.FacetCount;
+import com.sonexus.portal.api.dto.ProviderDirectoryResponse;
 import com.sonexus.portal.api.dto.ProviderResponse;
+import com.sonexus.portal.api.dto.ProviderSuggestion;
+import com.sonexus.portal.api.support.CursorCodec;
+import com.sonexus.portal.api.support.CursorPages;
+import com.sonexus.portal.infrastructure.cache.ProviderFacetCache;
 import com.sonexus.portal.infrastructure.persistence.entity.ProviderEntity;
+import com.sonexus.portal.infrastructure.persistence.projection.FacetCountRow;
+import com.sonexus.portal.infrastructure.persistence.projection.ProviderDirectoryRow;
+import com.sonexus.portal.infrastructure.persistence.repository.ProviderDirectoryRepository;
 import com.sonexus.portal.infrastructure.persistence.repository.ProviderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class ProviderService {
 
+    private static final Pattern NPI_PATTERN = Pattern.compile("\\d{10}");
+    private static final int MAX_FACET_VALUES = 25;
+    private static final int MAX_SUGGESTIONS = 25;
+
     private final ProviderRepository providerRepository;
+    private final ProviderDirectoryRepository providerDirectoryRepository;
+    private final ProviderFacetCache providerFacetCache;
+    private final ObjectProvider<ProviderTypeaheadIndex> typeaheadIndex;
 
     public Page<ProviderResponse> searchProviders(String searchTerm, Pageable pageable) {
         Page<ProviderEntity> providers;
@@ -33,12 +56,152 @@ public class ProviderService {
         return providers.map(this::mapToResponse);
     }
 
+    /**
+     * Active providers by name with keyset pagination; the cursor-mode counterpart of searchProviders
+     */
+    public CursorPageResponse<ProviderResponse> searchProvidersByCursor(String searchTerm, String cursor, int size) {
+        int pageSize = CursorPages.pageSize(size);
+        String afterName = "";
+        long afterId = 0;
+        if (!CursorPages.isFirstPage(cursor)) {
+            List<String> key = CursorCodec.decode(cursor, 2);
+            afterName = key.get(0);
+            afterId = Long.parseLong(key.get(1));
+        }
+
+        List<ProviderEntity> rows = providerRepository.findActivePageAfter(
+                searchTerm == null || searchTerm.isBlank() ? null : searchTerm.trim(),
+                afterName, afterId, PageRequest.of(0, pageSize + 1));
+
+        return CursorPages.toResponse(rows, pageSize, this::mapToResponse,
+                p -> new Object[]{p.getName(), p.getId()});
+    }
+
+    /**
+     * Directory search: exact NPI when the query is a 10-digit number, otherwise ranked trigram
+     * name matching (prefix only for one- and two-character queries), with specialty/state facets
+     * and keyset paging
+     */
+    public ProviderDirectoryResponse searchDirectory(String query, String specialty, String state,
+                                                     String cursor, int size) {
+        int pageSize = CursorPages.pageSize(size);
+        String name = query == null || query.isBlank() ? null : query.trim();
+
+        if (name != null && NPI_PATTERN.matcher(name).matches()) {
+            List<ProviderResponse> items = providerDirectoryRepository.findActiveByNpi(name).stream()
+                    .map(this::mapToResponse)
+                    .toList();
+            return ProviderDirectoryResponse.builder()
+                    .items(items)
+                    .hasMore(false)
+                    .size(items.size())
+                    .specialtyFacets(List.of())
+                    .stateFacets(List.of())
+                    .build();
+        }
+
+        ProviderDirectoryRepository.Criteria criteria = new ProviderDirectoryRepository.Criteria(
+                name,
+                specialty == null || specialty.isBlank() ? null : specialty,
+                state == null || state.isBlank() ? null : state);
+
+        ProviderDirectoryRepository.After after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            List<String> key = CursorCodec.decode(cursor, 3);
+            after = new ProviderDirectoryRepository.After(
+                    Integer.parseInt(key.get(0)), key.get(1), Long.parseLong(key.get(2)));
+        }
+
+        // Fetch one extra row to learn whether another page exists without a COUNT
+        List<ProviderDirectoryRow> rows = providerDirectoryRepository.search(criteria, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ProviderDirectoryRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ProviderDirectoryRow last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.tier(), last.nameKey(), last.id());
+        }
+
+        ProviderDirectoryResponse.ProviderDirectoryResponseBuilder response = ProviderDirectoryResponse.builder()
+                .items(page.stream().map(this::mapToResponse).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .size(page.size());
+
+        // Facets describe the whole result set, so only the first page pays for them
+        if (after == null) {
+            response.specialtyFacets(toFacets(providerFacetCache.countBySpecialty(criteria, MAX_FACET_VALUES)))
+                    .stateFacets(toFacets(providerFacetCache.countByState(criteria, MAX_FACET_VALUES)));
+        }
+
+        return response.build();
+    }
+
+    /**
+     * Typeahead suggestions: every word typed must start a word of the provider's name, so
+     * "john smi" finds "John Smith". Served from the in-memory index when enabled and warmed,
+     * otherwise from the trigram index, with the same matching and order either way.
+     */
+    public List<ProviderSuggestion> suggestProviders(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        int max = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+
+        List<String> tokens = ProviderTypeaheadIndex.nameTokens(prefix);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        ProviderTypeaheadIndex index = typeaheadIndex.getIfAvailable();
+        if (index != null) {
+            Optional<List<ProviderSuggestion>> suggestions = index.lookup(tokens, max);
+            if (suggestions.isPresent()) {
+                return suggestions.get();
+            }
+        }
+
+        return providerDirectoryRepository.suggest(tokens, max).stream()
+                .map(row -> ProviderSuggestion.builder()
+                        .id(row.id())
+                        .name(row.name())
+                        .specialty(row.specialty())
+                        .state(row.state())
+                        .build())
+                .toList();
+    }
+
     public ProviderResponse getProviderById(Long providerId) {
         ProviderEntity provider = providerRepository.findById(providerId)
                 .orElseThrow(() -> new RuntimeException("Provider not found"));
         return mapToResponse(provider);
     }
 
+    private List<FacetCount> toFacets(List<FacetCountRow> rows) {
+        return rows.stream()
+                .map(row -> FacetCount.builder().value(row.value()).count(row.count()).build())
+                .toList();
+    }
+
+    private ProviderResponse mapToResponse(ProviderDirectoryRow row) {
+        return ProviderResponse.builder()
+                .id(row.id())
+                .npi(row.npi())
+                .name(row.name())
+                .specialty(row.specialty())
+                .addressLine1(row.addressLine1())
+                .addressLine2(row.addressLine2())
+                .city(row.city())
+                .state(row.state())
+                .zipCode(row.zipCode())
+                .phone(row.phone())
+                .fax(row.fax())
+                .email(row.email())
+                .active(row.active())
+                .build();
+    }
+
     private ProviderResponse mapToResponse(ProviderEntity entity) {
         return ProviderResponse.builder()
                 .id(entity.getId())
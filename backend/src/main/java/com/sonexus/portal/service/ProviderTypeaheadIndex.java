@@ -0,0 +1,157 @@
+package com.sonexus.portal.service;
+
+import com.sonexus.portal.api.dto.ProviderSuggestion;
+import com.sonexus.portal.infrastructure.persistence.repository.ProviderDirectoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over active provider names for typeahead.
+ * Every word of a name is indexed, so "smi" finds "John Smith"; with several words typed, each
+ * must start a word of the name ("john smi"). Results are ordered like
+ * ProviderDirectoryRepository.suggest: names starting with the first word, then by name and id.
+ * The index is rebuilt from the
+ * database on startup and periodically, and swapped in atomically; until the first build
+ * completes, lookups return empty and callers fall back to the database.
+ * Enabled with app.providers.typeahead.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.providers.typeahead", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderTypeaheadIndex {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ProviderDirectoryRepository providerDirectoryRepository;
+
+    private volatile Snapshot snapshot;
+
+    private record Entry(String key, int provider) {
+    }
+
+    private record Snapshot(Entry[] entries, ProviderSuggestion[] providers, String[] nameKeys) {
+    }
+
+    /**
+     * Lowercase alphanumeric words of a name or query, the unit both the index and the database
+     * fallback match on
+     */
+    public static List<String> nameTokens(String text) {
+        return WORD_SEPARATOR.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.providers.typeahead.refresh-interval-ms:3600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<ProviderSuggestion> providers = new ArrayList<>();
+        List<String> nameKeys = new ArrayList<>();
+        List<Entry> entries = new ArrayList<>();
+
+        providerDirectoryRepository.streamActiveNames(rs -> {
+            int index = providers.size();
+            String name = rs.getString("name");
+            providers.add(ProviderSuggestion.builder()
+                    .id(rs.getLong("id"))
+                    .name(name)
+                    .specialty(rs.getString("specialty"))
+                    .state(rs.getString("state"))
+                    .build());
+            nameKeys.add(name.toLowerCase(Locale.ROOT));
+            for (String token : nameTokens(name)) {
+                entries.add(new Entry(token, index));
+            }
+        });
+
+        Entry[] sorted = entries.toArray(Entry[]::new);
+        Arrays.parallelSort(sorted, Comparator.comparing(Entry::key));
+        snapshot = new Snapshot(sorted, providers.toArray(ProviderSuggestion[]::new), nameKeys.toArray(String[]::new));
+
+        log.info("Provider typeahead index built: providers={}, tokens={}, took={} ms",
+                providers.size(), sorted.length, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Providers whose name has a word starting with each token, or empty if the index is not built yet.
+     * Scans the entries of the most selective token and checks the other tokens per candidate.
+     */
+    public Optional<List<ProviderSuggestion>> lookup(List<String> tokens, int limit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        Entry[] entries = current.entries();
+        int from = 0;
+        int to = entries.length;
+        for (String token : tokens) {
+            int tokenFrom = lowerBound(entries, token);
+            int tokenTo = lowerBound(entries, token + Character.MAX_VALUE);
+            if (tokenTo - tokenFrom < to - from) {
+                from = tokenFrom;
+                to = tokenTo;
+            }
+        }
+
+        String first = tokens.get(0);
+        Comparator<Integer> order = Comparator
+                .comparingInt((Integer p) -> current.nameKeys()[p].startsWith(first) ? 0 : 1)
+                .thenComparing(p -> current.nameKeys()[p])
+                .thenComparingLong(p -> current.providers()[p].getId());
+
+        // Keep the best limit matches: the head of the queue is the worst one kept
+        Set<Integer> seen = new HashSet<>();
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, order.reversed());
+        for (int i = from; i < to; i++) {
+            int provider = entries[i].provider();
+            if (seen.add(provider) && matchesAll(current.nameKeys()[provider], tokens)) {
+                top.add(provider);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        return Optional.of(top.stream()
+                .sorted(order)
+                .map(p -> current.providers()[p])
+                .toList());
+    }
+
+    private static boolean matchesAll(String nameKey, List<String> tokens) {
+        List<String> words = nameTokens(nameKey);
+        return tokens.stream().allMatch(token -> words.stream().anyMatch(word -> word.startsWith(token)));
+    }
+
+    private int lowerBound(Entry[] entries, String key) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid].key().compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -1,22 +1,28 @@
 package com.sonexus.portal.service;
 
 import com.sonexus.portal.api.dto.*;
+import com.sonexus.portal.api.support.CursorCodec;
+import com.sonexus.portal.api.support.CursorPages;
+import com.sonexus.portal.domain.events.MessageSentEvent;
+import com.sonexus.portal.domain.model.FileDownload;
 import com.sonexus.portal.domain.ports.AuthProvider;
+import com.sonexus.portal.domain.ports.EventBusPort;
 import com.sonexus.portal.domain.ports.FileStoragePort;
 import com.sonexus.portal.infrastructure.persistence.entity.*;
+import com.sonexus.portal.infrastructure.persistence.projection.ThreadSummaryView;
 import com.sonexus.portal.infrastructure.persistence.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -36,6 +42,11 @@ public class SecureMessageService {
     private final AuthProvider authProvider;
     private final AuditService auditService;
     private final FileStoragePort fileStoragePort;
+    private final UnreadCounterService unreadCounterService;
+    private final MessageReadReceiptRepository readReceiptRepository;
+    private final MessageThreadParticipantRepository participantRepository;
+    private final MessageStreamService messageStreamService;
+    private final EventBusPort eventBus;
 
     @Transactional
     public MessageThreadResponse createThread(CreateThreadRequest request) {
@@ -63,11 +74,12 @@ public class SecureMessageService {
         }
 
         SecureMessageThreadEntity thread = threadRepository.save(threadBuilder.build());
+        participantRepository.add(thread.getId(), userId);
         log.info("Message thread created: id={}, subject={}, createdBy={}", thread.getId(), thread.getSubject(), userId);
 
         auditService.logEvent("MESSAGE_THREAD_CREATED", "THREAD", thread.getId(), "CREATE");
 
-        return mapThreadToResponse(thread, userId);
+        return mapThreadToResponse(thread);
     }
 
     @Transactional(readOnly = true)
@@ -76,17 +88,43 @@ public class SecureMessageService {
                 .orElseThrow(() -> new RuntimeException("User not authenticated"))
                 .getId();
 
-        Page<SecureMessageThreadEntity> threads = threadRepository.findThreadsByUser(userId, pageable);
+        return threadRepository.findThreadsByUser(userId, pageable)
+                .map(this::mapThreadSummaryToResponse);
+    }
 
-        List<MessageThreadResponse> responses = threads.getContent().stream()
-                .map(thread -> mapThreadToResponse(thread, userId))
-                .collect(Collectors.toList());
+    /**
+     * The user's threads by latest activity with keyset pagination; the cursor-mode counterpart of getThreads
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<MessageThreadResponse> getThreadsByCursor(String cursor, int size) {
+        Long userId = authProvider.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("User not authenticated"))
+                .getId();
 
-        return new PageImpl<>(responses, pageable, threads.getTotalElements());
+        int pageSize = CursorPages.pageSize(size);
+        LocalDateTime afterActivityAt = CursorPages.LATEST;
+        long afterId = Long.MAX_VALUE;
+        if (!CursorPages.isFirstPage(cursor)) {
+            List<String> key = CursorCodec.decode(cursor, 2);
+            afterActivityAt = CursorPages.timestamp(key.get(0));
+            afterId = Long.parseLong(key.get(1));
+        }
+
+        List<ThreadSummaryView> threads = threadRepository.findThreadsByUserAfter(
+                userId, afterActivityAt, afterId, PageRequest.of(0, pageSize + 1));
+
+        return CursorPages.toResponse(threads, pageSize, this::mapThreadSummaryToResponse,
+                thread -> new Object[]{
+                        thread.getLastMessageAt() != null ? thread.getLastMessageAt() : thread.getCreatedAt(),
+                        thread.getId()});
     }
 
+    /**
+     * Open a thread: returns the newest page of messages and marks the thread read for the viewer.
+     * Older history is fetched with getThreadMessages using messagesNextCursor.
+     */
     @Transactional
-    public MessageThreadResponse getThreadById(Long threadId) {
+    public MessageThreadResponse getThreadById(Long threadId, int size) {
         Long userId = authProvider.getCurrentUser()
                 .orElseThrow(() -> new RuntimeException("User not authenticated"))
                 .getId();
@@ -94,17 +132,46 @@ public class SecureMessageService {
         SecureMessageThreadEntity thread = threadRepository.findById(threadId)
                 .orElseThrow(() -> new RuntimeException("Thread not found"));
 
-        // Mark unread messages as read
-        List<SecureMessageEntity> messages = messageRepository.findByThreadIdOrderBySentAt(threadId);
-        messages.stream()
-                .filter(m -> m.getReadAt() == null && !m.getSentBy().getId().equals(userId))
-                .forEach(m -> m.setReadAt(LocalDateTime.now()));
+        // One set-based UPDATE instead of loading and saving every unread message
+        LocalDateTime readAt = LocalDateTime.now();
+        int marked = messageRepository.markThreadRead(threadId, userId, readAt);
+
+        CursorPageResponse<MessageResponse> page = loadMessagePage(threadId, Long.MAX_VALUE, size);
+        if (!page.getItems().isEmpty()) {
+            readReceiptRepository.advance(threadId, userId, page.getItems().get(0).getId(), readAt);
+        }
+        unreadCounterService.onThreadRead(threadId, userId);
+        messageStreamService.onThreadRead(userId);
+        log.debug("Thread opened: id={}, userId={}, markedRead={}", threadId, userId, marked);
+
+        MessageThreadResponse response = mapThreadToResponse(thread);
+        response.setMessages(page.getItems());
+        response.setMessagesNextCursor(page.getNextCursor());
+        response.setReadReceipts(readReceiptRepository.findByThreadId(threadId).stream()
+                .map(receipt -> ReadReceiptResponse.builder()
+                        .userId(receipt.userId())
+                        .lastReadMessageId(receipt.lastReadMessageId())
+                        .readAt(receipt.readAt())
+                        .build())
+                .toList());
+        return response;
+    }
 
-        if (!messages.isEmpty()) {
-            messageRepository.saveAll(messages);
+    /**
+     * Older message history of a thread, newest first, with keyset pagination
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<MessageResponse> getThreadMessages(Long threadId, String cursor, int size) {
+        if (!threadRepository.existsById(threadId)) {
+            throw new RuntimeException("Thread not found");
         }
 
-        return mapThreadToResponseWithMessages(thread, messages, userId);
+        long beforeId = Long.MAX_VALUE;
+        if (!CursorPages.isFirstPage(cursor)) {
+            beforeId = Long.parseLong(CursorCodec.decode(cursor, 1).get(0));
+        }
+
+        return loadMessagePage(threadId, beforeId, size);
     }
 
     @Transactional
@@ -138,6 +205,10 @@ public class SecureMessageService {
         // Update thread last message timestamp
         thread.setLastMessageAt(message.getSentAt());
         threadRepository.save(thread);
+        participantRepository.add(threadId, userId);
+        List<Long> recipients = unreadCounterService.onMessageSent(threadId, userId);
+        eventBus.publish(new MessageSentEvent(threadId, message.getId(), userId,
+                sentBy.getFirstName() + " " + sentBy.getLastName(), message.getSentAt(), recipients));
 
         log.info("Message sent: id={}, threadId={}, sentBy={}", message.getId(), threadId, userId);
         auditService.logEvent("MESSAGE_SENT", "MESSAGE", message.getId(), "CREATE");
@@ -182,11 +253,13 @@ public class SecureMessageService {
         return mapAttachmentToResponse(attachment);
     }
 
+    /**
+     * Look up an attachment for streaming; the download itself is recorded by recordAttachmentDownload
+     */
     @Transactional(readOnly = true)
-    public byte[] downloadAttachment(Long attachmentId) {
-        Long userId = authProvider.getCurrentUser()
-                .orElseThrow(() -> new RuntimeException("User not authenticated"))
-                .getId();
+    public FileDownload downloadAttachment(Long attachmentId) {
+        authProvider.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("User not authenticated"));
 
         MessageAttachmentEntity attachment = attachmentRepository.findById(attachmentId)
                 .orElseThrow(() -> new RuntimeException("Attachment not found"));
@@ -197,22 +270,31 @@ public class SecureMessageService {
             throw new RuntimeException("Attachment not associated with a message");
         }
 
-        try {
-            InputStream inputStream = fileStoragePort.retrieveFile(attachment.getFilePath());
-            byte[] fileContent = inputStream.readAllBytes();
+        // Attachments are immutable once uploaded, so the id is a sufficient validator
+        String filePath = attachment.getFilePath();
+        return FileDownload.builder()
+                .fileName(attachment.getFileName())
+                .contentType(attachment.getMimeType() != null ? attachment.getMimeType() : "application/octet-stream")
+                .contentLength(attachment.getFileSize())
+                .etag("\"attachment-" + attachment.getId() + "\"")
+                .lastModified(attachment.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant())
+                .content((offset, length) -> fileStoragePort.retrieveFile(filePath, offset, length))
+                .build();
+    }
 
-            log.info("Attachment downloaded: id={}, fileName={}, downloadedBy={}", attachment.getId(), attachment.getFileName(), userId);
-            auditService.logEvent("ATTACHMENT_DOWNLOADED", "ATTACHMENT", attachment.getId(), "VIEW");
+    /**
+     * Audit a download of an attachment; called once per download, not per range request or revalidation
+     */
+    public void recordAttachmentDownload(Long attachmentId) {
+        Long userId = authProvider.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("User not authenticated"))
+                .getId();
 
-            return fileContent;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to read attachment file", e);
-        }
+        log.info("Attachment downloaded: id={}, downloadedBy={}", attachmentId, userId);
+        auditService.logEvent("ATTACHMENT_DOWNLOADED", "ATTACHMENT", attachmentId, "VIEW");
     }
 
-    private MessageThreadResponse mapThreadToResponse(SecureMessageThreadEntity thread, Long currentUserId) {
-        Long unreadCount = messageRepository.countUnreadMessages(thread.getId(), currentUserId);
-
+    private MessageThreadResponse mapThreadToResponse(SecureMessageThreadEntity thread) {
         return MessageThreadResponse.builder()
                 .id(thread.getId())
                 .subject(thread.getSubject())
@@ -225,20 +307,35 @@ public class SecureMessageService {
                 .createdByName(thread.getCreatedBy().getFirstName() + " " + thread.getCreatedBy().getLastName())
                 .createdAt(thread.getCreatedAt())
                 .lastMessageAt(thread.getLastMessageAt())
-                .unreadCount(unreadCount)
+                // Only used right after the viewer created or opened the thread
+                .unreadCount(0L)
                 .build();
     }
 
-    private MessageThreadResponse mapThreadToResponseWithMessages(
-            SecureMessageThreadEntity thread,
-            List<SecureMessageEntity> messages,
-            Long currentUserId) {
+    private MessageThreadResponse mapThreadSummaryToResponse(ThreadSummaryView thread) {
+        return MessageThreadResponse.builder()
+                .id(thread.getId())
+                .subject(thread.getSubject())
+                .programId(thread.getProgramId())
+                .programName(thread.getProgramName())
+                .patientId(thread.getPatientId())
+                .patientName(thread.getPatientId() != null ?
+                        thread.getPatientFirstName() + " " + thread.getPatientLastName() : null)
+                .createdBy(thread.getCreatedById())
+                .createdByName(thread.getCreatedByFirstName() + " " + thread.getCreatedByLastName())
+                .createdAt(thread.getCreatedAt())
+                .lastMessageAt(thread.getLastMessageAt())
+                .unreadCount(thread.getUnreadCount() != null ? thread.getUnreadCount().longValue() : 0L)
+                .build();
+    }
 
-        MessageThreadResponse response = mapThreadToResponse(thread, currentUserId);
-        response.setMessages(messages.stream()
-                .map(this::mapMessageToResponse)
-                .collect(Collectors.toList()));
-        return response;
+    private CursorPageResponse<MessageResponse> loadMessagePage(Long threadId, long beforeId, int size) {
+        int pageSize = CursorPages.pageSize(size);
+        List<SecureMessageEntity> messages = messageRepository.findPageBefore(
+                threadId, beforeId, PageRequest.of(0, pageSize + 1));
+
+        return CursorPages.toResponse(messages, pageSize, this::mapMessageToResponse,
+                message -> new Object[]{message.getId()});
     }
 
     private MessageResponse mapMessageToResponse(SecureMessageEntity message) {
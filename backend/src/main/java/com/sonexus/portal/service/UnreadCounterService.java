@@ -0,0 +1,108 @@
+package com.sonexus.portal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sonexus.portal.infrastructure.cache.ClusterCacheInvalidator;
+import com.sonexus.portal.infrastructure.persistence.projection.UnreadSummary;
+import com.sonexus.portal.infrastructure.persistence.repository.MessageUnreadCounterRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user unread message counters: persisted per thread in message_unread_counters, with each
+ * user's totals cached in memory for inbox badges and the dashboard. Cached totals are evicted
+ * after the changing transaction commits, so a concurrent read cannot re-cache the old value,
+ * and on the other nodes through ClusterCacheInvalidator.
+ */
+@Service
+@Slf4j
+public class UnreadCounterService {
+
+    private static final String REGION = "unread_summaries";
+    private static final int MAX_BROADCAST_KEY_LENGTH = 4000;
+
+    private final MessageUnreadCounterRepository counterRepository;
+    private final ClusterCacheInvalidator invalidator;
+    private final Cache<Long, UnreadSummary> summaries;
+
+    public UnreadCounterService(
+            MessageUnreadCounterRepository counterRepository,
+            ClusterCacheInvalidator invalidator,
+            MeterRegistry meterRegistry,
+            @Value("${app.messaging.unread-cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${app.messaging.unread-cache.max-size:10000}") long maxSize) {
+        this.counterRepository = counterRepository;
+        this.invalidator = invalidator;
+        this.summaries = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries, REGION);
+
+        // Key is a comma-separated list of user ids, so one notification covers all recipients
+        invalidator.register(REGION, key -> {
+            if (ClusterCacheInvalidator.ALL.equals(key)) {
+                summaries.invalidateAll();
+            } else {
+                summaries.invalidateAll(Arrays.stream(key.split(",")).map(Long::valueOf).toList());
+            }
+        });
+    }
+
+    /**
+     * Count the new message for every participant except the sender
+     * @return the users whose counters changed
+     */
+    @Transactional
+    public List<Long> onMessageSent(Long threadId, Long senderId) {
+        List<Long> recipients = counterRepository.incrementForParticipants(threadId, senderId);
+        evictAfterCommit(recipients);
+        return recipients;
+    }
+
+    @Transactional
+    public void onThreadRead(Long threadId, Long userId) {
+        if (counterRepository.clear(threadId, userId)) {
+            evictAfterCommit(List.of(userId));
+        }
+    }
+
+    /**
+     * The user's unread totals, from memory when cached
+     */
+    public UnreadSummary getSummary(Long userId) {
+        return summaries.get(userId, counterRepository::summarize);
+    }
+
+    private void evictAfterCommit(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String key = userIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        // NOTIFY payloads are limited to 8000 bytes; a very large thread clears the region instead
+        invalidator.broadcast(REGION, key.length() <= MAX_BROADCAST_KEY_LENGTH ? key : ClusterCacheInvalidator.ALL);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    summaries.invalidateAll(userIds);
+                }
+            });
+        } else {
+            summaries.invalidateAll(userIds);
+        }
+    }
+}
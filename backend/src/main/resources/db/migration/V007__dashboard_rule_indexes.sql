@@ -0,0 +1,13 @@
+-- V007: Indexes backing the dashboard next-action rules
+
+-- Stale enrollments: status = 'SUBMITTED' AND submitted_at < cutoff, oldest first
+CREATE INDEX idx_enrollments_status_submitted_at ON enrollments(status, submitted_at);
+
+-- Patients without services: anti-join on active service enrollments
+CREATE INDEX idx_patient_service_enrollments_patient_status ON patient_service_enrollments(patient_id, status);
+
+-- Patients without services: newest patients first
+CREATE INDEX idx_patients_created_at ON patients(created_at DESC);
+
+-- Unread messages: only unread rows are indexed, so the index stays small
+CREATE INDEX idx_message_unread ON secure_messages(thread_id, sent_by) WHERE read_at IS NULL;
@@ -0,0 +1,29 @@
+-- V008: Materialized dashboard next actions
+-- Rows are maintained incrementally by the services that change the underlying state and
+-- reconciled periodically by NextActionSweeper. due_at records when an action becomes
+-- visible, so time-based rules ("submitted > 7 days", "investigation expired") surface on
+-- read without a write at the moment they fall due.
+
+CREATE TABLE next_actions (
+    id BIGSERIAL PRIMARY KEY,
+    action_type VARCHAR(20) NOT NULL,
+    resource_id BIGINT NOT NULL,
+    user_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
+    patient_id BIGINT REFERENCES patients(id) ON DELETE CASCADE,
+    patient_name VARCHAR(201),
+    reference_at TIMESTAMP,
+    due_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT check_next_action_type CHECK (action_type IN ('ENROLLMENT', 'BENEFITS', 'SERVICE', 'MESSAGE'))
+);
+
+-- One row per rule and resource; user_id is NULL for actions shown to every dashboard user
+CREATE UNIQUE INDEX uq_next_actions_type_resource_user ON next_actions(action_type, resource_id, COALESCE(user_id, 0));
+
+-- Dashboard read: (user_id IS NULL OR user_id = ?) AND due_at <= now
+CREATE INDEX idx_next_actions_user_due ON next_actions(user_id, due_at);
+CREATE INDEX idx_next_actions_patient_id ON next_actions(patient_id);
+
+COMMENT ON TABLE next_actions IS 'Materialized dashboard next actions maintained from service state changes';
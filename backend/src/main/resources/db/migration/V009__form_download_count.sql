@@ -0,0 +1,15 @@
+-- V009: Denormalized download counter on form_resources
+
+-- Incremented in the same transaction that writes the download_audits row,
+-- so form listings no longer count download_audits per row
+ALTER TABLE form_resources ADD COLUMN download_count BIGINT NOT NULL DEFAULT 0;
+
+-- Backfill from existing download history
+UPDATE form_resources f
+SET download_count = d.cnt
+FROM (
+    SELECT form_resource_id, COUNT(*) AS cnt
+    FROM download_audits
+    GROUP BY form_resource_id
+) d
+WHERE d.form_resource_id = f.id;
@@ -0,0 +1,14 @@
+-- V010: Trigram indexes for patient search
+
+-- pg_trgm is a trusted extension (PostgreSQL 13+), so the database owner can create it
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Substring and prefix matching on names: LOWER(col) LIKE '%term%' / 'term%'
+CREATE INDEX idx_patients_first_name_trgm ON patients USING gin (LOWER(first_name) gin_trgm_ops);
+CREATE INDEX idx_patients_last_name_trgm ON patients USING gin (LOWER(last_name) gin_trgm_ops);
+
+-- Reference id matching (LIKE / ILIKE)
+CREATE INDEX idx_patients_reference_id_trgm ON patients USING gin (reference_id gin_trgm_ops);
+
+-- Keyset order of the ranked search within a tier
+CREATE INDEX idx_patients_name_order ON patients (LOWER(last_name), LOWER(first_name), id);
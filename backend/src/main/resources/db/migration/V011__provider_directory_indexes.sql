@@ -0,0 +1,11 @@
+-- V011: Indexes backing the provider directory search (active providers only)
+
+-- Trigram name matching: LOWER(name) LIKE '%term%' / 'term%'
+CREATE INDEX idx_providers_name_trgm ON providers USING gin (LOWER(name) gin_trgm_ops) WHERE active;
+
+-- Keyset order within a rank tier
+CREATE INDEX idx_providers_active_name_order ON providers (LOWER(name), id) WHERE active;
+
+-- Facet filters and counts
+CREATE INDEX idx_providers_active_specialty ON providers (specialty) WHERE active;
+CREATE INDEX idx_providers_active_state_specialty ON providers (state, specialty) WHERE active;
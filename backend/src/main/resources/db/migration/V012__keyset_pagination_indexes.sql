@@ -0,0 +1,18 @@
+-- V012: Composite indexes matching the keyset pagination sort keys
+-- Each cursor listing orders by (sort column, id) and seeks past the last row of the previous page,
+-- so the index has to cover both columns in the same direction for the seek to be a single range scan.
+
+CREATE INDEX idx_patients_created_at_id ON patients (created_at DESC, id DESC);
+
+CREATE INDEX idx_providers_active_name_id ON providers (name, id) WHERE active;
+
+CREATE INDEX idx_audit_events_created_at_id ON audit_events (created_at DESC, id DESC);
+
+CREATE INDEX idx_threads_activity_id
+    ON secure_message_threads (COALESCE(last_message_at, created_at) DESC, id DESC);
+
+CREATE INDEX idx_form_resources_uploaded_at_id ON form_resources (uploaded_at DESC, id DESC);
+
+-- Superseded by the composite indexes above
+DROP INDEX IF EXISTS idx_patients_created_at;
+DROP INDEX IF EXISTS idx_form_resources_uploaded_at;
@@ -0,0 +1,27 @@
+-- V013: Per-user, per-thread unread message counters
+-- Incremented for every other participant when a message is sent and cleared when the user opens
+-- the thread. A missing row means nothing unread, so only threads with unread messages have rows.
+
+CREATE TABLE message_unread_counters (
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    thread_id BIGINT NOT NULL REFERENCES secure_message_threads(id) ON DELETE CASCADE,
+    unread_count INTEGER NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, thread_id)
+);
+
+CREATE INDEX idx_message_unread_counters_thread ON message_unread_counters(thread_id);
+
+-- Backfill from the messages each participant has not read yet
+INSERT INTO message_unread_counters (user_id, thread_id, unread_count)
+SELECT participant.user_id, m.thread_id, COUNT(*)
+FROM secure_messages m
+JOIN (
+    SELECT id AS thread_id, created_by AS user_id FROM secure_message_threads
+    UNION SELECT thread_id, sent_by FROM secure_messages
+) participant ON participant.thread_id = m.thread_id
+WHERE m.read_at IS NULL AND m.sent_by <> participant.user_id
+GROUP BY participant.user_id, m.thread_id;
+
+-- The dashboard unread-messages action now reads the counters
+DELETE FROM next_actions WHERE action_type = 'MESSAGE';
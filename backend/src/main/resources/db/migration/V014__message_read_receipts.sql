@@ -0,0 +1,14 @@
+-- V014: Per-user read watermarks and message history paging
+-- A receipt records the newest message a user has seen in a thread; everything up to it is read.
+
+CREATE TABLE message_read_receipts (
+    thread_id BIGINT NOT NULL REFERENCES secure_message_threads(id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    last_read_message_id BIGINT NOT NULL,
+    read_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (thread_id, user_id)
+);
+
+-- Message history is paged newest first by id within a thread
+CREATE INDEX idx_message_thread_id_desc ON secure_messages(thread_id, id DESC);
+DROP INDEX IF EXISTS idx_message_thread;
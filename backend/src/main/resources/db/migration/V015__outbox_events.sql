@@ -0,0 +1,20 @@
+-- V015: Transactional outbox for domain events
+-- Rows are written in the same transaction as the change they describe and relayed to the
+-- in-process event bus afterwards. Relayed rows keep published_at for a retention period.
+
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_id VARCHAR(36) NOT NULL UNIQUE,
+    event_type VARCHAR(100) NOT NULL,
+    aggregate_id VARCHAR(100),
+    payload JSONB NOT NULL,
+    occurred_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+);
+
+-- The relay claims the oldest pending rows; the index holds only the pending tail
+CREATE INDEX idx_outbox_events_pending ON outbox_events(id) WHERE published_at IS NULL;
+
+-- Cleanup of relayed rows past retention
+CREATE INDEX idx_outbox_events_published_at ON outbox_events(published_at) WHERE published_at IS NOT NULL;
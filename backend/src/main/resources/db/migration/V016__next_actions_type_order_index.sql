@@ -0,0 +1,6 @@
+-- V016: Per-type top-N read of next_actions
+-- The dashboard reads at most N rows per action type in (reference_at ASC NULLS LAST, id DESC)
+-- order; this index lets each per-type LIMIT query stop after N visible rows instead of ranking
+-- every visible row with a window function.
+
+CREATE INDEX idx_next_actions_type_reference ON next_actions(action_type, reference_at ASC NULLS LAST, id DESC);
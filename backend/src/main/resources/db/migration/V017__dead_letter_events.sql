@@ -0,0 +1,20 @@
+-- V017: Dead-lettered domain events
+-- Events the in-process bus could not queue or whose handler kept failing, and events still queued
+-- when a node stopped. Kept with their payload so an operator can replay them; replayed_at is set
+-- when an event is handed back to the bus.
+
+CREATE TABLE dead_letter_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_id VARCHAR(36) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    aggregate_id VARCHAR(100),
+    payload JSONB NOT NULL,
+    handler VARCHAR(255) NOT NULL,
+    reason TEXT NOT NULL,
+    attempts INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    replayed_at TIMESTAMP
+);
+
+-- The admin list shows the dead letters not yet replayed, newest first
+CREATE INDEX idx_dead_letter_events_pending ON dead_letter_events(id DESC) WHERE replayed_at IS NULL;
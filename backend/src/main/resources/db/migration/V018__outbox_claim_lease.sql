@@ -0,0 +1,7 @@
+-- V018: Outbox claims become leases
+-- The relay used to set published_at when it claimed a row, so an event was lost if the node
+-- crashed or the bus could not handle it. A claim now records the node and time; published_at is
+-- set only after the handlers ran, and a row whose claim is older than the lease is claimed again.
+
+ALTER TABLE outbox_events ADD COLUMN claimed_at TIMESTAMP;
+ALTER TABLE outbox_events ADD COLUMN claimed_by VARCHAR(36);
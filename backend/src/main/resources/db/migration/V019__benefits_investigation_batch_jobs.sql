@@ -0,0 +1,20 @@
+-- V019: Benefits investigation batch jobs
+-- Job status and counts, and the item results once the job finishes, so any node can answer a
+-- status request. updated_at moves with every saved chunk; a RUNNING job whose node stopped
+-- updating it is marked INTERRUPTED.
+
+CREATE TABLE benefits_investigation_batch_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    status VARCHAR(20) NOT NULL,
+    total INTEGER NOT NULL,
+    succeeded INTEGER NOT NULL DEFAULT 0,
+    failed INTEGER NOT NULL DEFAULT 0,
+    results JSONB,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP
+);
+
+-- Retention cleanup of finished jobs and the stale RUNNING check
+CREATE INDEX idx_bi_batch_jobs_status_updated ON benefits_investigation_batch_jobs(status, updated_at);
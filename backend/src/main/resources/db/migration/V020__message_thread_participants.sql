@@ -0,0 +1,13 @@
+-- V020: Thread participants, recorded when a thread is created and when a user first posts to it,
+-- so counting a new message for them does not re-read the thread's message history
+
+CREATE TABLE message_thread_participants (
+    thread_id BIGINT NOT NULL REFERENCES secure_message_threads(id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    PRIMARY KEY (thread_id, user_id)
+);
+
+INSERT INTO message_thread_participants (thread_id, user_id)
+SELECT id, created_by FROM secure_message_threads
+UNION
+SELECT thread_id, sent_by FROM secure_messages;
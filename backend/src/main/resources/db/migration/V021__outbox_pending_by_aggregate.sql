@@ -0,0 +1,6 @@
+-- V021: Relays claim an aggregate's outbox rows only while no other node holds an older one, which
+-- looks up an aggregate's unpublished rows, and its leased ones, by id
+
+CREATE INDEX idx_outbox_events_pending_aggregate ON outbox_events (aggregate_id, id) WHERE published_at IS NULL;
+CREATE INDEX idx_outbox_events_leased ON outbox_events (aggregate_id, id)
+    WHERE published_at IS NULL AND claimed_at IS NOT NULL;
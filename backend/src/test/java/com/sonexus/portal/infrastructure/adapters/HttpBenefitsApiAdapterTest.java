@@ -0,0 +1,216 @@
+package com.sonexus.portal.infrastructure.adapters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sonexus.portal.domain.exceptions.UpstreamUnavailableException;
+import com.sonexus.portal.domain.model.BenefitsInvestigationRequest;
+import com.sonexus.portal.domain.model.BenefitsInvestigationResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the adapter against a stub payer API on a local JDK HttpServer
+ */
+class HttpBenefitsApiAdapterTest {
+
+    private static final String COVERED = """
+            {"coverageStatus":"COVERED","coverageType":"COMMERCIAL","priorAuthRequired":true}""";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    /** Counted down after each test so stalled handlers return */
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private volatile HttpHandler handler;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        serverThreads = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/", exchange -> {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            handler.handle(exchange);
+        });
+        server.setExecutor(serverThreads);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void mapsTheResponse() {
+        handler = exchange -> respond(exchange, 200, COVERED);
+
+        BenefitsInvestigationResult result = adapter(5000, 20, 100, 0, 5).investigateMedicalCoverage(request());
+
+        assertThat(result.getCoverageStatus()).isEqualTo("COVERED");
+        assertThat(result.getCoverageType()).isEqualTo("COMMERCIAL");
+        assertThat(result.getPriorAuthRequired()).isTrue();
+    }
+
+    @Test
+    void slowRequestIsHedgedAndTheFasterAnswerWins() {
+        AtomicInteger calls = new AtomicInteger();
+        handler = exchange -> {
+            if (calls.incrementAndGet() == 1) {
+                stall();
+            }
+            respond(exchange, 200, COVERED);
+        };
+        HttpBenefitsApiAdapter adapter = adapter(3000, 20, 100, 100, 5);
+
+        long start = System.nanoTime();
+        BenefitsInvestigationResult result = adapter.investigateMedicalCoverage(request());
+
+        assertThat(result.getCoverageStatus()).isEqualTo("COVERED");
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+        assertThat(meterRegistry.counter("benefits.http.hedged").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void deadlineCoversTheWholeCall() {
+        handler = exchange -> {
+            stall();
+            respond(exchange, 200, COVERED);
+        };
+        HttpBenefitsApiAdapter adapter = adapter(300, 20, 100, 100, 5);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> adapter.investigateMedicalCoverage(request()))
+                .isInstanceOf(UpstreamUnavailableException.class)
+                .hasMessageContaining("did not answer within 300 ms");
+
+        // Primary and hedge share the deadline
+        assertThat(meterRegistry.counter("benefits.http.hedged").count()).isEqualTo(1.0);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+    }
+
+    @Test
+    void serverErrorsAndThrottlingOpenTheCircuit() {
+        AtomicInteger calls = new AtomicInteger();
+        handler = exchange -> respond(exchange, calls.incrementAndGet() == 1 ? 503 : 429, "{}");
+        HttpBenefitsApiAdapter adapter = adapter(3000, 20, 100, 0, 2);
+
+        assertThatThrownBy(() -> adapter.investigateMedicalCoverage(request()))
+                .isInstanceOf(UpstreamUnavailableException.class)
+                .hasMessageContaining("HTTP 503");
+        assertThat(adapter.isAvailable()).isTrue();
+        assertThatThrownBy(() -> adapter.investigatePharmacyCoverage(request()))
+                .isInstanceOf(UpstreamUnavailableException.class)
+                .hasMessageContaining("HTTP 429");
+        assertThat(adapter.isAvailable()).isFalse();
+
+        assertThatThrownBy(() -> adapter.investigateMedicalCoverage(request()))
+                .isInstanceOf(UpstreamUnavailableException.class)
+                .hasMessageContaining("unavailable");
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(meterRegistry.counter("benefits.http.rejected", "reason", "circuit_open").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void fullBulkheadRejectsTheCall() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        handler = exchange -> {
+            received.countDown();
+            stall();
+            respond(exchange, 200, COVERED);
+        };
+        HttpBenefitsApiAdapter adapter = adapter(5000, 1, 50, 0, 5);
+
+        CompletableFuture<BenefitsInvestigationResult> first =
+                CompletableFuture.supplyAsync(() -> adapter.investigateMedicalCoverage(request()));
+        assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> adapter.investigateMedicalCoverage(request()))
+                .isInstanceOf(UpstreamUnavailableException.class)
+                .hasMessageContaining("busy");
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("benefits.http.rejected", "reason", "bulkhead").count())
+                .isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getCoverageStatus()).isEqualTo("COVERED");
+    }
+
+    @Test
+    void clientErrorIsABadRequestAndKeepsTheCircuitClosed() {
+        handler = exchange -> respond(exchange, 422, "{\"error\":\"memberId is required\"}");
+        HttpBenefitsApiAdapter adapter = adapter(3000, 20, 100, 0, 1);
+
+        assertThatThrownBy(() -> adapter.investigateMedicalCoverage(request()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("HTTP 422");
+        assertThat(adapter.isAvailable()).isTrue();
+    }
+
+    private HttpBenefitsApiAdapter adapter(long requestTimeoutMs, int maxConcurrentCalls, long bulkheadWaitMs,
+                                           long hedgeDelayMs, int failureThreshold) {
+        return new HttpBenefitsApiAdapter(
+                new ObjectMapper().findAndRegisterModules(),
+                meterRegistry,
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/v1",
+                "",
+                1000,
+                requestTimeoutMs,
+                maxConcurrentCalls,
+                bulkheadWaitMs,
+                hedgeDelayMs,
+                failureThreshold,
+                60000,
+                false);
+    }
+
+    private static BenefitsInvestigationRequest request() {
+        return BenefitsInvestigationRequest.builder()
+                .investigationType("MEDICAL")
+                .payerName("Aetna")
+                .payerPlanId("AET-1")
+                .memberId("M-1")
+                .build();
+    }
+
+    private void stall() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.sonexus.portal.infrastructure.benefits;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payer evaluation with the compiled keyword automaton against the hardcoded contains() chains it
+ * replaced, over a mix of payers that hit early, late and no rules.
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Dbenchmark=CompiledBenefitsRulesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompiledBenefitsRulesBenchmark {
+
+    private static final String[][] PAYERS = {
+            {"Medicare Part D", "PLAN-1"},
+            {"State Medicaid Managed Care", "MCD-22"},
+            {"BlueCross BlueShield of Illinois", "BC-1"},
+            {"Humana Gold Plus HMO", "HMO-55"},
+            {"Express Scripts", "PA-7"},
+            {"Walgreens Specialty Pharmacy", "W-1"},
+            {"Local Employer Benefit Trust Fund", "LET-1"},
+            {"Regional Teachers Association Health Plan", "RTA-300"}
+    };
+
+    private CompiledBenefitsRules compiled;
+
+    @Setup
+    public void setUp() throws IOException {
+        compiled = LegacyBenefitsRules.compiledDefaults();
+    }
+
+    @Benchmark
+    public void compiled(Blackhole blackhole) {
+        for (String[] payer : PAYERS) {
+            blackhole.consume(compiled.evaluate(payer[0], payer[1]));
+        }
+    }
+
+    @Benchmark
+    public void hardcoded(Blackhole blackhole) {
+        for (String[] payer : PAYERS) {
+            blackhole.consume(LegacyBenefitsRules.evaluate(payer[0], payer[1]));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.sonexus.portal.infrastructure.benefits;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledBenefitsRulesTest {
+
+    private static CompiledBenefitsRules rules;
+
+    @BeforeAll
+    static void compile() throws IOException {
+        rules = LegacyBenefitsRules.compiledDefaults();
+    }
+
+    @ParameterizedTest
+    @CsvSource(nullValues = "NULL", value = {
+            "Medicare Part D, PLAN-1",
+            "CMS Region 4, ",
+            "State Medicaid, MCD-22",
+            "BlueCross BlueShield, BC-1",
+            "Aetna HMO, AET-9",
+            "UnitedHealthcare, pa-100",
+            "United Healthcare Choice, X-PA-1",
+            "Humana Gold, HMO-55",
+            "Anthem PA- Network, A-1",
+            "Cigna prior auth plan, C-2",
+            "Optum Rx, OPT-1",
+            "CVS Caremark, ",
+            "Express Scripts, PA-7",
+            "Walgreens Specialty Pharmacy, W-1",
+            "Local Employer Trust, LET-1",
+            "NULL, PA-1",
+            "NULL, NULL",
+            "'', ''"
+    })
+    void matchesTheHardcodedRules(String payerName, String payerPlanId) {
+        assertThat(rules.evaluate(payerName, payerPlanId))
+                .isEqualTo(LegacyBenefitsRules.evaluate(payerName, payerPlanId));
+    }
+
+    @Test
+    void planIdIsOnlyCheckedForThePriorAuthPrefix() {
+        assertThat(rules.evaluate("Local Employer Trust", "HMO-1").medicalPriorAuthRequired()).isFalse();
+        assertThat(rules.evaluate("Local Employer Trust", "X-PA-1").pharmacyPriorAuthRequired()).isFalse();
+        assertThat(rules.evaluate("Local Employer Trust", "pa-1").pharmacyPriorAuthRequired()).isTrue();
+    }
+
+    @Test
+    void bcbsIsCommercial() {
+        // Listed in benefits-rules.yml; the hardcoded rules only knew "blue"
+        assertThat(rules.evaluate("BCBS of Texas", "T-1").coverageType()).isEqualTo("COMMERCIAL");
+    }
+}
@@ -0,0 +1,72 @@
+package com.sonexus.portal.infrastructure.benefits;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * The hardcoded payer rules RuleBasedBenefitsAdapter used before benefits-rules.yml was compiled,
+ * kept as the reference for CompiledBenefitsRules
+ */
+final class LegacyBenefitsRules {
+
+    private LegacyBenefitsRules() {
+    }
+
+    static CompiledBenefitsRules.Evaluation evaluate(String payerName, String payerPlanId) {
+        boolean priorAuth = priorAuthRequired(payerName, payerPlanId);
+        return new CompiledBenefitsRules.Evaluation(coverageType(payerName), priorAuth, priorAuth,
+                specialtyPharmacyRequired(payerName));
+    }
+
+    /**
+     * The shipped benefits-rules.yml, compiled
+     */
+    static CompiledBenefitsRules compiledDefaults() throws IOException {
+        try (InputStream in = LegacyBenefitsRules.class.getResourceAsStream("/benefits-rules.yml")) {
+            Map<String, Object> yaml = new Yaml().load(in);
+            return CompiledBenefitsRules.compile(new ObjectMapper().convertValue(yaml, BenefitsRules.class));
+        }
+    }
+
+    private static String coverageType(String payerName) {
+        if (payerName == null || payerName.isBlank()) {
+            return "UNKNOWN";
+        }
+        String lowerPayerName = payerName.toLowerCase();
+        if (lowerPayerName.contains("medicare") || lowerPayerName.contains("cms")
+                || lowerPayerName.contains("part d") || lowerPayerName.contains("part b")) {
+            return "MEDICARE";
+        }
+        if (lowerPayerName.contains("medicaid")) {
+            return "MEDICAID";
+        }
+        if (lowerPayerName.contains("blue") || lowerPayerName.contains("aetna")
+                || lowerPayerName.contains("cigna") || lowerPayerName.contains("uhc")
+                || lowerPayerName.contains("united healthcare") || lowerPayerName.contains("anthem")
+                || lowerPayerName.contains("humana")) {
+            return "COMMERCIAL";
+        }
+        return "UNKNOWN";
+    }
+
+    private static boolean priorAuthRequired(String payerName, String payerPlanId) {
+        if (payerPlanId != null && payerPlanId.toUpperCase().startsWith("PA-")) {
+            return true;
+        }
+        return payerName != null && payerName.toLowerCase().contains("hmo");
+    }
+
+    private static boolean specialtyPharmacyRequired(String payerName) {
+        if (payerName == null) {
+            return false;
+        }
+        String lowerPayerName = payerName.toLowerCase();
+        return lowerPayerName.contains("optum") || lowerPayerName.contains("caremark")
+                || lowerPayerName.contains("express scripts") || lowerPayerName.contains("accredo")
+                || lowerPayerName.contains("cvs specialty") || lowerPayerName.contains("walgreens specialty");
+    }
+}
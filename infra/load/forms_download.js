@@ -0,0 +1,69 @@
+// Form download load test: platform-thread Tomcat vs the virtual-threads profile
+//
+// /forms/{id}/download blocks on Postgres (form metadata, audit) and on MinIO (getObject), so
+// it is bound by the number of request threads. Start the stack (docker compose up postgres minio
+// minio-init), upload at least one form, then run the same test against each mode:
+//
+//   cd backend
+//   mvn -Pjava21 spring-boot:run
+//   k6 run -e FORM_ID=1 ../infra/load/forms_download.js
+//
+//   mvn -Pjava21 spring-boot:run -Dspring-boot.run.profiles=default,virtual-threads \
+//       -Dspring-boot.run.jvmArguments=-Djdk.tracePinnedThreads=short
+//   k6 run -e FORM_ID=1 ../infra/load/forms_download.js
+//
+// Keep "default" in the profile list: the JWT, MinIO and rule-based benefits adapters are only
+// active under it, and naming a profile replaces the default one. Both runs use the same JDK and
+// the same settings (Tomcat's default of 200 request threads, Hikari's default pool), so the
+// thread model is the only difference. Compare http_reqs (throughput) and http_req_duration
+// p(95)/p(99). The platform run caps concurrency at the Tomcat pool, so latency grows once VUs
+// exceed 200 (MAX_VUS defaults to 400); with virtual threads the remaining limit is the Hikari
+// pool and MinIO. Pinned carriers show up as
+// jvm.threads.virtual.pinned in /actuator/metrics and as WARN lines in the log.
+//
+// Options: BASE_URL (default http://localhost:8080), FORM_ID, EMAIL, PASSWORD, MAX_VUS (default 400)
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const FORM_ID = __ENV.FORM_ID || '1';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '400', 10);
+
+export const options = {
+  scenarios: {
+    downloads: {
+      executor: 'ramping-vus',
+      startVUs: 10,
+      stages: [
+        { duration: '30s', target: MAX_VUS / 4 },
+        { duration: '30s', target: MAX_VUS / 2 },
+        { duration: '1m', target: MAX_VUS },
+        { duration: '30s', target: 0 },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+  summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+  const res = http.post(`${BASE_URL}/api/v1/auth/login`, JSON.stringify({
+    email: __ENV.EMAIL || 'staff@sonexus.com',
+    password: __ENV.PASSWORD || 'password',
+  }), { headers: { 'Content-Type': 'application/json' } });
+  check(res, { 'logged in': (r) => r.status === 200 });
+  return { token: res.json('token') };
+}
+
+export default function (data) {
+  const res = http.get(`${BASE_URL}/api/v1/forms/${FORM_ID}/download`, {
+    headers: { Authorization: `Bearer ${data.token}` },
+    responseType: 'binary',
+    tags: { name: 'forms/{id}/download' },
+  });
+  check(res, { 'status 200': (r) => r.status === 200 });
+}
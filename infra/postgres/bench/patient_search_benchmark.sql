@@ -0,0 +1,94 @@
+-- Patient search benchmark: LIKE '%term%' scan vs pg_trgm ranked keyset search (V010)
+--
+-- Loads 1M synthetic patients inside a transaction, compares plans and timings, then rolls
+-- everything back. Run against a migrated local database (not production):
+--
+--   psql -h localhost -U postgres -d hcp_portal -f infra/postgres/bench/patient_search_benchmark.sql
+--
+-- Compare "Execution Time" between the sections below. Run twice; the first run warms the cache.
+
+\timing on
+BEGIN;
+
+INSERT INTO patients (reference_id, first_name, last_name, date_of_birth, created_by, created_at, updated_at)
+SELECT 'BX' || lpad(g::text, 7, '0'),
+       (ARRAY['James','Mary','Robert','Patricia','John','Jennifer','Michael','Linda','David','Elizabeth',
+              'William','Barbara','Richard','Susan','Joseph','Jessica','Thomas','Sarah','Charles','Karen'])[1 + g % 20]
+           || CASE WHEN g % 7 = 0 THEN substr(md5(g::text), 1, 3) ELSE '' END,
+       (ARRAY['Smith','Johnson','Williams','Brown','Jones','Garcia','Miller','Davis','Rodriguez','Martinez',
+              'Hernandez','Lopez','Gonzalez','Wilson','Anderson','Thomas','Taylor','Moore','Jackson','Martin'])[1 + (g / 20) % 20]
+           || substr(md5((g * 31)::text), 1, 4),
+       DATE '1940-01-01' + (g % 25000),
+       (SELECT MIN(id) FROM users),
+       now() - (g || ' minutes')::interval,
+       now()
+FROM generate_series(1, 1000000) AS g;
+
+ANALYZE patients;
+
+-- 1. Current query (PatientRepository.searchPatients) without the trigram indexes
+SAVEPOINT without_trgm;
+DROP INDEX idx_patients_first_name_trgm;
+DROP INDEX idx_patients_last_name_trgm;
+DROP INDEX idx_patients_reference_id_trgm;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM patients p
+WHERE LOWER(p.first_name) LIKE LOWER('%' || 'gonz' || '%')
+   OR LOWER(p.last_name) LIKE LOWER('%' || 'gonz' || '%')
+   OR p.reference_id LIKE '%' || 'gonz' || '%'
+ORDER BY p.id
+LIMIT 20 OFFSET 0;
+
+ROLLBACK TO SAVEPOINT without_trgm;
+
+-- 2. Current query with the trigram indexes (bitmap OR over the GIN indexes)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM patients p
+WHERE LOWER(p.first_name) LIKE LOWER('%' || 'gonz' || '%')
+   OR LOWER(p.last_name) LIKE LOWER('%' || 'gonz' || '%')
+   OR p.reference_id LIKE '%' || 'gonz' || '%'
+ORDER BY p.id
+LIMIT 20 OFFSET 0;
+
+-- 3. Ranked search (PatientSearchRepository), first page
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM (
+  SELECT p.*, u.email AS created_by_email,
+    LOWER(p.last_name) AS last_name_key, LOWER(p.first_name) AS first_name_key,
+    CASE WHEN LOWER(p.reference_id) = 'gonz' THEN 0
+         WHEN LOWER(p.last_name) LIKE 'gonz%' THEN 1
+         WHEN LOWER(p.first_name) LIKE 'gonz%' THEN 2
+         WHEN p.reference_id ILIKE 'gonz%' THEN 3
+         ELSE 4 END AS tier
+  FROM patients p JOIN users u ON u.id = p.created_by
+  WHERE (LOWER(p.first_name) LIKE '%gonz%' OR LOWER(p.last_name) LIKE '%gonz%' OR p.reference_id ILIKE '%gonz%')
+) ranked
+ORDER BY tier, last_name_key, first_name_key, id
+LIMIT 21;
+
+-- 4. Ranked search, deep page via keyset (position taken from a mid-result row)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM (
+  SELECT p.*, u.email AS created_by_email,
+    LOWER(p.last_name) AS last_name_key, LOWER(p.first_name) AS first_name_key,
+    CASE WHEN LOWER(p.reference_id) = 'gonz' THEN 0
+         WHEN LOWER(p.last_name) LIKE 'gonz%' THEN 1
+         WHEN LOWER(p.first_name) LIKE 'gonz%' THEN 2
+         WHEN p.reference_id ILIKE 'gonz%' THEN 3
+         ELSE 4 END AS tier
+  FROM patients p JOIN users u ON u.id = p.created_by
+  WHERE (LOWER(p.first_name) LIKE '%gonz%' OR LOWER(p.last_name) LIKE '%gonz%' OR p.reference_id ILIKE '%gonz%')
+) ranked
+WHERE (tier, last_name_key, first_name_key, id) > (1, 'gonzalez8', 'james', 0)
+ORDER BY tier, last_name_key, first_name_key, id
+LIMIT 21;
+
+-- 5. Two-token search ("mary gonz")
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id FROM patients p
+WHERE (LOWER(p.first_name) LIKE '%mary%' OR LOWER(p.last_name) LIKE '%mary%' OR p.reference_id ILIKE '%mary%')
+  AND (LOWER(p.first_name) LIKE '%gonz%' OR LOWER(p.last_name) LIKE '%gonz%' OR p.reference_id ILIKE '%gonz%')
+LIMIT 21;
+
+ROLLBACK;